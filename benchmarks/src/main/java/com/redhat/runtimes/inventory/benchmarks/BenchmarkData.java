@@ -0,0 +1,57 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.benchmarks;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.redhat.runtimes.inventory.events.ArchiveAnnouncement;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.zip.GZIPInputStream;
+
+/** Sample reports of the events tests, from their test-jar. */
+public final class BenchmarkData {
+  private BenchmarkData() {}
+
+  public static byte[] readBytes(String resource) {
+    try (var in = open(resource)) {
+      return in.readAllBytes();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public static String readString(String resource) {
+    return new String(readBytes(resource), UTF_8);
+  }
+
+  public static String readGzippedString(String resource) {
+    try (var in = new GZIPInputStream(open(resource))) {
+      return new String(in.readAllBytes(), UTF_8);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** Reads a report, gunzipping it if its name ends with .gz */
+  public static String readReport(String resource) {
+    return resource.endsWith(".gz") ? readGzippedString(resource) : readString(resource);
+  }
+
+  public static ArchiveAnnouncement announcement() {
+    var announcement = new ArchiveAnnouncement();
+    announcement.setAccountId("accountId");
+    announcement.setOrgId("orgId");
+    announcement.setTimestamp(Instant.now());
+    return announcement;
+  }
+
+  private static InputStream open(String resource) {
+    var in = BenchmarkData.class.getClassLoader().getResourceAsStream(resource);
+    if (in == null) {
+      throw new IllegalStateException("Missing benchmark resource " + resource);
+    }
+    return in;
+  }
+}
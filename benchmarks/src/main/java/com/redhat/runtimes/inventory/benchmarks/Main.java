@@ -0,0 +1,23 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks like the JMH main class, but always with the GC profiler, so that the
+ * allocation rate per operation is reported next to the timings. Takes the usual JMH arguments.
+ */
+public class Main {
+  public static void main(String[] args) throws Exception {
+    var commandLine = new CommandLineOptions(args);
+    if (commandLine.shouldHelp() || commandLine.shouldList()) {
+      org.openjdk.jmh.Main.main(args);
+      return;
+    }
+    var options = new OptionsBuilder().parent(commandLine).addProfiler(GCProfiler.class).build();
+    new Runner(options).run();
+  }
+}
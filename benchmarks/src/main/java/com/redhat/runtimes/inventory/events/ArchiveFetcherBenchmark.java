@@ -0,0 +1,55 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.events;
+
+import com.redhat.runtimes.inventory.benchmarks.BenchmarkData;
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/** Unpacking of the gzipped reports and of the egg tarballs. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArchiveFetcherBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class GzippedReport {
+    @Param({"1J6DOEu9ni-000029.gz", "update1.json.gz", "jdk8_MWTELE-66.gz", "eap_example1.json.gz"})
+    String report;
+
+    byte[] bytes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      bytes = BenchmarkData.readBytes(report);
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class Egg {
+    @Param({"egg_upload.tar.gz"})
+    String archive;
+
+    byte[] bytes;
+    ArchiveFetcher fetcher;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      bytes = BenchmarkData.readBytes(archive);
+      fetcher = new ArchiveFetcher();
+    }
+  }
+
+  @Benchmark
+  public String unzipJson(GzippedReport state) {
+    return ArchiveFetcher.unzipJson(state.bytes);
+  }
+
+  @Benchmark
+  public List<String> getJsonsFromArchiveStream(Egg state) {
+    return state.fetcher.getJsonsFromArchiveStream(new ByteArrayInputStream(state.bytes));
+  }
+}
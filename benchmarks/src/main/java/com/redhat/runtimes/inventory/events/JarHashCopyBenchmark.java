@@ -0,0 +1,159 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.events;
+
+import com.redhat.runtimes.inventory.benchmarks.BenchmarkData;
+import com.redhat.runtimes.inventory.events.generator.ReportGenerator;
+import com.redhat.runtimes.inventory.events.generator.ReportShape;
+import com.redhat.runtimes.inventory.models.JarHash;
+import com.redhat.runtimes.inventory.models.JvmInstance;
+import com.redhat.runtimes.inventory.models.UuidV7Generator;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Storage of the jar hashes of a report and of their join rows, with an INSERT per row as the
+ * cascades of Hibernate do, or with {@link JarHashCopy}. Each operation is a report, the rows/s
+ * counter is the number of jar_hash and jvm_instance_jar_hash rows written per second.
+ *
+ * <p>The tables are created in a schema of their own. Needs a Postgres database, as {@code
+ * UuidInsertBenchmark}, set with the same {@code benchmark.jdbc.*} properties.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class JarHashCopyBenchmark {
+  private static final long SEED = 20231018L;
+  private static final String SCHEMA = "jar_hash_copy_benchmark";
+
+  @Param({"50", "500", "2000"})
+  int jars;
+
+  private Connection connection;
+  private Set<JarHash> jarHashes;
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class Rows {
+    public long rows;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      rows = 0;
+    }
+  }
+
+  @Setup(Level.Trial)
+  public void setup() throws SQLException {
+    connection =
+        DriverManager.getConnection(
+            System.getProperty("benchmark.jdbc.url", "jdbc:postgresql://127.0.0.1:5432/runtimes"),
+            System.getProperty("benchmark.jdbc.user", "postgres"),
+            System.getProperty("benchmark.jdbc.password", "postgres"));
+    try (var statement = connection.createStatement()) {
+      statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+      statement.execute("CREATE SCHEMA " + SCHEMA);
+      statement.execute("SET search_path TO " + SCHEMA);
+      // The columns and keys of the tables of the ingestion
+      statement.execute("CREATE TABLE jvm_instance (id uuid PRIMARY KEY)");
+      statement.execute(
+          """
+            CREATE TABLE jar_hash (
+              id uuid PRIMARY KEY,
+              name character varying(255) NOT NULL,
+              group_id character varying(255) NOT NULL,
+              vendor character varying(255) NOT NULL,
+              version character varying(255) NOT NULL,
+              sha1 bytea NOT NULL,
+              sha256 bytea NOT NULL,
+              sha512 bytea NOT NULL)
+          """);
+      statement.execute(
+          """
+            CREATE TABLE jvm_instance_jar_hash (
+              jvm_instance_id uuid NOT NULL REFERENCES jvm_instance (id),
+              jar_hash_id uuid NOT NULL REFERENCES jar_hash (id),
+              PRIMARY KEY (jvm_instance_id, jar_hash_id))
+          """);
+    }
+    connection.setAutoCommit(false);
+
+    var generator =
+        new ReportGenerator(SEED, ReportShape.builder().jvmJars(jars).jarReuse(0).build());
+    var report = generator.jvmReport(generator.host(0)).json();
+    jarHashes =
+        ((JvmInstance) Utils.instanceOf(BenchmarkData.announcement(), report)).getJarHashes();
+  }
+
+  @Benchmark
+  public void insert(Rows rows) throws SQLException {
+    var instance = newInstance();
+    try (var jar =
+            connection.prepareStatement(
+                "INSERT INTO jar_hash (id, name, group_id, vendor, version, sha1, sha256, sha512)"
+                    + " VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+        var link =
+            connection.prepareStatement(
+                "INSERT INTO jvm_instance_jar_hash (jvm_instance_id, jar_hash_id) VALUES (?, ?)")) {
+      for (var jarHash : jarHashes) {
+        jarHash.setId(UuidV7Generator.newUuid());
+        jar.setObject(1, jarHash.getId());
+        jar.setString(2, jarHash.getName());
+        jar.setString(3, jarHash.getGroupId());
+        jar.setString(4, jarHash.getVendor());
+        jar.setString(5, jarHash.getVersion());
+        jar.setBytes(6, jarHash.getSha1Digest().toBytes());
+        jar.setBytes(7, jarHash.getSha256Digest().toBytes());
+        jar.setBytes(8, jarHash.getSha512Digest().toBytes());
+        jar.executeUpdate();
+      }
+      for (var jarHash : jarHashes) {
+        link.setObject(1, instance);
+        link.setObject(2, jarHash.getId());
+        link.executeUpdate();
+      }
+    }
+    connection.commit();
+    rows.rows += 2L * jarHashes.size();
+  }
+
+  @Benchmark
+  public void copy(Rows rows) throws SQLException {
+    var instance = newInstance();
+    jarHashes.forEach(jarHash -> jarHash.setId(null));
+    JarHashCopy.copy(
+        connection,
+        List.of(
+            new JarHashCopy.Link(
+                "jvm_instance_jar_hash", "jvm_instance_id", () -> instance, jarHashes)));
+    connection.commit();
+    rows.rows += 2L * jarHashes.size();
+  }
+
+  private UUID newInstance() throws SQLException {
+    var id = UuidV7Generator.newUuid();
+    try (var insert = connection.prepareStatement("INSERT INTO jvm_instance (id) VALUES (?)")) {
+      insert.setObject(1, id);
+      insert.executeUpdate();
+    }
+    return id;
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws SQLException {
+    try (var statement = connection.createStatement()) {
+      statement.execute("DROP SCHEMA " + SCHEMA + " CASCADE");
+      connection.commit();
+    } finally {
+      connection.close();
+    }
+  }
+}
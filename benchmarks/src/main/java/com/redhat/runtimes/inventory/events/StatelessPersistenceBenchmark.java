@@ -0,0 +1,136 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.events;
+
+import com.redhat.runtimes.inventory.benchmarks.BenchmarkData;
+import com.redhat.runtimes.inventory.events.generator.ReportGenerator;
+import com.redhat.runtimes.inventory.events.generator.ReportShape;
+import com.redhat.runtimes.inventory.models.JarHash;
+import com.redhat.runtimes.inventory.models.JvmInstance;
+import com.redhat.runtimes.inventory.models.RuntimeProfile;
+import com.redhat.runtimes.inventory.models.SnakeCasePhysicalNamingStrategy;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Storage of a new JVM instance and of its jar hashes, persisted by a session as the entity manager
+ * of the ingestion does, or inserted by {@link StatelessPersistence}. Each operation is a report in
+ * a transaction of its own, the allocations per report are reported by the GC profiler of the
+ * benchmarks main class. The jar hashes stay below the threshold of {@link JarHashLoader}, which
+ * would take them out of both paths.
+ *
+ * <p>The tables are created by Hibernate in a schema of their own. Needs a Postgres database, as
+ * {@code UuidInsertBenchmark}, set with the same {@code benchmark.jdbc.*} properties.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class StatelessPersistenceBenchmark {
+  private static final long SEED = 20231018L;
+  private static final String SCHEMA = "stateless_persistence_benchmark";
+  private static final int BATCH_SIZE = 50;
+
+  @Param({"20", "150"})
+  int jars;
+
+  private String url;
+  private String user;
+  private String password;
+  private SessionFactory sessionFactory;
+  private Validator validator;
+  private ArchiveAnnouncement announcement;
+  private String report;
+  private RuntimeProfile profile;
+
+  @Setup(Level.Trial)
+  public void setup() throws SQLException {
+    url = System.getProperty("benchmark.jdbc.url", "jdbc:postgresql://127.0.0.1:5432/runtimes");
+    user = System.getProperty("benchmark.jdbc.user", "postgres");
+    password = System.getProperty("benchmark.jdbc.password", "postgres");
+    execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE", "CREATE SCHEMA " + SCHEMA);
+
+    var registry =
+        new StandardServiceRegistryBuilder()
+            .applySetting(
+                AvailableSettings.URL,
+                url + (url.contains("?") ? "&" : "?") + "currentSchema=" + SCHEMA)
+            .applySetting(AvailableSettings.USER, user)
+            .applySetting(AvailableSettings.PASS, password)
+            .applySetting(AvailableSettings.HBM2DDL_AUTO, "create")
+            .applySetting(
+                AvailableSettings.PHYSICAL_NAMING_STRATEGY,
+                SnakeCasePhysicalNamingStrategy.class.getName())
+            .build();
+    sessionFactory =
+        new MetadataSources(registry)
+            .addAnnotatedClasses(JvmInstance.class, RuntimeProfile.class, JarHash.class)
+            .buildMetadata()
+            .buildSessionFactory();
+    validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    var generator =
+        new ReportGenerator(SEED, ReportShape.builder().jvmJars(jars).jarReuse(0).build());
+    announcement = BenchmarkData.announcement();
+    report = generator.jvmReport(generator.host(0)).json();
+    // Stored once, as RuntimeProfiles does
+    profile = ((JvmInstance) Utils.instanceOf(announcement, report)).getRuntimeProfile();
+    try (var session = sessionFactory.openSession()) {
+      var transaction = session.beginTransaction();
+      session.persist(profile);
+      transaction.commit();
+    }
+  }
+
+  @Benchmark
+  public JvmInstance stateful() {
+    var inst = newInstance();
+    try (var session = sessionFactory.openSession()) {
+      var transaction = session.beginTransaction();
+      session.persist(inst);
+      transaction.commit();
+    }
+    return inst;
+  }
+
+  @Benchmark
+  public JvmInstance stateless() {
+    var inst = newInstance();
+    try (var session = sessionFactory.openStatelessSession()) {
+      var transaction = session.beginTransaction();
+      StatelessPersistence.insert(session, BATCH_SIZE, validator, inst);
+      transaction.commit();
+    }
+    return inst;
+  }
+
+  private JvmInstance newInstance() {
+    var inst = (JvmInstance) Utils.instanceOf(announcement, report);
+    inst.setRuntimeProfile(profile);
+    return inst;
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws SQLException {
+    sessionFactory.close();
+    execute("DROP SCHEMA " + SCHEMA + " CASCADE");
+  }
+
+  private void execute(String... sql) throws SQLException {
+    try (var connection = DriverManager.getConnection(url, user, password);
+        var statement = connection.createStatement()) {
+      for (var s : sql) {
+        statement.execute(s);
+      }
+    }
+  }
+}
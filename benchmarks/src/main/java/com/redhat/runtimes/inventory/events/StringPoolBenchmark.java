@@ -0,0 +1,98 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.events;
+
+import com.redhat.runtimes.inventory.benchmarks.BenchmarkData;
+import com.redhat.runtimes.inventory.events.generator.ReportGenerator;
+import com.redhat.runtimes.inventory.events.generator.ReportShape;
+import com.redhat.runtimes.inventory.models.InsightsMessage;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Mapping of the reports of a generated fleet, all kept in memory together as in a batch of
+ * concurrent ingestions, with and without the pool of repeated values. The heap retained by the
+ * mapped instances is printed at the end of each trial, the allocations are reported by the GC
+ * profiler of the benchmarks main class.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StringPoolBenchmark {
+  private static final long SEED = 20231018L;
+  private static final int RETAINED_ROUNDS = 5;
+
+  @State(Scope.Benchmark)
+  public static class Fleet {
+    @Param({"jvm", "eap"})
+    String kind;
+
+    @Param({"200"})
+    int hosts;
+
+    ArchiveAnnouncement announcement;
+    List<String> reports;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      var generator =
+          new ReportGenerator(SEED, ReportShape.builder().orgs(10).hostsPerOrg(hosts / 10).build());
+      announcement = BenchmarkData.announcement();
+      reports = new ArrayList<>();
+      for (int i = 0; i < generator.hostCount(); i++) {
+        var host = generator.host(i);
+        reports.add(
+            "eap".equals(kind)
+                ? generator.eapReport(host).json()
+                : generator.jvmReport(host).json());
+      }
+    }
+
+    @TearDown(Level.Trial)
+    public void printRetainedHeap() {
+      long before = usedHeap();
+      // Mapped a few times over, so that what is retained is well above the noise
+      var mapped = new ArrayList<InsightsMessage>();
+      for (int i = 0; i < RETAINED_ROUNDS; i++) {
+        mapped.addAll(mapAll(this));
+      }
+      long retained = usedHeap() - before;
+      Reference.reachabilityFence(mapped);
+      System.out.printf(
+          "%n%d %s instances retain %d KiB, %d bytes per instance%n",
+          mapped.size(), kind, retained / 1024, retained / mapped.size());
+    }
+  }
+
+  @Benchmark
+  public List<InsightsMessage> pooled(Fleet fleet) {
+    return mapAll(fleet);
+  }
+
+  @Benchmark
+  @Fork(jvmArgsAppend = "-D" + Utils.STRING_POOL_SLOTS + "=0")
+  public List<InsightsMessage> unpooled(Fleet fleet) {
+    return mapAll(fleet);
+  }
+
+  static List<InsightsMessage> mapAll(Fleet fleet) {
+    var out = new ArrayList<InsightsMessage>(fleet.reports.size());
+    for (var json : fleet.reports) {
+      out.add(Utils.instanceOf(fleet.announcement, json));
+    }
+    return out;
+  }
+
+  private static long usedHeap() {
+    var memory = ManagementFactory.getMemoryMXBean();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return memory.getHeapMemoryUsage().getUsed();
+  }
+}
@@ -0,0 +1,66 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.events;
+
+import com.redhat.runtimes.inventory.benchmarks.BenchmarkData;
+import com.redhat.runtimes.inventory.events.generator.ReportGenerator;
+import com.redhat.runtimes.inventory.events.generator.ReportShape;
+import com.redhat.runtimes.inventory.models.InsightsMessage;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/** Mapping of generated reports, far bigger than the sample ones. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SyntheticReportBenchmark {
+  private static final long SEED = 20231018L;
+
+  @State(Scope.Benchmark)
+  public static class Jvm {
+    @Param({"100", "1000", "5000"})
+    int jars;
+
+    ArchiveAnnouncement announcement;
+    String json;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      var generator = new ReportGenerator(SEED, ReportShape.builder().jvmJars(jars).build());
+      announcement = BenchmarkData.announcement();
+      json = generator.jvmReport(generator.host(0)).json();
+      System.out.printf("%nJVM report with %d jars: %d chars%n", jars, json.length());
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class Eap {
+    @Param({"2", "50", "200"})
+    int deployments;
+
+    ArchiveAnnouncement announcement;
+    String json;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      var generator =
+          new ReportGenerator(
+              SEED,
+              ReportShape.builder().eapDeployments(deployments).archivesPerDeployment(10).build());
+      announcement = BenchmarkData.announcement();
+      json = generator.eapReport(generator.host(0)).json();
+      System.out.printf("%nEAP report with %d deployments: %d chars%n", deployments, json.length());
+    }
+  }
+
+  @Benchmark
+  public InsightsMessage jvmInstanceOf(Jvm state) {
+    return Utils.instanceOf(state.announcement, state.json);
+  }
+
+  @Benchmark
+  public InsightsMessage eapInstanceOf(Eap state) {
+    return Utils.instanceOf(state.announcement, state.json);
+  }
+}
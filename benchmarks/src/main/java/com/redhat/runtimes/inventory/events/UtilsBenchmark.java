@@ -0,0 +1,70 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.events;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redhat.runtimes.inventory.benchmarks.BenchmarkData;
+import com.redhat.runtimes.inventory.models.InsightsMessage;
+import com.redhat.runtimes.inventory.models.JarHash;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/** Mapping of the incoming reports to the model. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UtilsBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class Report {
+    @Param({"test17.json", "jdk8_MWTELE-66.gz", "eap_example1.json.gz", "update1.json.gz"})
+    String report;
+
+    ArchiveAnnouncement announcement;
+    String json;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      announcement = BenchmarkData.announcement();
+      json = BenchmarkData.readReport(report);
+    }
+  }
+
+  /** The "jars" of a JVM report, or the "eap-modules" of an EAP report */
+  @State(Scope.Benchmark)
+  public static class Jars {
+    @Param({"test17.json:jars", "jdk8_MWTELE-66.gz:modules", "eap_example1.json.gz:modules"})
+    String jars;
+
+    Map<String, Object> jarsRep;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setup() throws Exception {
+      var reportAndKey = jars.split(":", 2);
+      var o =
+          new ObjectMapper()
+              .readValue(
+                  BenchmarkData.readReport(reportAndKey[0]),
+                  new TypeReference<Map<String, Object>>() {});
+      jarsRep =
+          "modules".equals(reportAndKey[1])
+              ? (Map<String, Object>) ((Map<String, Object>) o.get("eap")).get("eap-modules")
+              : (Map<String, Object>) o.get("jars");
+    }
+  }
+
+  @Benchmark
+  public InsightsMessage instanceOf(Report state) {
+    return Utils.instanceOf(state.announcement, state.json);
+  }
+
+  @Benchmark
+  public Set<JarHash> jarHashesOf(Jars state) {
+    return Utils.jarHashesOf(state.jarsRep);
+  }
+}
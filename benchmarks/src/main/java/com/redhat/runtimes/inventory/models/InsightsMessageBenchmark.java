@@ -0,0 +1,49 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.models;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redhat.runtimes.inventory.benchmarks.BenchmarkData;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/** Redaction of the JVM arguments and command line of the reports. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsightsMessageBenchmark {
+
+  @Param({
+    "test17.json:jvm.args",
+    "test17.json:java.command",
+    "jdk8_MWTELE-66.gz:jvm.args",
+    "eap_example1.json.gz:jvm.args",
+    "jdk8_MWTELE-66.gz:java.command"
+  })
+  String parameters;
+
+  private String unsanitized;
+
+  @Setup(Level.Trial)
+  @SuppressWarnings("unchecked")
+  public void setup() throws Exception {
+    var reportAndKey = parameters.split(":", 2);
+    var o =
+        new ObjectMapper()
+            .readValue(
+                BenchmarkData.readReport(reportAndKey[0]),
+                new TypeReference<Map<String, Object>>() {});
+    var basic = (Map<String, Object>) o.get("basic");
+    unsanitized = String.valueOf(basic.get(reportAndKey[1]));
+    System.out.printf("%n%s: %d chars%n", parameters, unsanitized.length());
+  }
+
+  @Benchmark
+  public String sanitizeJavaParameters() {
+    return InsightsMessage.sanitizeJavaParameters(unsanitized);
+  }
+}
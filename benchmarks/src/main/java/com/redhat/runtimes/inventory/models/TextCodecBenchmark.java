@@ -0,0 +1,85 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.models;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.redhat.runtimes.inventory.benchmarks.BenchmarkData;
+import com.redhat.runtimes.inventory.events.Utils;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Write (encode) and read (decode) cost of the codecs used for the compressed text columns. The
+ * stored size of each column is printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TextCodecBenchmark {
+
+  @Param({"PLAIN", "GZIP", "DEFLATE_DICTIONARY"})
+  TextCodec codec;
+
+  @Param({
+    "jvm.java_class_path",
+    "jvm.jvm_packages",
+    "eap.socket_binding_groups",
+    "eap.paths",
+    "eap.interfaces",
+    "eap.core_services",
+    "eap.raw"
+  })
+  String column;
+
+  private String text;
+  private byte[] encoded;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    text = columnValue(column);
+    encoded = codec.encode(text);
+    System.out.printf(
+        "%n%s: %d bytes as text, %d bytes stored with %s%n",
+        column, text.getBytes(UTF_8).length, encoded.length, codec);
+  }
+
+  @Benchmark
+  public byte[] encode() {
+    return codec.encode(text);
+  }
+
+  @Benchmark
+  public String decode() {
+    return TextCodec.decode(encoded);
+  }
+
+  static String columnValue(String column) {
+    if (column.startsWith("jvm.")) {
+      var jvm =
+          Utils.jvmInstanceOf(
+              BenchmarkData.announcement(), BenchmarkData.readString("test17.json"));
+      return switch (column) {
+        case "jvm.java_class_path" -> jvm.getJavaClassPath();
+        case "jvm.jvm_packages" -> jvm.getJvmPackages();
+        default -> throw new IllegalArgumentException(column);
+      };
+    }
+    var eap =
+        (EapInstance)
+            Utils.eapInstanceOf(
+                BenchmarkData.announcement(),
+                BenchmarkData.readGzippedString("eap_example1.json.gz"));
+    var configuration = eap.getConfiguration();
+    return switch (column) {
+      case "eap.socket_binding_groups" -> configuration.getSocketBindingGroups();
+      case "eap.paths" -> configuration.getPaths();
+      case "eap.interfaces" -> configuration.getInterfaces();
+      case "eap.core_services" -> configuration.getCoreServices();
+      case "eap.raw" -> eap.getRaw();
+      default -> throw new IllegalArgumentException(column);
+    };
+  }
+}
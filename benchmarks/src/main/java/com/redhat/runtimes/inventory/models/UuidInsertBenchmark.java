@@ -0,0 +1,128 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.models;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Insert throughput into a table keyed by random (version 4) or time-ordered (version 7) UUIDs,
+ * like jar_hash. The rows accumulate over the iterations, so the later ones insert into a larger
+ * index; use {@code -p preload=} to start from a table that no longer fits in shared_buffers. The
+ * table, primary key and WAL sizes are printed at the end of each trial.
+ *
+ * <p>Needs a Postgres database, by default the local one of the REST service. Set {@code
+ * benchmark.jdbc.url}, {@code benchmark.jdbc.user} and {@code benchmark.jdbc.password} with {@code
+ * -jvmArgs} to use another.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class UuidInsertBenchmark {
+  private static final int BATCH = 1000;
+
+  public enum Generator {
+    RANDOM(UUID::randomUUID),
+    V7(UuidV7Generator::newUuid);
+
+    final Supplier<UUID> ids;
+
+    Generator(Supplier<UUID> ids) {
+      this.ids = ids;
+    }
+  }
+
+  @Param({"RANDOM", "V7"})
+  Generator generator;
+
+  @Param({"0"})
+  int preload;
+
+  private Connection connection;
+  private String table;
+  private String walStart;
+
+  @Setup(Level.Trial)
+  public void setup() throws SQLException {
+    connection =
+        DriverManager.getConnection(
+            System.getProperty("benchmark.jdbc.url", "jdbc:postgresql://127.0.0.1:5432/runtimes"),
+            System.getProperty("benchmark.jdbc.user", "postgres"),
+            System.getProperty("benchmark.jdbc.password", "postgres"));
+    table = "uuid_benchmark_" + generator.name().toLowerCase();
+    try (var statement = connection.createStatement()) {
+      statement.execute("DROP TABLE IF EXISTS " + table);
+      statement.execute(
+          "CREATE TABLE "
+              + table
+              + " (id uuid PRIMARY KEY, name varchar(255), version varchar(255), sha256Checksum"
+              + " varchar(255))");
+    }
+    for (int i = 0; i < preload; i += BATCH) {
+      insertBatch();
+    }
+    try (var statement = connection.createStatement();
+        var result = statement.executeQuery("SELECT pg_current_wal_lsn()")) {
+      result.next();
+      walStart = result.getString(1);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH)
+  public void insert() throws SQLException {
+    insertBatch();
+  }
+
+  private void insertBatch() throws SQLException {
+    try (var insert =
+        connection.prepareStatement(
+            "INSERT INTO " + table + " (id, name, version, sha256Checksum) VALUES (?, ?, ?, ?)")) {
+      for (int i = 0; i < BATCH; i++) {
+        var id = generator.ids.get();
+        insert.setObject(1, id);
+        insert.setString(2, "jboss-logging-" + (i % 97) + ".jar");
+        insert.setString(3, "3.5." + (i % 13) + ".Final");
+        insert.setString(4, Long.toHexString(id.getLeastSignificantBits()).repeat(4));
+        insert.addBatch();
+      }
+      insert.executeBatch();
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws SQLException {
+    try (var statement = connection.createStatement();
+        var result =
+            statement.executeQuery(
+                "SELECT count(*), pg_relation_size('"
+                    + table
+                    + "'), pg_relation_size('"
+                    + table
+                    + "_pkey'), pg_wal_lsn_diff(pg_current_wal_lsn(), '"
+                    + walStart
+                    + "') FROM "
+                    + table)) {
+      result.next();
+      long rows = result.getLong(1);
+      System.out.printf(
+          "%n%s: %d rows, table %d kB, primary key %d kB (%.1f bytes per row), WAL %d kB%n",
+          generator,
+          rows,
+          result.getLong(2) / 1024,
+          result.getLong(3) / 1024,
+          (double) result.getLong(3) / rows,
+          result.getLong(4) / 1024);
+      statement.execute("DROP TABLE " + table);
+    } finally {
+      connection.close();
+    }
+  }
+}
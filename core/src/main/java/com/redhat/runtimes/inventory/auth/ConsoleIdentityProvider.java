@@ -1,4 +1,4 @@
-/* Copyright (C) Red Hat 2023 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.runtimes.inventory.auth;
 
 import static com.redhat.runtimes.inventory.models.Constants.X_RH_IDENTITY_HEADER;
@@ -10,8 +10,9 @@ import com.redhat.runtimes.inventory.auth.principal.ConsolePrincipal;
 import com.redhat.runtimes.inventory.auth.principal.ConsolePrincipalFactory;
 import com.redhat.runtimes.inventory.auth.principal.IllegalIdentityHeaderException;
 import com.redhat.runtimes.inventory.auth.principal.rhid.RhIdentity;
-import com.redhat.runtimes.inventory.auth.rbac.RbacServer;
-import io.netty.channel.ConnectTimeoutException;
+import com.redhat.runtimes.inventory.auth.rbac.RbacPermissionCache;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
 import io.quarkus.logging.Log;
 import io.quarkus.security.AuthenticationFailedException;
 import io.quarkus.security.identity.AuthenticationRequestContext;
@@ -22,12 +23,9 @@ import io.smallrye.mutiny.Uni;
 import io.vertx.core.json.Json;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import java.io.IOException;
 import java.security.Principal;
-import java.time.Duration;
 import java.util.Base64;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
-import org.eclipse.microprofile.rest.client.inject.RestClient;
 
 // Derived from notifications-backend
 
@@ -38,20 +36,16 @@ public class ConsoleIdentityProvider implements IdentityProvider<ConsoleAuthenti
   public static final String RBAC_READ_HOSTS = "read:hosts";
   public static final String RBAC_WRITE_HOSTS = "write:hosts";
 
-  @Inject @RestClient RbacServer rbacServer;
+  @Inject RbacPermissionCache rbacPermissionCache;
+
+  // Parsed x-rh-identity headers, clients send the same header with every call
+  @Inject
+  @CacheName("rh-identity-cache")
+  Cache identityCache;
 
   @ConfigProperty(name = "rbac.enabled", defaultValue = "true")
   Boolean isRbacEnabled;
 
-  @ConfigProperty(name = "rbac.retry.max-attempts", defaultValue = "3")
-  long maxRetryAttempts;
-
-  @ConfigProperty(name = "rbac.retry.back-off.initial-value", defaultValue = "0.1S")
-  Duration initialBackOff;
-
-  @ConfigProperty(name = "rbac.retry.back-off.max-value", defaultValue = "1S")
-  Duration maxBackOff;
-
   @Override
   public Class<ConsoleAuthenticationRequest> getRequestType() {
     return ConsoleAuthenticationRequest.class;
@@ -62,27 +56,31 @@ public class ConsoleIdentityProvider implements IdentityProvider<ConsoleAuthenti
       ConsoleAuthenticationRequest rhAuthReq,
       AuthenticationRequestContext authenticationRequestContext) {
     if (!isRbacEnabled) {
-      Principal principal;
       String xH = rhAuthReq.getAttribute(X_RH_IDENTITY_HEADER);
-      if (xH != null) {
-        ConsoleIdentity identity = getRhIdentityFromString(xH);
-        try {
-          principal = ConsolePrincipalFactory.fromIdentity(identity);
-        } catch (IllegalIdentityHeaderException e) {
-          return Uni.createFrom().failure(() -> new AuthenticationFailedException(e));
-        }
-      } else {
-        principal = ConsolePrincipal.noIdentity();
-      }
+      Uni<ConsoleIdentity> identity = xH != null ? identityOf(xH) : Uni.createFrom().nullItem();
+      return identity
+          .onItem()
+          .transformToUni(
+              i -> {
+                Principal principal;
+                if (i != null) {
+                  try {
+                    principal = ConsolePrincipalFactory.fromIdentity(i);
+                  } catch (IllegalIdentityHeaderException e) {
+                    return Uni.createFrom().failure(() -> new AuthenticationFailedException(e));
+                  }
+                } else {
+                  principal = ConsolePrincipal.noIdentity();
+                }
 
-      return Uni.createFrom()
-          .item(
-              () ->
-                  QuarkusSecurityIdentity.builder()
-                      .setPrincipal(principal)
-                      .addRole(RBAC_READ_HOSTS)
-                      .addRole(RBAC_WRITE_HOSTS)
-                      .build());
+                return Uni.createFrom()
+                    .item(
+                        QuarkusSecurityIdentity.builder()
+                            .setPrincipal(principal)
+                            .addRole(RBAC_READ_HOSTS)
+                            .addRole(RBAC_WRITE_HOSTS)
+                            .build());
+              });
     }
     // Retrieve the identity header from the authentication request
     return Uni.createFrom()
@@ -90,14 +88,13 @@ public class ConsoleIdentityProvider implements IdentityProvider<ConsoleAuthenti
         .onItem()
         .transformToUni(
             xRhIdHeader ->
-                // Start building a QuarkusSecurityIdentity
-                Uni.createFrom()
-                    .item(QuarkusSecurityIdentity.builder())
+                // Decode the header and deserialize the resulting JSON
+                identityOf(xRhIdHeader)
                     .onItem()
                     .transformToUni(
-                        builder -> {
-                          // Decode the header and deserialize the resulting JSON
-                          ConsoleIdentity identity = getRhIdentityFromString(xRhIdHeader);
+                        identity -> {
+                          // Start building a QuarkusSecurityIdentity
+                          var builder = QuarkusSecurityIdentity.builder();
                           try {
                             ConsolePrincipal<?> principal =
                                 ConsolePrincipalFactory.fromIdentity(identity);
@@ -107,20 +104,9 @@ public class ConsoleIdentityProvider implements IdentityProvider<ConsoleAuthenti
                                 .failure(() -> new AuthenticationFailedException(e));
                           }
                           if (identity instanceof RhIdentity) {
-                            return rbacServer
-                                .getRbacInfo("inventory", xRhIdHeader)
-                                /*
-                                 * RBAC server calls fail regularly because of RBAC instability so we need to retry.
-                                 * IOException is thrown when the connection between us and RBAC is reset during an RBAC call execution.
-                                 * ConnectTimeoutException is thrown when RBAC does not respond at all to our call.
-                                 */
-                                .onFailure(
-                                    failure ->
-                                        failure.getClass() == IOException.class
-                                            || failure.getClass() == ConnectTimeoutException.class)
-                                .retry()
-                                .withBackOff(initialBackOff, maxBackOff)
-                                .atMost(maxRetryAttempts)
+                            // The cache retries failed RBAC calls, see RbacPermissionCache
+                            return rbacPermissionCache
+                                .get(xRhIdHeader)
                                 // After we're done retrying, an RBAC server call failure will cause
                                 // an authentication failure
                                 .onFailure()
@@ -133,11 +119,11 @@ public class ConsoleIdentityProvider implements IdentityProvider<ConsoleAuthenti
                                 // return the result
                                 .onItem()
                                 .transform(
-                                    rbacRaw -> {
-                                      if (rbacRaw.canRead("inventory", "hosts")) {
+                                    permissions -> {
+                                      if (permissions.canRead("inventory", "hosts")) {
                                         builder.addRole(RBAC_READ_HOSTS);
                                       }
-                                      if (rbacRaw.canWrite("inventory", "hosts")) {
+                                      if (permissions.canWrite("inventory", "hosts")) {
                                         builder.addRole(RBAC_WRITE_HOSTS);
                                       }
                                       return builder.build();
@@ -158,6 +144,10 @@ public class ConsoleIdentityProvider implements IdentityProvider<ConsoleAuthenti
                         }));
   }
 
+  private Uni<ConsoleIdentity> identityOf(String xRhIdHeader) {
+    return identityCache.get(xRhIdHeader, ConsoleIdentityProvider::getRhIdentityFromString);
+  }
+
   static ConsoleIdentity getRhIdentityFromString(String xRhIdHeader) {
     String xRhDecoded = new String(Base64.getDecoder().decode(xRhIdHeader.getBytes(UTF_8)), UTF_8);
     ConsoleIdentity identity =
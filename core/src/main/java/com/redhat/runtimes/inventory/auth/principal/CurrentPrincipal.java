@@ -0,0 +1,43 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.auth.principal;
+
+import com.redhat.runtimes.inventory.auth.principal.rhid.RhIdPrincipal;
+import com.redhat.runtimes.inventory.auth.principal.rhid.RhIdentity;
+import io.quarkus.security.identity.SecurityIdentity;
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Gives resources access to the principal resolved by the ConsoleIdentityProvider during
+ * authentication, so that they don't have to decode the x-rh-identity header again.
+ */
+@RequestScoped
+public class CurrentPrincipal {
+
+  @Inject SecurityIdentity securityIdentity;
+
+  public ConsolePrincipal<?> getPrincipal() {
+    if (securityIdentity.getPrincipal() instanceof ConsolePrincipal<?> principal) {
+      return principal;
+    }
+    return ConsolePrincipal.noIdentity();
+  }
+
+  /**
+   * @return the identity of the request, or null if the request was not made with a RH identity
+   */
+  public RhIdentity getRhIdentity() {
+    if (getPrincipal() instanceof RhIdPrincipal principal) {
+      return principal.getIdentity();
+    }
+    return null;
+  }
+
+  /**
+   * @return the org id of the request, or null if the request was not made with a RH identity
+   */
+  public String getOrgId() {
+    RhIdentity identity = getRhIdentity();
+    return identity == null ? null : identity.getOrgId();
+  }
+}
@@ -0,0 +1,206 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.auth.rbac;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import dev.failsafe.CircuitBreaker;
+import dev.failsafe.CircuitBreakerOpenException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ConnectTimeoutException;
+import io.quarkus.logging.Log;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+
+/**
+ * Caches the compiled RBAC permissions of each identity.
+ *
+ * <p>Loads are single-flight: concurrent requests for an identity that isn't cached share one call
+ * to RBAC. Entries are refreshed ahead of their expiry: the first request after {@code
+ * rbac.cache.refresh-after} triggers a reload in the background and is still answered from the
+ * current entry.
+ *
+ * <p>When RBAC is unreachable, an expired entry keeps being served for {@code
+ * rbac.cache.stale-window}. Entries without any permission expire after the shorter {@code
+ * rbac.cache.negative-expire-after}, so that newly granted access is picked up quickly. A circuit
+ * breaker stops calling RBAC (and retrying) for {@code rbac.circuit-breaker.delay} once it has
+ * failed {@code rbac.circuit-breaker.failure-threshold} times in a row.
+ */
+@ApplicationScoped
+public class RbacPermissionCache {
+
+  static final String APPLICATION = "inventory";
+
+  public static final String STALE_SERVED_COUNTER_NAME = "rbac.stale.served";
+  public static final String NEGATIVE_SERVED_COUNTER_NAME = "rbac.negative.served";
+  public static final String CIRCUIT_REJECTED_COUNTER_NAME = "rbac.circuit.rejected";
+  public static final String CIRCUIT_OPEN_GAUGE_NAME = "rbac.circuit.open";
+
+  @Inject @RestClient RbacServer rbacServer;
+
+  @Inject MeterRegistry registry;
+
+  @ConfigProperty(name = "rbac.cache.refresh-after", defaultValue = "PT60S")
+  Duration refreshAfter;
+
+  @ConfigProperty(name = "rbac.cache.expire-after", defaultValue = "PT120S")
+  Duration expireAfter;
+
+  @ConfigProperty(name = "rbac.cache.negative-expire-after", defaultValue = "PT10S")
+  Duration negativeExpireAfter;
+
+  @ConfigProperty(name = "rbac.cache.stale-window", defaultValue = "PT10M")
+  Duration staleWindow;
+
+  @ConfigProperty(name = "rbac.cache.max-size", defaultValue = "10000")
+  long maxSize;
+
+  @ConfigProperty(name = "rbac.retry.max-attempts", defaultValue = "3")
+  long maxRetryAttempts;
+
+  @ConfigProperty(name = "rbac.retry.back-off.initial-value", defaultValue = "0.1S")
+  Duration initialBackOff;
+
+  @ConfigProperty(name = "rbac.retry.back-off.max-value", defaultValue = "1S")
+  Duration maxBackOff;
+
+  @ConfigProperty(name = "rbac.circuit-breaker.failure-threshold", defaultValue = "5")
+  int failureThreshold;
+
+  @ConfigProperty(name = "rbac.circuit-breaker.delay", defaultValue = "PT30S")
+  Duration circuitBreakerDelay;
+
+  // Replaced in tests
+  Ticker ticker = Ticker.systemTicker();
+
+  private AsyncLoadingCache<String, Entry> cache;
+  private CircuitBreaker<Object> circuitBreaker;
+  private Counter staleServedCounter;
+  private Counter negativeServedCounter;
+  private Counter circuitRejectedCounter;
+
+  /** Permissions and the time (of the ticker) they were loaded at. */
+  record Entry(RbacPermissions permissions, long loadedAt) {}
+
+  @PostConstruct
+  void init() {
+    circuitBreaker =
+        CircuitBreaker.builder()
+            .withFailureThreshold(failureThreshold)
+            .withDelay(circuitBreakerDelay)
+            .onOpen(e -> Log.warnf("RBAC circuit breaker opened for %s", circuitBreakerDelay))
+            .onClose(e -> Log.info("RBAC circuit breaker closed"))
+            .build();
+    staleServedCounter = registry.counter(STALE_SERVED_COUNTER_NAME);
+    negativeServedCounter = registry.counter(NEGATIVE_SERVED_COUNTER_NAME);
+    circuitRejectedCounter = registry.counter(CIRCUIT_REJECTED_COUNTER_NAME);
+    registry.gauge(CIRCUIT_OPEN_GAUGE_NAME, this, c -> c.circuitBreaker.isOpen() ? 1 : 0);
+
+    cache =
+        Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .refreshAfterWrite(refreshAfter)
+            // Entries are kept past their expiry so that they can be served while RBAC is down
+            .expireAfterWrite(expireAfter.plus(staleWindow))
+            .ticker(ticker)
+            .buildAsync((xRhIdHeader, executor) -> load(xRhIdHeader));
+  }
+
+  /** The permissions of the identity, from the cache or RBAC. */
+  public Uni<RbacPermissions> get(String xRhIdHeader) {
+    return Uni.createFrom().completionStage(() -> lookup(xRhIdHeader));
+  }
+
+  private CompletableFuture<RbacPermissions> lookup(String xRhIdHeader) {
+    return cache
+        .get(xRhIdHeader)
+        .thenCompose(
+            entry -> {
+              if (!isExpired(entry)) {
+                if (entry.permissions().isEmpty()) {
+                  negativeServedCounter.increment();
+                }
+                return CompletableFuture.completedFuture(entry.permissions());
+              }
+              // Revalidate (joining a refresh that may already be in flight) and only fall back
+              // to the expired entry if RBAC can't be reached
+              return cache
+                  .synchronous()
+                  .refresh(xRhIdHeader)
+                  .handle(
+                      (refreshed, failure) -> {
+                        if (failure == null) {
+                          return refreshed.permissions();
+                        }
+                        if (isRbacDown(failure)) {
+                          Log.debug("RBAC is unavailable, serving stale permissions");
+                          staleServedCounter.increment();
+                          return entry.permissions();
+                        }
+                        throw failure instanceof CompletionException ce
+                            ? ce
+                            : new CompletionException(failure);
+                      });
+            });
+  }
+
+  private boolean isExpired(Entry entry) {
+    var ttl = entry.permissions().isEmpty() ? negativeExpireAfter : expireAfter;
+    return ticker.read() - entry.loadedAt() >= ttl.toNanos();
+  }
+
+  CompletableFuture<Entry> load(String xRhIdHeader) {
+    if (!circuitBreaker.tryAcquirePermit()) {
+      circuitRejectedCounter.increment();
+      return CompletableFuture.failedFuture(new CircuitBreakerOpenException(circuitBreaker));
+    }
+    return rbacServer
+        .getRbacInfo(APPLICATION, xRhIdHeader)
+        /*
+         * RBAC server calls fail regularly because of RBAC instability so we need to retry.
+         * IOException is thrown when the connection between us and RBAC is reset during an RBAC call execution.
+         * ConnectTimeoutException is thrown when RBAC does not respond at all to our call.
+         */
+        .onFailure(
+            failure ->
+                failure.getClass() == IOException.class
+                    || failure.getClass() == ConnectTimeoutException.class)
+        .retry()
+        .withBackOff(initialBackOff, maxBackOff)
+        .atMost(maxRetryAttempts)
+        .onItemOrFailure()
+        .invoke(
+            (rbacRaw, failure) -> {
+              if (failure == null || !isRbacDown(failure)) {
+                circuitBreaker.recordSuccess();
+              } else {
+                circuitBreaker.recordFailure();
+              }
+            })
+        .onItem()
+        .transform(rbacRaw -> new Entry(RbacPermissions.of(rbacRaw), ticker.read()))
+        .subscribeAsCompletionStage();
+  }
+
+  // Client errors mean that RBAC answered, everything else that it couldn't be reached
+  private static boolean isRbacDown(Throwable failure) {
+    var cause =
+        failure instanceof CompletionException && failure.getCause() != null
+            ? failure.getCause()
+            : failure;
+    if (cause instanceof WebApplicationException e) {
+      return e.getResponse().getStatus() >= 500;
+    }
+    return true;
+  }
+}
@@ -0,0 +1,91 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.auth.rbac;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The permissions of an RBAC response, compiled once into an immutable application -> resource ->
+ * verbs lookup, so that checking a permission is a few hash lookups.
+ */
+public final class RbacPermissions {
+  static final String ANY = "*";
+
+  public static final RbacPermissions NONE = new RbacPermissions(Map.of());
+
+  private final Map<String, Map<String, Set<String>>> permissions;
+
+  private RbacPermissions(Map<String, Map<String, Set<String>>> permissions) {
+    this.permissions = permissions;
+  }
+
+  /**
+   * Compiles the "application:resource:verb" permission strings of an RBAC response. Like the
+   * original linear scan, entries after the first malformed one are not considered.
+   */
+  public static RbacPermissions of(List<Map<String, Object>> data) {
+    if (data == null || data.isEmpty()) {
+      return NONE;
+    }
+    var compiled = new HashMap<String, Map<String, Set<String>>>();
+    for (Map<String, Object> permissionEntry : data) {
+      String perms = (String) permissionEntry.get("permission");
+      String[] fields = perms.split(":");
+      if (fields.length < 3) {
+        break;
+      }
+      compiled
+          .computeIfAbsent(fields[0], a -> new HashMap<>())
+          .computeIfAbsent(fields[1], r -> new HashSet<>())
+          .add(fields[2]);
+    }
+    var immutable = new HashMap<String, Map<String, Set<String>>>();
+    compiled.forEach(
+        (application, resources) -> {
+          var verbs = new HashMap<String, Set<String>>();
+          resources.forEach((resource, v) -> verbs.put(resource, Set.copyOf(v)));
+          immutable.put(application, Map.copyOf(verbs));
+        });
+    return new RbacPermissions(Map.copyOf(immutable));
+  }
+
+  public static RbacPermissions of(RbacRaw rbacRaw) {
+    return rbacRaw == null ? NONE : rbacRaw.permissions();
+  }
+
+  /** True if no permission at all was granted. */
+  public boolean isEmpty() {
+    return permissions.isEmpty();
+  }
+
+  public boolean canRead(String application, String item) {
+    return canDo(application, item, "read");
+  }
+
+  public boolean canWrite(String application, String item) {
+    return canDo(application, item, "write");
+  }
+
+  public boolean canDo(String application, String item, String permission) {
+    // The immutable collections don't accept null lookups
+    var resources = application == null ? null : permissions.get(application);
+    if (resources == null) {
+      return false;
+    }
+    return allows(item == null ? null : resources.get(item), permission)
+        || allows(resources.get(ANY), permission);
+  }
+
+  private static boolean allows(Set<String> verbs, String permission) {
+    return verbs != null
+        && ((permission != null && verbs.contains(permission)) || verbs.contains(ANY));
+  }
+
+  @Override
+  public String toString() {
+    return "RbacPermissions " + permissions;
+  }
+}
@@ -1,6 +1,7 @@
-/* Copyright (C) Red Hat 2023 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.runtimes.inventory.auth.rbac;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.util.List;
 import java.util.Map;
 
@@ -10,37 +11,27 @@ public class RbacRaw {
   public Map<String, Integer> meta;
   public List<Map<String, Object>> data;
 
+  @JsonIgnore private volatile RbacPermissions permissions;
+
   public boolean canRead(String application, String item) {
-    return findPermission(application, item, "read");
+    return permissions().canRead(application, item);
   }
 
   public boolean canWrite(String application, String item) {
-    return findPermission(application, item, "write");
+    return permissions().canWrite(application, item);
   }
 
   public boolean canDo(String application, String item, String permission) {
-    return findPermission(application, item, permission);
+    return permissions().canDo(application, item, permission);
   }
 
-  private boolean findPermission(String application, String item, String what) {
-    if (data == null || data.size() == 0) {
-      return false;
-    }
-
-    for (Map<String, Object> permissionEntry : data) {
-      String perms = (String) permissionEntry.get("permission");
-      String[] fields = perms.split(":");
-      if (fields.length < 3) {
-        return false;
-      }
-      if (fields[0].equals(application)) {
-        if (fields[1].equals(item) || fields[1].equals("*")) {
-          if (fields[2].equals(what) || fields[2].equals("*")) {
-            return true;
-          }
-        }
-      }
+  /** The permissions of this response, compiled on first use. */
+  public RbacPermissions permissions() {
+    var compiled = permissions;
+    if (compiled == null) {
+      compiled = RbacPermissions.of(data);
+      permissions = compiled;
     }
-    return false;
+    return compiled;
   }
 }
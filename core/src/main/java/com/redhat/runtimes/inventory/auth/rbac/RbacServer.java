@@ -1,9 +1,8 @@
-/* Copyright (C) Red Hat 2023 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.runtimes.inventory.auth.rbac;
 
 import static com.redhat.runtimes.inventory.models.Constants.X_RH_IDENTITY_HEADER;
 
-import io.quarkus.cache.CacheResult;
 import io.smallrye.mutiny.Uni;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.GET;
@@ -24,7 +23,6 @@ public interface RbacServer {
   @Path("/access/") // trailing slash is required by api
   @Consumes("application/json")
   @Produces("application/json")
-  @CacheResult(cacheName = "rbac-cache")
   Uni<RbacRaw> getRbacInfo(
       @QueryParam("application") String application,
       @HeaderParam(X_RH_IDENTITY_HEADER) String rhIdentity);
@@ -0,0 +1,22 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.jfr;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.redhat.runtimes.inventory.Download")
+@Label("Upload Download")
+@Description("The download of an upload from S3, only until the response for a streamed body")
+public class DownloadEvent extends InventoryEvent {
+  @Label("URL")
+  public String url;
+
+  @Label("Status Code")
+  public int statusCode;
+
+  @Label("Bytes")
+  @DataAmount
+  public long bytes;
+}
@@ -0,0 +1,28 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+
+/** The JFR events of the inventory, with the ids of the {@link RequestContext}. */
+@Category("Runtimes Inventory")
+public abstract class InventoryEvent extends jdk.jfr.Event {
+  @Label("Request Id")
+  String requestId;
+
+  @Label("Org Id")
+  String orgId;
+
+  /** Ends the event and commits it with the ids of the current thread, if it is recorded. */
+  public void emit() {
+    end();
+    if (shouldCommit()) {
+      var context = RequestContext.current();
+      if (context != null) {
+        requestId = context.getRequestId();
+        orgId = context.getOrgId();
+      }
+      commit();
+    }
+  }
+}
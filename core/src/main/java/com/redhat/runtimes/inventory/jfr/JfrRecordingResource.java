@@ -0,0 +1,202 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.jfr;
+
+import static com.redhat.runtimes.inventory.models.Constants.X_RH_IDENTITY_HEADER;
+
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.ClientErrorException;
+import jakarta.ws.rs.ForbiddenException;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.NotAuthorizedException;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Starts and stops a bounded flight recording of the service, with the {@link InventoryEvent}s, and
+ * dumps it to a local file to be copied from the pod. Only one recording runs at a time, and only
+ * the last inventory.jfr.max-files recordings are kept.
+ *
+ * <p>The endpoints are only served when inventory.jfr.token is set, to the requests that carry it
+ * as a bearer token. Requests coming through 3Scale carry an identity and are refused.
+ */
+@Path("/admin/jfr")
+@ApplicationScoped
+@Produces(MediaType.APPLICATION_JSON)
+public class JfrRecordingResource {
+  static final List<Class<? extends InventoryEvent>> EVENTS =
+      List.of(
+          MessageEvent.class,
+          DownloadEvent.class,
+          UnpackEvent.class,
+          PersistEvent.class,
+          QueryEvent.class);
+
+  static final String FILE_PREFIX = "runtimes-inventory-";
+
+  @ConfigProperty(name = "inventory.jfr.token")
+  Optional<String> token;
+
+  @ConfigProperty(name = "inventory.jfr.directory")
+  Optional<String> directory;
+
+  @ConfigProperty(name = "inventory.jfr.max-duration", defaultValue = "PT30M")
+  Duration maxDuration;
+
+  @ConfigProperty(name = "inventory.jfr.max-size", defaultValue = "200000000")
+  long maxSize;
+
+  @ConfigProperty(name = "inventory.jfr.max-files", defaultValue = "3")
+  int maxFiles;
+
+  private Recording recording;
+
+  @GET
+  public synchronized Map<String, Object> status(
+      @HeaderParam(X_RH_IDENTITY_HEADER) String identity,
+      @HeaderParam(HttpHeaders.AUTHORIZATION) String authorization) {
+    authorize(identity, authorization);
+    return describe(recording);
+  }
+
+  /**
+   * @param duration how long to record, at most (and by default) inventory.jfr.max-duration
+   */
+  @POST
+  @Path("/start")
+  public synchronized Map<String, Object> start(
+      @HeaderParam(X_RH_IDENTITY_HEADER) String identity,
+      @HeaderParam(HttpHeaders.AUTHORIZATION) String authorization,
+      @QueryParam("duration") String duration)
+      throws IOException, ParseException {
+    authorize(identity, authorization);
+    if (recording != null && recording.getState() == RecordingState.RUNNING) {
+      throw new ClientErrorException("A recording is already running", Response.Status.CONFLICT);
+    }
+    var length = maxDuration;
+    if (duration != null) {
+      try {
+        length = Duration.parse(duration);
+      } catch (DateTimeParseException e) {
+        throw new BadRequestException("Invalid duration " + duration);
+      }
+      if (length.compareTo(maxDuration) > 0 || length.isNegative() || length.isZero()) {
+        length = maxDuration;
+      }
+    }
+
+    var dir = java.nio.file.Path.of(directory.orElse(System.getProperty("java.io.tmpdir")));
+    Files.createDirectories(dir);
+    deleteOldRecordings(dir);
+    var started = new Recording(Configuration.getConfiguration("default"));
+    started.setName("runtimes-inventory");
+    for (var event : EVENTS) {
+      started.enable(event);
+    }
+    started.setToDisk(true);
+    started.setMaxSize(maxSize);
+    started.setDuration(length);
+    // Written when the recording is stopped, or when its duration is over
+    started.setDestination(dir.resolve(FILE_PREFIX + Instant.now().toEpochMilli() + ".jfr"));
+    started.start();
+    Log.infof("Started a flight recording of %s to %s", length, started.getDestination());
+
+    if (recording != null) {
+      recording.close();
+    }
+    recording = started;
+    return describe(recording);
+  }
+
+  @POST
+  @Path("/stop")
+  public synchronized Map<String, Object> stop(
+      @HeaderParam(X_RH_IDENTITY_HEADER) String identity,
+      @HeaderParam(HttpHeaders.AUTHORIZATION) String authorization) {
+    authorize(identity, authorization);
+    if (recording == null || recording.getState() != RecordingState.RUNNING) {
+      throw new ClientErrorException("No recording is running", Response.Status.CONFLICT);
+    }
+    recording.stop();
+    Log.infof("Stopped the flight recording to %s", recording.getDestination());
+    var stopped = describe(recording);
+    recording.close();
+    return stopped;
+  }
+
+  private void authorize(String identity, String authorization) {
+    if (token.isEmpty() || token.get().isBlank()) {
+      throw new NotFoundException();
+    }
+    if (identity != null) {
+      throw new ForbiddenException("Flight recordings can't be started from outside the cluster");
+    }
+    var expected = ("Bearer " + token.get()).getBytes(StandardCharsets.UTF_8);
+    if (authorization == null
+        || !MessageDigest.isEqual(expected, authorization.getBytes(StandardCharsets.UTF_8))) {
+      throw new NotAuthorizedException("Bearer");
+    }
+  }
+
+  // Keeps the newest recordings, so that there are at most max-files with the one being started
+  private void deleteOldRecordings(java.nio.file.Path dir) throws IOException {
+    var files = new ArrayList<java.nio.file.Path>();
+    try (var listing = Files.newDirectoryStream(dir, FILE_PREFIX + "*.jfr")) {
+      listing.forEach(files::add);
+    }
+    files.sort(Comparator.comparingLong(JfrRecordingResource::startedAt).reversed());
+    for (int i = Math.max(0, maxFiles - 1); i < files.size(); i++) {
+      Files.deleteIfExists(files.get(i));
+      Log.infof("Deleted the old flight recording %s", files.get(i));
+    }
+  }
+
+  // The files are named after the time their recording was started
+  private static long startedAt(java.nio.file.Path file) {
+    var name = file.getFileName().toString();
+    try {
+      return Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - ".jfr".length()));
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  private static Map<String, Object> describe(Recording recording) {
+    var description = new LinkedHashMap<String, Object>();
+    if (recording == null) {
+      description.put("state", "NONE");
+      return description;
+    }
+    description.put("state", recording.getState().name());
+    description.put("file", String.valueOf(recording.getDestination()));
+    description.put("started", String.valueOf(recording.getStartTime()));
+    description.put("duration", String.valueOf(recording.getDuration()));
+    return description;
+  }
+}
@@ -0,0 +1,21 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.redhat.runtimes.inventory.Message")
+@Label("Message Consumed")
+@Description("The processing of a Kafka announcement, from its parsing to the last commit")
+public class MessageEvent extends InventoryEvent {
+  @Label("Flow")
+  public String flow;
+
+  @Label("Content Type")
+  public String contentType;
+
+  @Label("Failure")
+  @Description("The class of the exception the processing failed with, none when it succeeded")
+  public String failure;
+}
@@ -0,0 +1,23 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.redhat.runtimes.inventory.Persist")
+@Label("Report Persisted")
+@Description("The transaction that stores a report")
+public class PersistEvent extends InventoryEvent {
+  @Label("Payload Type")
+  public String payloadType;
+
+  @Label("Linking Hash")
+  public String linkingHash;
+
+  @Label("SQL Statements")
+  public long statements;
+
+  @Label("Entity Inserts")
+  public long entityInserts;
+}
@@ -0,0 +1,40 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.jfr;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.redhat.runtimes.inventory.Query")
+@Label("REST Query")
+@Description("A call of a REST endpoint")
+public class QueryEvent extends InventoryEvent {
+  private static final ThreadLocal<QueryEvent> CURRENT = new ThreadLocal<>();
+
+  @Label("Endpoint")
+  public String endpoint;
+
+  @Label("Rows")
+  public long rows;
+
+  @Label("Response Bytes")
+  @DataAmount
+  public long responseBytes;
+
+  /** Sets the number of rows returned by the query of the current thread, if there is one. */
+  public static void rows(long rows) {
+    var event = CURRENT.get();
+    if (event != null) {
+      event.rows = rows;
+    }
+  }
+
+  void bind() {
+    CURRENT.set(this);
+  }
+
+  void unbind() {
+    CURRENT.remove();
+  }
+}
@@ -0,0 +1,40 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.jfr;
+
+import com.redhat.runtimes.inventory.auth.principal.CurrentPrincipal;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+import java.nio.charset.StandardCharsets;
+
+@RecordQuery
+@Interceptor
+@Priority(Interceptor.Priority.LIBRARY_BEFORE)
+public class RecordQueryInterceptor {
+
+  @Inject CurrentPrincipal currentPrincipal;
+
+  @AroundInvoke
+  Object record(InvocationContext context) throws Exception {
+    var event = new QueryEvent();
+    if (!event.isEnabled()) {
+      return context.proceed();
+    }
+    var method = context.getMethod();
+    event.endpoint = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    event.begin();
+    event.bind();
+    try (var request = RequestContext.bind(null, currentPrincipal.getOrgId())) {
+      var result = context.proceed();
+      if (result instanceof String response) {
+        event.responseBytes = response.getBytes(StandardCharsets.UTF_8).length;
+      }
+      return result;
+    } finally {
+      event.unbind();
+      event.emit();
+    }
+  }
+}
@@ -0,0 +1,48 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.jfr;
+
+/**
+ * The request id and org id of the work done by the current thread, copied into every {@link
+ * InventoryEvent} so that a slow region of a recording can be traced back to its message or call.
+ */
+public final class RequestContext implements AutoCloseable {
+  private static final ThreadLocal<RequestContext> CURRENT = new ThreadLocal<>();
+
+  private final String requestId;
+  private final String orgId;
+  private final RequestContext previous;
+
+  private RequestContext(String requestId, String orgId, RequestContext previous) {
+    this.requestId = requestId;
+    this.orgId = orgId;
+    this.previous = previous;
+  }
+
+  /** Binds the ids to the current thread until the returned context is closed. */
+  public static RequestContext bind(String requestId, String orgId) {
+    var context = new RequestContext(requestId, orgId, CURRENT.get());
+    CURRENT.set(context);
+    return context;
+  }
+
+  static RequestContext current() {
+    return CURRENT.get();
+  }
+
+  public String getRequestId() {
+    return requestId;
+  }
+
+  public String getOrgId() {
+    return orgId;
+  }
+
+  @Override
+  public void close() {
+    if (previous == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(previous);
+    }
+  }
+}
@@ -0,0 +1,23 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.jfr;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.redhat.runtimes.inventory.Unpack")
+@Label("Upload Unpacking")
+@Description("The decompression of an upload, and the extraction of the reports of an archive")
+public class UnpackEvent extends InventoryEvent {
+  @Label("Compressed Bytes")
+  @DataAmount
+  public long compressedBytes;
+
+  @Label("Decompressed Bytes")
+  @DataAmount
+  public long decompressedBytes;
+
+  @Label("Documents")
+  public int documents;
+}
@@ -0,0 +1,72 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Duration;
+
+/**
+ * Exports the {@link PersistenceStats} of every unit of work, tagged by its source (the event flow
+ * or the REST endpoint), so that the SQL statements and inserts caused by one report can be
+ * followed over time.
+ */
+@ApplicationScoped
+public class PersistenceMetrics {
+  public static final String STATEMENTS_NAME = "persistence.statements";
+  public static final String ENTITY_INSERTS_NAME = "persistence.entity.inserts";
+  public static final String COLLECTION_LOADS_NAME = "persistence.collection.loads";
+  public static final String FLUSH_TIMER_NAME = "persistence.flush";
+  public static final String SOURCE_TAG = "source";
+
+  @Inject MeterRegistry registry;
+
+  /**
+   * Starts counting what Hibernate does on the current thread until the returned scope is closed.
+   * Nested scopes are part of the outer one.
+   */
+  public Scope open(String source) {
+    return new Scope(PersistenceStats.begin(source));
+  }
+
+  void record(PersistenceStats stats) {
+    var source = stats.getSource();
+    summary(STATEMENTS_NAME, source).record(stats.getStatements());
+    summary(ENTITY_INSERTS_NAME, source).record(stats.getEntityInserts());
+    summary(COLLECTION_LOADS_NAME, source).record(stats.getCollectionLoads());
+    if (stats.getFlushes() > 0) {
+      // The time spent flushing per unit of work, not per flush
+      Timer.builder(FLUSH_TIMER_NAME)
+          .tags(SOURCE_TAG, source)
+          .register(registry)
+          .record(Duration.ofNanos(stats.getFlushNanos()));
+    }
+  }
+
+  private DistributionSummary summary(String name, String source) {
+    return DistributionSummary.builder(name).tags(SOURCE_TAG, source).register(registry);
+  }
+
+  public final class Scope implements AutoCloseable {
+    private final PersistenceStats stats;
+
+    private Scope(PersistenceStats stats) {
+      this.stats = stats;
+    }
+
+    /** The stats counted so far, null for a nested scope. */
+    public PersistenceStats stats() {
+      return stats;
+    }
+
+    @Override
+    public void close() {
+      if (stats != null) {
+        stats.end();
+        record(stats);
+      }
+    }
+  }
+}
@@ -0,0 +1,121 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.metrics;
+
+/**
+ * What Hibernate did for one unit of work (a consumed message, a REST call). The stats are bound to
+ * the thread doing the work, the Hibernate listeners add to the stats of the current thread. So
+ * does the code that writes rows on the connection of Hibernate, without its statements or events.
+ */
+public final class PersistenceStats {
+  private static final ThreadLocal<PersistenceStats> CURRENT = new ThreadLocal<>();
+
+  private final String source;
+  long statements;
+  long entityInserts;
+  long collectionLoads;
+  long flushes;
+  long flushNanos;
+  private long flushStart = -1;
+
+  PersistenceStats(String source) {
+    this.source = source;
+  }
+
+  /** The stats of the unit of work of the current thread, or null outside of one. */
+  public static PersistenceStats current() {
+    return CURRENT.get();
+  }
+
+  /** Binds new stats to the current thread, unless it already has some. */
+  static PersistenceStats begin(String source) {
+    if (CURRENT.get() != null) {
+      return null;
+    }
+    var stats = new PersistenceStats(source);
+    CURRENT.set(stats);
+    return stats;
+  }
+
+  void end() {
+    if (CURRENT.get() == this) {
+      CURRENT.remove();
+    }
+  }
+
+  static void statementPrepared() {
+    var stats = CURRENT.get();
+    if (stats != null) {
+      stats.statements++;
+    }
+  }
+
+  static void entityInserted() {
+    var stats = CURRENT.get();
+    if (stats != null) {
+      stats.entityInserts++;
+    }
+  }
+
+  /** Counts statements prepared on the connection of Hibernate, but not by it. */
+  public static void statementsPrepared(int count) {
+    var stats = CURRENT.get();
+    if (stats != null) {
+      stats.statements += count;
+    }
+  }
+
+  /** Counts entities inserted without the insert events of Hibernate. */
+  public static void entitiesInserted(int count) {
+    var stats = CURRENT.get();
+    if (stats != null) {
+      stats.entityInserts += count;
+    }
+  }
+
+  static void collectionLoaded() {
+    var stats = CURRENT.get();
+    if (stats != null) {
+      stats.collectionLoads++;
+    }
+  }
+
+  static void flushStarted() {
+    var stats = CURRENT.get();
+    if (stats != null && stats.flushStart < 0) {
+      stats.flushStart = System.nanoTime();
+    }
+  }
+
+  static void flushEnded() {
+    var stats = CURRENT.get();
+    if (stats != null && stats.flushStart >= 0) {
+      stats.flushes++;
+      stats.flushNanos += System.nanoTime() - stats.flushStart;
+      stats.flushStart = -1;
+    }
+  }
+
+  public String getSource() {
+    return source;
+  }
+
+  public long getStatements() {
+    return statements;
+  }
+
+  public long getEntityInserts() {
+    return entityInserts;
+  }
+
+  public long getCollectionLoads() {
+    return collectionLoads;
+  }
+
+  public long getFlushes() {
+    return flushes;
+  }
+
+  public long getFlushNanos() {
+    return flushNanos;
+  }
+}
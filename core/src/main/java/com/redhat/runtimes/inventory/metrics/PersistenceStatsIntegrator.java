@@ -0,0 +1,65 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.metrics;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AutoFlushEventListener;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.FlushEventListener;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * Adds the Hibernate event listeners that fill the {@link PersistenceStats} of the current thread.
+ * The SQL statements are counted by the {@link StatementCounter}.
+ *
+ * <p>Registered in META-INF/services.
+ */
+public class PersistenceStatsIntegrator implements Integrator {
+
+  @Override
+  public void integrate(
+      Metadata metadata,
+      BootstrapContext bootstrapContext,
+      SessionFactoryImplementor sessionFactory) {
+    var listeners = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+
+    // A flush is timed by a listener that runs before the others and one that runs after them.
+    // Each listener is its own class, Hibernate may drop listeners of a class already registered.
+    listeners.prependListeners(
+        EventType.FLUSH, (FlushEventListener) e -> PersistenceStats.flushStarted());
+    listeners.appendListeners(
+        EventType.FLUSH, (FlushEventListener) e -> PersistenceStats.flushEnded());
+    listeners.prependListeners(
+        EventType.AUTO_FLUSH, (AutoFlushEventListener) e -> PersistenceStats.flushStarted());
+    listeners.appendListeners(
+        EventType.AUTO_FLUSH, (AutoFlushEventListener) e -> PersistenceStats.flushEnded());
+
+    listeners.appendListeners(EventType.POST_INSERT, new InsertCounter());
+    listeners.appendListeners(
+        EventType.INIT_COLLECTION,
+        (InitializeCollectionEventListener) e -> PersistenceStats.collectionLoaded());
+  }
+
+  @Override
+  public void disintegrate(
+      SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {}
+
+  private static class InsertCounter implements PostInsertEventListener {
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+      PersistenceStats.entityInserted();
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+      return false;
+    }
+  }
+}
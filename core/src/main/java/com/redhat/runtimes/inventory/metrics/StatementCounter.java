@@ -0,0 +1,21 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.metrics;
+
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares in the {@link PersistenceStats} of the current
+ * thread. Without JDBC batching every prepared statement is executed once.
+ */
+@PersistenceUnitExtension
+@ApplicationScoped
+public class StatementCounter implements StatementInspector {
+
+  @Override
+  public String inspect(String sql) {
+    PersistenceStats.statementPrepared();
+    return sql;
+  }
+}
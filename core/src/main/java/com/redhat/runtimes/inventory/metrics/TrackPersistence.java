@@ -0,0 +1,21 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.metrics;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import jakarta.enterprise.util.Nonbinding;
+import jakarta.interceptor.InterceptorBinding;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/** Records the {@link PersistenceMetrics} of every call of the annotated methods. */
+@InterceptorBinding
+@Target({TYPE, METHOD})
+@Retention(RUNTIME)
+public @interface TrackPersistence {
+  /** The source tag of the meters, by default the simple class name and the method name. */
+  @Nonbinding
+  String value() default "";
+}
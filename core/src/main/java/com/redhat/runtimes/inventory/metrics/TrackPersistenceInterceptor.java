@@ -0,0 +1,35 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.metrics;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+@TrackPersistence
+@Interceptor
+@Priority(Interceptor.Priority.LIBRARY_BEFORE)
+public class TrackPersistenceInterceptor {
+
+  @Inject PersistenceMetrics metrics;
+
+  @AroundInvoke
+  Object track(InvocationContext context) throws Exception {
+    try (var scope = metrics.open(sourceOf(context))) {
+      return context.proceed();
+    }
+  }
+
+  private static String sourceOf(InvocationContext context) {
+    var method = context.getMethod();
+    var annotation = method.getAnnotation(TrackPersistence.class);
+    if (annotation == null) {
+      annotation = method.getDeclaringClass().getAnnotation(TrackPersistence.class);
+    }
+    if (annotation != null && !annotation.value().isEmpty()) {
+      return annotation.value();
+    }
+    return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+  }
+}
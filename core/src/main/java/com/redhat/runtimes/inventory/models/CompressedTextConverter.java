@@ -0,0 +1,25 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.models;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores a (large) text attribute as a compressed bytea column. See {@link TextCodec} for the
+ * storage format.
+ */
+@Converter
+public class CompressedTextConverter implements AttributeConverter<String, byte[]> {
+
+  private final TextCodec codec = TextCodec.configured();
+
+  @Override
+  public byte[] convertToDatabaseColumn(String attribute) {
+    return attribute == null ? null : codec.encode(attribute);
+  }
+
+  @Override
+  public String convertToEntityAttribute(byte[] dbData) {
+    return dbData == null ? null : TextCodec.decode(dbData);
+  }
+}
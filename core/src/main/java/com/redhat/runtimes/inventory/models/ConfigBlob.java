@@ -0,0 +1,88 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.models;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.JavaType;
+
+/**
+ * A JSON dump of a piece of an EAP configuration, stored once for all the configurations that have
+ * the same one and keyed by the SHA-256 of its text. The text is hashed as reported, not in a
+ * canonical form, so that the migrations can compute the same key: a dump whose keys come in
+ * another order is a different blob.
+ */
+@Entity
+@Table(name = "config_blob")
+@Immutable
+@Cacheable
+public class ConfigBlob {
+  @Id
+  @JavaType(DigestJavaType.class)
+  private Digest hash;
+
+  @NotNull
+  @Size(max = org.hibernate.Length.LOB_DEFAULT)
+  @Convert(converter = CompressedTextConverter.class)
+  private String content;
+
+  protected ConfigBlob() {}
+
+  public static ConfigBlob of(String content) {
+    var blob = new ConfigBlob();
+    blob.hash = Digest.sha256(content);
+    blob.content = content;
+    return blob;
+  }
+
+  /** The blobs of the values, a single one for equal values. */
+  public static Map<String, ConfigBlob> of(Map<String, String> contents) {
+    if (contents == null) {
+      return null;
+    }
+    var blobs = new HashMap<String, ConfigBlob>();
+    var out = new LinkedHashMap<String, ConfigBlob>();
+    contents.forEach(
+        (key, content) -> out.put(key, blobs.computeIfAbsent(content, ConfigBlob::of)));
+    return out;
+  }
+
+  /** The contents of the blobs, which are loaded if they aren't yet. */
+  public static Map<String, String> contents(Map<String, ConfigBlob> blobs) {
+    if (blobs == null) {
+      return null;
+    }
+    var out = new LinkedHashMap<String, String>();
+    blobs.forEach((key, blob) -> out.put(key, blob.getContent()));
+    return out;
+  }
+
+  public Digest getHash() {
+    return hash;
+  }
+
+  public String getContent() {
+    return content;
+  }
+
+  @Override
+  public int hashCode() {
+    return getHash().hashCode();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) return true;
+    if (!(obj instanceof ConfigBlob other)) return false;
+    return getHash().equals(other.getHash());
+  }
+
+  @Override
+  public String toString() {
+    return "ConfigBlob [hash=" + getHash() + "]";
+  }
+}
@@ -0,0 +1,41 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.models;
+
+import java.util.Locale;
+import org.eclipse.microprofile.config.ConfigProvider;
+
+/**
+ * What is stored in the details of an instance. Either way, the details the API returns are the
+ * whole "basic" section of the report, so the policy can be changed at any time.
+ */
+public enum DetailsPolicy {
+  /** The whole "basic" section, including the values that also are in columns. */
+  FULL {
+    @Override
+    public void apply(JvmInstanceBase instance) {}
+  },
+
+  /**
+   * Only the values that aren't in a column as is. The others are put back from the columns when
+   * the details are read.
+   */
+  REMAINDER {
+    @Override
+    public void apply(JvmInstanceBase instance) {
+      instance.omitColumnDetails();
+    }
+  };
+
+  public static final String CONFIG_KEY = "inventory.storage.details";
+
+  /** Applies the policy to a new instance, once its columns are set. */
+  public abstract void apply(JvmInstanceBase instance);
+
+  /** The policy from {@value #CONFIG_KEY} (remainder by default). */
+  public static DetailsPolicy configured() {
+    return ConfigProvider.getConfig()
+        .getOptionalValue(CONFIG_KEY, String.class)
+        .map(name -> valueOf(name.trim().toUpperCase(Locale.ROOT)))
+        .orElse(REMAINDER);
+  }
+}
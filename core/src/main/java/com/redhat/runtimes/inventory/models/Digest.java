@@ -0,0 +1,107 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.models;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * An immutable checksum (SHA-1, SHA-256 or SHA-512), kept as its raw bytes: 20, 32 or 64 bytes
+ * instead of a hex string of twice that many chars. A missing checksum is the {@link #EMPTY}
+ * digest. The hash code is computed once, from the leading bytes which are already uniformly
+ * distributed.
+ */
+public final class Digest {
+  private static final HexFormat HEX = HexFormat.of();
+
+  public static final Digest EMPTY = new Digest(new byte[0]);
+
+  private final byte[] bytes;
+  private final int hash;
+
+  private Digest(byte[] bytes) {
+    this.bytes = bytes;
+    this.hash =
+        bytes.length >= Integer.BYTES
+            ? (bytes[0] & 0xFF) << 24
+                | (bytes[1] & 0xFF) << 16
+                | (bytes[2] & 0xFF) << 8
+                | (bytes[3] & 0xFF)
+            : Arrays.hashCode(bytes);
+  }
+
+  /** The digest of a hex string, {@link #EMPTY} for a null or empty one. */
+  public static Digest ofHex(String hex) {
+    if (hex == null || hex.isEmpty()) {
+      return EMPTY;
+    }
+    // Throws an IllegalArgumentException for a malformed string
+    return new Digest(HEX.parseHex(hex));
+  }
+
+  public static Digest of(byte[] bytes) {
+    return bytes == null || bytes.length == 0 ? EMPTY : new Digest(bytes.clone());
+  }
+
+  /** The SHA-256 of the UTF-8 bytes of the text. */
+  public static Digest sha256(String text) {
+    try {
+      return new Digest(MessageDigest.getInstance("SHA-256").digest(text.getBytes(UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /** Whether {@link #ofHex(String)} accepts the string. */
+  public static boolean isHex(String hex) {
+    if (hex == null) {
+      return true;
+    }
+    if (hex.length() % 2 != 0) {
+      return false;
+    }
+    for (int i = 0; i < hex.length(); i++) {
+      if (!HexFormat.isHexDigit(hex.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public byte[] toBytes() {
+    return bytes.clone();
+  }
+
+  public int length() {
+    return bytes.length;
+  }
+
+  public boolean isEmpty() {
+    return bytes.length == 0;
+  }
+
+  /** Lower case, like the checksums of the reports. */
+  public String toHex() {
+    return HEX.formatHex(bytes);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof Digest other)) return false;
+    return hash == other.hash && Arrays.equals(bytes, other.bytes);
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    return toHex();
+  }
+}
@@ -0,0 +1,20 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.models;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/** Stores a {@link Digest} as a bytea column of its raw bytes, empty when it is missing. */
+@Converter
+public class DigestConverter implements AttributeConverter<Digest, byte[]> {
+
+  @Override
+  public byte[] convertToDatabaseColumn(Digest attribute) {
+    return attribute == null ? null : attribute.toBytes();
+  }
+
+  @Override
+  public Digest convertToEntityAttribute(byte[] dbData) {
+    return dbData == null ? null : Digest.of(dbData);
+  }
+}
@@ -0,0 +1,64 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.models;
+
+import org.hibernate.type.SqlTypes;
+import org.hibernate.type.descriptor.WrapperOptions;
+import org.hibernate.type.descriptor.java.AbstractClassJavaType;
+import org.hibernate.type.descriptor.java.ImmutableMutabilityPlan;
+import org.hibernate.type.descriptor.jdbc.JdbcType;
+import org.hibernate.type.descriptor.jdbc.JdbcTypeIndicators;
+
+/**
+ * Maps a {@link Digest} to a bytea column of its raw bytes, where the {@link DigestConverter} can't
+ * be used: attribute converters don't apply to ids, nor to the foreign keys that reference them.
+ */
+public class DigestJavaType extends AbstractClassJavaType<Digest> {
+
+  public DigestJavaType() {
+    super(Digest.class, ImmutableMutabilityPlan.instance());
+  }
+
+  @Override
+  public JdbcType getRecommendedJdbcType(JdbcTypeIndicators indicators) {
+    return indicators.getJdbcType(SqlTypes.VARBINARY);
+  }
+
+  @Override
+  public String toString(Digest value) {
+    return value.toHex();
+  }
+
+  @Override
+  public Digest fromString(CharSequence string) {
+    return Digest.ofHex(string.toString());
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <X> X unwrap(Digest value, Class<X> type, WrapperOptions options) {
+    if (value == null) {
+      return null;
+    }
+    if (type.isAssignableFrom(byte[].class)) {
+      return (X) value.toBytes();
+    }
+    if (type.isAssignableFrom(Digest.class)) {
+      return (X) value;
+    }
+    throw unknownUnwrap(type);
+  }
+
+  @Override
+  public <X> Digest wrap(X value, WrapperOptions options) {
+    if (value == null) {
+      return null;
+    }
+    if (value instanceof byte[] bytes) {
+      return Digest.of(bytes);
+    }
+    if (value instanceof Digest digest) {
+      return digest;
+    }
+    throw unknownWrap(value.getClass());
+  }
+}
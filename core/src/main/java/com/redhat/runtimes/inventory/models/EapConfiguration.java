@@ -1,7 +1,8 @@
-/* Copyright (C) Red Hat 2023 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.runtimes.inventory.models;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -14,7 +15,7 @@ import org.hibernate.annotations.NaturalId;
 @Entity
 @Table(name = "eap_configuration")
 public class EapConfiguration {
-  @Id @GeneratedValue private UUID id;
+  @Id @UuidV7 private UUID id;
 
   /****************************************************************************
    *                            Complex Fields
@@ -32,15 +33,23 @@ public class EapConfiguration {
       inverseJoinColumns = {@JoinColumn(name = "eap_extension_id")})
   public Set<EapExtension> extensions;
 
-  // Each subsystem name maps to a json dump of its config
-  @ElementCollection
-  @CollectionTable(name = "eap_configuration_subsystems")
-  private Map<String, String> subsystems;
+  // Each subsystem name maps to a json dump of its config, loaded when it is read
+  @ManyToMany(cascade = CascadeType.PERSIST)
+  @JoinTable(
+      name = "eap_configuration_subsystems",
+      joinColumns = {@JoinColumn(name = "eap_configuration_id")},
+      inverseJoinColumns = {@JoinColumn(name = "config_blob_hash")})
+  @MapKeyColumn(name = "subsystems_key")
+  private Map<String, ConfigBlob> subsystems;
 
-  // Each deployment name maps to a json dump of its config
-  @ElementCollection
-  @CollectionTable(name = "eap_configuration_deployments")
-  private Map<String, String> deployments;
+  // Each deployment name maps to a json dump of its config, loaded when it is read
+  @ManyToMany(cascade = CascadeType.PERSIST)
+  @JoinTable(
+      name = "eap_configuration_deployments",
+      joinColumns = {@JoinColumn(name = "eap_configuration_id")},
+      inverseJoinColumns = {@JoinColumn(name = "config_blob_hash")})
+  @MapKeyColumn(name = "deployments_key")
+  private Map<String, ConfigBlob> deployments;
 
   /****************************************************************************
    *                            Simple Fields
@@ -106,18 +115,22 @@ public class EapConfiguration {
    ***************************************************************************/
   @NotNull
   @Size(max = org.hibernate.Length.LOB_DEFAULT)
+  @Convert(converter = CompressedTextConverter.class)
   private String socketBindingGroups;
 
   @NotNull
   @Size(max = org.hibernate.Length.LOB_DEFAULT)
+  @Convert(converter = CompressedTextConverter.class)
   private String paths;
 
   @NotNull
   @Size(max = org.hibernate.Length.LOB_DEFAULT)
+  @Convert(converter = CompressedTextConverter.class)
   private String interfaces;
 
   @NotNull
   @Size(max = org.hibernate.Length.LOB_DEFAULT)
+  @Convert(converter = CompressedTextConverter.class)
   private String coreServices;
 
   public EapConfiguration() {}
@@ -149,8 +162,8 @@ public class EapConfiguration {
     this.id = id;
     this.eapInstance = eapInstance;
     this.extensions = extensions;
-    this.subsystems = subsystems;
-    this.deployments = deployments;
+    this.subsystems = ConfigBlob.of(subsystems);
+    this.deployments = ConfigBlob.of(deployments);
     this.version = version;
     this.launchType = launchType;
     this.name = name;
@@ -281,6 +294,10 @@ public class EapConfiguration {
         + "]";
   }
 
+  public UUID getId() {
+    return id;
+  }
+
   public EapInstance getEapInstance() {
     return eapInstance;
   }
@@ -298,18 +315,36 @@ public class EapConfiguration {
   }
 
   public Map<String, String> getSubsystems() {
-    return subsystems;
+    return ConfigBlob.contents(subsystems);
   }
 
   public void setSubsystems(Map<String, String> subsystems) {
+    this.subsystems = ConfigBlob.of(subsystems);
+  }
+
+  @JsonIgnore
+  public Map<String, ConfigBlob> getSubsystemBlobs() {
+    return subsystems;
+  }
+
+  public void setSubsystemBlobs(Map<String, ConfigBlob> subsystems) {
     this.subsystems = subsystems;
   }
 
   public Map<String, String> getDeployments() {
-    return deployments;
+    return ConfigBlob.contents(deployments);
   }
 
   public void setDeployments(Map<String, String> deployments) {
+    this.deployments = ConfigBlob.of(deployments);
+  }
+
+  @JsonIgnore
+  public Map<String, ConfigBlob> getDeploymentBlobs() {
+    return deployments;
+  }
+
+  public void setDeploymentBlobs(Map<String, ConfigBlob> deployments) {
     this.deployments = deployments;
   }
 
@@ -1,4 +1,4 @@
-/* Copyright (C) Red Hat 2023 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.runtimes.inventory.models;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
@@ -13,7 +13,7 @@ import org.hibernate.annotations.NaturalId;
 @Entity
 @Table(name = "eap_deployment")
 public class EapDeployment {
-  @Id @GeneratedValue private UUID id;
+  @Id @UuidV7 private UUID id;
 
   @ManyToOne(fetch = FetchType.LAZY)
   @NaturalId
@@ -74,6 +74,10 @@ public class EapDeployment {
         + "]";
   }
 
+  public UUID getId() {
+    return id;
+  }
+
   public EapInstance getEapInstance() {
     return eapInstance;
   }
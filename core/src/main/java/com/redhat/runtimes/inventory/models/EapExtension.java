@@ -1,22 +1,40 @@
-/* Copyright (C) Red Hat 2023 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.runtimes.inventory.models;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import org.hibernate.annotations.Immutable;
 
+/**
+ * A module and the versions of its subsystems. The same extensions are found in most EAP
+ * installations, so an extension is stored once and shared by all the configurations that have it,
+ * found by the {@link #getContentHash() hash} of its content.
+ */
 @Entity
 @Table(name = "eap_extension")
+@Immutable
+@Cacheable
 public class EapExtension {
-  @Id @GeneratedValue private UUID id;
+  // The separators of the module, the subsystems, and their name and version in the hash
+  private static final String SUBSYSTEM_SEPARATOR = "\u001e";
+  private static final String VERSION_SEPARATOR = "\u001f";
+
+  @Id @UuidV7 private UUID id;
 
   @NotNull
   @Size(max = 255)
   private String module;
 
+  @NotNull
+  @Convert(converter = DigestConverter.class)
+  private Digest contentHash;
+
   @ElementCollection
   @CollectionTable(name = "eap_extension_subsystems")
   private Set<NameVersionPair> subsystems;
@@ -30,25 +48,60 @@ public class EapExtension {
     this.subsystems = subsystems;
   }
 
+  /**
+   * The SHA-256 of the module and of the subsystems sorted by name and version. The same hash is
+   * computed in SQL by the migration that added it, the two must stay in line.
+   */
+  public Digest computeContentHash() {
+    var parts = new ArrayList<String>();
+    if (subsystems != null) {
+      subsystems.stream()
+          .sorted(
+              Comparator.comparing(NameVersionPair::getName)
+                  .thenComparing(NameVersionPair::getVersion))
+          .forEach(s -> parts.add(s.getName() + VERSION_SEPARATOR + s.getVersion()));
+    }
+    parts.add(0, Objects.toString(module, ""));
+    return Digest.sha256(String.join(SUBSYSTEM_SEPARATOR, parts));
+  }
+
+  @PrePersist
+  void computeContentHashIfMissing() {
+    if (contentHash == null) {
+      contentHash = computeContentHash();
+    }
+  }
+
+  // Extensions with the same content are the same, whether they are stored yet or not. Comparing
+  // the hashes doesn't load the subsystems of a stored extension.
+  private Digest contentHash() {
+    return contentHash != null ? contentHash : computeContentHash();
+  }
+
   @Override
   public int hashCode() {
-    return Objects.hash(id, module, subsystems);
+    return contentHash().hashCode();
   }
 
   @Override
   public boolean equals(Object obj) {
     if (this == obj) return true;
-    if (obj == null) return false;
-    if (getClass() != obj.getClass()) return false;
-    EapExtension other = (EapExtension) obj;
-    return Objects.equals(id, other.id)
-        && Objects.equals(module, other.module)
-        && Objects.equals(subsystems, other.subsystems);
+    if (!(obj instanceof EapExtension other)) return false;
+    return contentHash().equals(other.getContentHash());
   }
 
   @Override
   public String toString() {
-    return "EapExtension [id=" + id + ", module=" + module + ", subsystems=" + subsystems + "]";
+    return "EapExtension [id=" + id + ", module=" + module + ", contentHash=" + contentHash + "]";
+  }
+
+  public UUID getId() {
+    return id;
+  }
+
+  /** The hash of the content, computed if the extension is not stored yet. */
+  public Digest getContentHash() {
+    return contentHash();
   }
 
   public String getModule() {
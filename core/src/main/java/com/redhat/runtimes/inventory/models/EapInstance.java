@@ -1,4 +1,4 @@
-/* Copyright (C) Red Hat 2023 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.runtimes.inventory.models;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
@@ -8,12 +8,12 @@ import jakarta.validation.constraints.Size;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import org.hibernate.Hibernate;
 
 @Entity
 @Table(name = "eap_instance")
+@DiscriminatorValue(JvmInstance.EAP_TYPE)
 public class EapInstance extends JvmInstance {
-  @Id @GeneratedValue private UUID id;
-
   /****************************************************************************
    *                            Complex Fields
    ***************************************************************************/
@@ -91,7 +91,13 @@ public class EapInstance extends JvmInstance {
   /****************************************************************************
    *                            Raw JSON Dumps
    ***************************************************************************/
-  @NotNull private String raw;
+  // Stored in its own table and only loaded when explicitly fetched
+  @OneToOne(
+      mappedBy = "eapInstance",
+      cascade = CascadeType.ALL,
+      orphanRemoval = true,
+      fetch = FetchType.LAZY)
+  private EapInstanceRaw raw;
 
   public EapInstance() {}
 
@@ -131,7 +137,7 @@ public class EapInstance extends JvmInstance {
     this.eapYamlExtension = eapYamlExtension;
     this.eapBootableJar = eapBootableJar;
     this.eapUseGit = eapUseGit;
-    this.raw = raw;
+    setRaw(raw);
   }
 
   @Override
@@ -157,8 +163,7 @@ public class EapInstance extends JvmInstance {
                 eapXp,
                 eapYamlExtension,
                 jars,
-                modules,
-                raw);
+                modules);
     return result;
   }
 
@@ -184,8 +189,7 @@ public class EapInstance extends JvmInstance {
         && Objects.equals(eapYamlExtension, other.eapYamlExtension)
         && Objects.equals(id, other.id)
         && Objects.equals(jars, other.jars)
-        && Objects.equals(modules, other.modules)
-        && Objects.equals(raw, other.raw);
+        && Objects.equals(modules, other.modules);
   }
 
   @Override
@@ -196,11 +200,11 @@ public class EapInstance extends JvmInstance {
     sb.append(", orgId='").append(orgId).append('\'');
     sb.append(", hostname='").append(hostname).append('\'');
     sb.append(", launchTime=").append(launchTime);
-    sb.append(", vendor='").append(vendor).append('\'');
-    sb.append(", versionString='").append(versionString).append('\'');
+    sb.append(", vendor='").append(getVendor()).append('\'');
+    sb.append(", versionString='").append(getVersionString()).append('\'');
     sb.append(", version='").append(version).append('\'');
     sb.append(", majorVersion=").append(majorVersion);
-    sb.append(", osArch='").append(osArch).append('\'');
+    sb.append(", osArch='").append(getOsArch()).append('\'');
     sb.append(", processors=").append(processors);
     sb.append(", heapMin=").append(heapMin);
     sb.append(", heapMax=").append(heapMax);
@@ -212,14 +216,14 @@ public class EapInstance extends JvmInstance {
     sb.append(", javaLibraryPath=").append(javaLibraryPath);
     sb.append(", javaSpecificationVendor=").append(javaSpecificationVendor);
     sb.append(", javaVendor=").append(javaVendor);
-    sb.append(", javaVendorVersion=").append(javaVendorVersion);
-    sb.append(", javaVmName=").append(javaVmName);
-    sb.append(", javaVmVendor=").append(javaVmVendor);
-    sb.append(", jvmHeapGcDetails=").append(jvmHeapGcDetails);
+    sb.append(", javaVendorVersion=").append(getJavaVendorVersion());
+    sb.append(", javaVmName=").append(getJavaVmName());
+    sb.append(", javaVmVendor=").append(getJavaVmVendor());
+    sb.append(", jvmHeapGcDetails=").append(getJvmHeapGcDetails());
     sb.append(", jvmPid=").append(jvmPid);
     sb.append(", jvmReportTime=").append(jvmReportTime);
-    sb.append(", systemOsName=").append(systemOsName);
-    sb.append(", systemOsVersion=").append(systemOsVersion);
+    sb.append(", systemOsName=").append(getSystemOsName());
+    sb.append(", systemOsVersion=").append(getSystemOsVersion());
     sb.append(", javaCommand=").append(javaCommand);
     sb.append(", jvmPackages=").append(jvmPackages);
     sb.append(", jvmArgs=").append(jvmArgs);
@@ -239,7 +243,6 @@ public class EapInstance extends JvmInstance {
     sb.append(", eapYamlExtension=").append(eapYamlExtension);
     sb.append(", eapBootableJar=").append(eapBootableJar);
     sb.append(", eapUseGit=").append(eapUseGit);
-    sb.append(", raw=").append(raw);
     sb.append('}');
     return sb.toString();
   }
@@ -276,12 +279,23 @@ public class EapInstance extends JvmInstance {
     this.deployments = deployments;
   }
 
+  /**
+   * Returns the original JSON report if it has been fetched along with this instance (e.g. with a
+   * {@code JOIN FETCH}), or an empty string otherwise. This never triggers a lazy load.
+   */
   public String getRaw() {
-    return raw;
+    if (!Hibernate.isPropertyInitialized(this, "raw") || raw == null) {
+      return "";
+    }
+    return raw.getRaw();
   }
 
   public void setRaw(String raw) {
-    this.raw = raw;
+    if (this.raw == null) {
+      this.raw = new EapInstanceRaw(this, raw);
+    } else {
+      this.raw.setRaw(raw);
+    }
   }
 
   public String getAppName() {
@@ -0,0 +1,71 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.models;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * The original JSON report of an EAP instance. It is kept out of the eap_instance table so that the
+ * (potentially very large) document is only read when it is explicitly asked for.
+ */
+@Entity
+@Table(name = "eap_instance_raw")
+public class EapInstanceRaw {
+  @Id private UUID id;
+
+  @OneToOne(fetch = FetchType.LAZY)
+  @MapsId
+  private EapInstance eapInstance;
+
+  @NotNull
+  @Convert(converter = CompressedTextConverter.class)
+  private String raw;
+
+  public EapInstanceRaw() {}
+
+  public EapInstanceRaw(EapInstance eapInstance, String raw) {
+    this.eapInstance = eapInstance;
+    this.raw = raw;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(id, raw);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) return true;
+    if (obj == null) return false;
+    if (getClass() != obj.getClass()) return false;
+    EapInstanceRaw other = (EapInstanceRaw) obj;
+    return Objects.equals(id, other.id) && Objects.equals(raw, other.raw);
+  }
+
+  @Override
+  public String toString() {
+    return "EapInstanceRaw [id=" + id + ", raw=" + raw + "]";
+  }
+
+  public UUID getId() {
+    return id;
+  }
+
+  public EapInstance getEapInstance() {
+    return eapInstance;
+  }
+
+  public void setEapInstance(EapInstance eapInstance) {
+    this.eapInstance = eapInstance;
+  }
+
+  public String getRaw() {
+    return raw;
+  }
+
+  public void setRaw(String raw) {
+    this.raw = raw;
+  }
+}
@@ -1,8 +1,6 @@
-/* Copyright (C) Red Hat 2023 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.runtimes.inventory.models;
 
-import java.util.ArrayList;
-
 public sealed interface InsightsMessage permits JvmInstance, UpdateInstance {
 
   // This will sanitize the message by redacting any sensitive information that we don't want to
@@ -15,90 +13,72 @@ public sealed interface InsightsMessage permits JvmInstance, UpdateInstance {
    * Sanitizes a string that contains java style parameters of the type -Dxxxxx=yyyyy by
    * substituting the yyyyy value for an obfuscated string
    *
+   * <p>The parameters are tokenized on spaces, with some special rules: quotes that start a word,
+   * or that follow an '=', run until the matching quote, so that -Dxxxxx="this is all one token" is
+   * one token, and backslashes escape the next character. This is done in a single pass: every
+   * token is copied to the output as it is scanned, and the value of a -D token is cut off and
+   * replaced once its end is reached.
+   *
    * @param parameters
    * @return a sanitized parameter string suitable for persisting
    */
   static String sanitizeJavaParameters(final String parameters) {
-    final StringBuilder out = new StringBuilder();
-
-    for (final String token : tokenizeComplexJavaParameters(parameters)) {
-      // We only care about -Dxxxxx=yyyyy params
-      if (token.startsWith("-D") && token.contains("=")) {
-        String[] parts = token.split("=", 2);
-        out.append(parts[0]);
-        out.append(REDACTED_VALUE);
-        // We might be parsing json
-        // if so, preserve the list comma or list closing bracket
-        if (token.endsWith(",")) {
-          out.append(',');
-        }
-        if (token.endsWith("]")) {
-          out.append(']');
-        }
-      } else {
-        out.append(token);
-      }
-      out.append(" ");
-    }
-    // Remove the last added space
-    out.deleteCharAt(out.length() - 1);
-    return out.toString();
-  }
-
-  // This tokenizes a string, but with some special rules
-  // It tokenizes based on spaces, but it will interpret quotes
-  // that start in the middle of a string, after an '='
-  // This is important because some of the data we want to preserve might
-  // look like -Dxxxxx="this is all one token"
-  // This is also aware of escape sequences
-  static String[] tokenizeComplexJavaParameters(final String parameters) {
-    final ArrayList<String> tokens = new ArrayList<String>();
-    StringBuilder currentWord = new StringBuilder();
-    Character currentQuote = null;
+    final int length = parameters.length();
+    final StringBuilder out = new StringBuilder(length + REDACTED_VALUE.length());
+    int tokenStart = 0;
+    int firstEquals = -1;
+    char currentQuote = 0;
     boolean escaping = false;
     boolean afterEquals = false;
     // Order is important here. Rearrange at your own risk.
-    for (final char c : parameters.toCharArray()) {
+    for (int i = 0; i < length; i++) {
+      final char c = parameters.charAt(i);
+      if (c == '=' && firstEquals < 0) {
+        firstEquals = out.length();
+      }
+
       // If we're not escaping, start escaping and continue
       if (c == '\\' && !escaping) {
         escaping = true;
-        currentWord.append(c);
+        out.append(c);
         continue;
       }
 
       // If we're escaping, always just add to the word and continue
       if (escaping) {
         escaping = false;
-        currentWord.append(c);
+        out.append(c);
         continue;
       }
 
       // If we see an '=', remember that and continue
       if (c == '=') {
         afterEquals = true;
-        currentWord.append(c);
+        out.append(c);
         continue;
       }
 
-      // If we're not in a quote and we hit a space, save the word and continue
-      if (currentQuote == null && c == ' ') {
-        tokens.add(currentWord.toString());
-        currentWord = new StringBuilder();
+      // If we're not in a quote and we hit a space, the token is complete
+      if (currentQuote == 0 && c == ' ') {
+        redactToken(out, tokenStart, firstEquals);
+        out.append(' ');
+        tokenStart = out.length();
+        firstEquals = -1;
         continue;
       }
 
       // If we see a quote...
       if (c == '\'' || c == '"') {
         // If we are quoting...
-        if (currentQuote != null) {
+        if (currentQuote != 0) {
           // stop quoting if we're at the matching quote
           if (c == currentQuote) {
-            currentQuote = null;
+            currentQuote = 0;
           }
         } else {
           // So we're not quoting...
           // If we're at a new word or after an equals, start quoting
-          if (afterEquals || currentWord.isEmpty()) {
+          if (afterEquals || out.length() == tokenStart) {
             currentQuote = c;
           }
         }
@@ -106,10 +86,30 @@ public sealed interface InsightsMessage permits JvmInstance, UpdateInstance {
 
       // Otherwise, just add the char
       afterEquals = false;
-      currentWord.append(c);
+      out.append(c);
+    }
+    // The end of the string completes the last token
+    redactToken(out, tokenStart, firstEquals);
+    return out.toString();
+  }
+
+  /**
+   * Replaces the value of the token at the end of the builder if it is a -Dxxxxx=yyyyy parameter.
+   * We might be parsing json, so a trailing list comma or list closing bracket is preserved.
+   */
+  private static void redactToken(StringBuilder out, int tokenStart, int firstEquals) {
+    // We only care about -Dxxxxx=yyyyy params
+    if (firstEquals < 0
+        || out.length() - tokenStart < 2
+        || out.charAt(tokenStart) != '-'
+        || out.charAt(tokenStart + 1) != 'D') {
+      return;
+    }
+    final char last = out.charAt(out.length() - 1);
+    out.setLength(firstEquals);
+    out.append(REDACTED_VALUE);
+    if (last == ',' || last == ']') {
+      out.append(last);
     }
-    // Add the last word for the end of string
-    tokens.add(currentWord.toString());
-    return tokens.toArray(new String[0]);
   }
 }
@@ -1,6 +1,7 @@
-/* Copyright (C) Red Hat 2023 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.runtimes.inventory.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -11,7 +12,7 @@ import java.util.UUID;
 @Table(name = "jar_hash")
 public class JarHash {
 
-  @Id @GeneratedValue private UUID id;
+  @Id @UuidV7 private UUID id;
 
   @NotNull
   @Size(max = 255)
@@ -32,16 +33,19 @@ public class JarHash {
   private String version;
 
   @NotNull
-  @Size(max = 255)
-  private String sha1Checksum;
+  @Column(name = "sha1")
+  @Convert(converter = DigestConverter.class)
+  private Digest sha1Checksum = Digest.EMPTY;
 
   @NotNull
-  @Size(max = 255)
-  private String sha256Checksum;
+  @Column(name = "sha256")
+  @Convert(converter = DigestConverter.class)
+  private Digest sha256Checksum = Digest.EMPTY;
 
   @NotNull
-  @Size(max = 255)
-  private String sha512Checksum;
+  @Column(name = "sha512")
+  @Convert(converter = DigestConverter.class)
+  private Digest sha512Checksum = Digest.EMPTY;
 
   ///////////////////////////////
 
@@ -61,9 +65,9 @@ public class JarHash {
     this.groupId = groupId;
     this.vendor = vendor;
     this.version = version;
-    this.sha1Checksum = sha1Checksum;
-    this.sha256Checksum = sha256Checksum;
-    this.sha512Checksum = sha512Checksum;
+    this.sha1Checksum = Digest.ofHex(sha1Checksum);
+    this.sha256Checksum = Digest.ofHex(sha256Checksum);
+    this.sha512Checksum = Digest.ofHex(sha512Checksum);
   }
 
   ///////////////////////////////
@@ -108,49 +112,74 @@ public class JarHash {
     this.version = version;
   }
 
+  /** The hex string of the checksum, empty when there is none. */
   public String getSha1Checksum() {
-    return sha1Checksum;
+    return sha1Checksum.toHex();
   }
 
   public void setSha1Checksum(String sha1Checksum) {
-    this.sha1Checksum = sha1Checksum;
+    this.sha1Checksum = Digest.ofHex(sha1Checksum);
   }
 
+  /** The hex string of the checksum, empty when there is none. */
   public String getSha256Checksum() {
-    return sha256Checksum;
+    return sha256Checksum.toHex();
   }
 
   public void setSha256Checksum(String sha256Checksum) {
-    this.sha256Checksum = sha256Checksum;
+    this.sha256Checksum = Digest.ofHex(sha256Checksum);
   }
 
+  /** The hex string of the checksum, empty when there is none. */
   public String getSha512Checksum() {
-    return sha512Checksum;
+    return sha512Checksum.toHex();
   }
 
   public void setSha512Checksum(String sha512Checksum) {
-    this.sha512Checksum = sha512Checksum;
+    this.sha512Checksum = Digest.ofHex(sha512Checksum);
+  }
+
+  // The stored bytes of the checksums, for the rows that are not inserted by Hibernate
+
+  @JsonIgnore
+  public Digest getSha1Digest() {
+    return sha1Checksum;
+  }
+
+  @JsonIgnore
+  public Digest getSha256Digest() {
+    return sha256Checksum;
+  }
+
+  @JsonIgnore
+  public Digest getSha512Digest() {
+    return sha512Checksum;
   }
 
+  /**
+   * Two jars are the same when their contents are, whatever their names: the SHA-256 checksum
+   * identifies them. Only the jars without one are compared by their names and versions.
+   */
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
     if (o == null || getClass() != o.getClass()) return false;
     JarHash jarHash = (JarHash) o;
-    return Objects.equals(id, jarHash.id)
-        && Objects.equals(name, jarHash.name)
-        && Objects.equals(groupId, jarHash.groupId)
-        && Objects.equals(vendor, jarHash.vendor)
-        && Objects.equals(version, jarHash.version)
-        && Objects.equals(sha1Checksum, jarHash.sha1Checksum)
-        && Objects.equals(sha256Checksum, jarHash.sha256Checksum)
-        && Objects.equals(sha512Checksum, jarHash.sha512Checksum);
+    if (!sha256Checksum.equals(jarHash.sha256Checksum)) {
+      return false;
+    }
+    return !sha256Checksum.isEmpty()
+        || (Objects.equals(name, jarHash.name)
+            && Objects.equals(groupId, jarHash.groupId)
+            && Objects.equals(vendor, jarHash.vendor)
+            && Objects.equals(version, jarHash.version));
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(
-        id, name, groupId, vendor, version, sha1Checksum, sha256Checksum, sha512Checksum);
+    return sha256Checksum.isEmpty()
+        ? Objects.hash(name, groupId, vendor, version)
+        : sha256Checksum.hashCode();
   }
 
   @Override
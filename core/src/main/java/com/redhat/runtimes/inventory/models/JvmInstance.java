@@ -1,141 +1,24 @@
-/* Copyright (C) Red Hat 2023 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.runtimes.inventory.models;
 
-import static org.hibernate.type.SqlTypes.*;
-
 import jakarta.persistence.*;
-import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Size;
 import java.time.ZonedDateTime;
 import java.util.*;
-import org.hibernate.annotations.JdbcTypeCode;
 
+/**
+ * A JVM instance, or an {@link EapInstance} with the EAP columns joined from eap_instance. The
+ * instance_type discriminator tells them apart without the join, but loading a JvmInstance still
+ * joins eap_instance in case it is an EAP one: the paths that only need the JVM columns read a
+ * {@link JvmOnlyInstance} instead.
+ */
 @Entity
 @Table(name = "jvm_instance")
 @Inheritance(strategy = InheritanceType.JOINED)
-public non-sealed class JvmInstance implements InsightsMessage {
-
-  @Id @GeneratedValue protected UUID id;
-
-  @NotNull
-  @Size(max = 255)
-  protected String linkingHash;
-
-  @Size(max = 50)
-  protected String accountId;
-
-  @NotNull
-  @Size(max = 50)
-  protected String orgId;
-
-  @NotNull
-  @Size(max = 50)
-  protected String hostname;
-
-  // Process launched at
-  @NotNull protected long launchTime;
-
-  @NotNull
-  @Size(max = 255)
-  protected String vendor;
-
-  @NotNull
-  @Size(max = 255)
-  protected String versionString;
-
-  //      "java.version" : "17.0.1",
-  @NotNull
-  @Size(max = 255)
-  protected String version;
-
-  @NotNull protected int majorVersion;
-
-  @NotNull
-  @Size(max = 50)
-  protected String osArch;
-
-  @NotNull protected int processors;
-
-  @NotNull protected int heapMin;
-
-  @NotNull protected int heapMax;
-
-  @NotNull
-  @JdbcTypeCode(JSON)
-  @Column(columnDefinition = "jsonb")
-  protected Map<String, Object> details;
-
-  // Data record created
-  @NotNull protected ZonedDateTime created;
-
-  @ManyToMany(cascade = CascadeType.PERSIST)
-  @JoinTable(
-      name = "jvm_instance_jar_hash",
-      joinColumns = {@JoinColumn(name = "jvm_instance_id")},
-      inverseJoinColumns = {@JoinColumn(name = "jar_hash_id")})
-  protected Set<JarHash> jarHashes;
-
-  @NotNull
-  @Size(max = 255)
-  protected String javaClassVersion;
-
-  @NotNull
-  @Size(max = 255)
-  protected String javaSpecificationVendor;
-
-  @NotNull
-  @Size(max = 255)
-  protected String javaVendor;
-
-  @NotNull
-  @Size(max = 255)
-  protected String javaVendorVersion;
-
-  @NotNull
-  @Size(max = 255)
-  protected String javaVmName;
-
-  @NotNull
-  @Size(max = 255)
-  protected String javaVmVendor;
-
-  @NotNull
-  @Size(max = 255)
-  protected String jvmHeapGcDetails;
-
-  @NotNull
-  @Size(max = 255)
-  protected String jvmPid;
-
-  @NotNull
-  @Size(max = 255)
-  protected String jvmReportTime;
-
-  @NotNull
-  @Size(max = 255)
-  protected String systemOsName;
-
-  @NotNull
-  @Size(max = 255)
-  protected String systemOsVersion;
-
-  @NotNull protected String javaHome;
-
-  @NotNull protected String javaLibraryPath;
-
-  @NotNull protected String javaCommand;
-
-  @NotNull protected String javaClassPath;
-
-  @NotNull protected String jvmPackages;
-
-  @NotNull protected String jvmArgs;
-
-  @NotNull protected String workload = "Unidentified";
-
-  @NotNull protected boolean isOcp = false;
-
-  //////////////////////////////////////////////////////
+@DiscriminatorColumn(name = "instance_type", length = 10)
+@DiscriminatorValue(JvmInstance.JVM_TYPE)
+public non-sealed class JvmInstance extends JvmInstanceBase implements InsightsMessage {
+  public static final String JVM_TYPE = "jvm";
+  public static final String EAP_TYPE = "eap";
 
   public JvmInstance() {}
 
@@ -180,11 +63,11 @@ public non-sealed class JvmInstance implements InsightsMessage {
     this.orgId = orgId;
     this.hostname = hostname;
     this.launchTime = launchTime;
-    this.vendor = vendor;
-    this.versionString = versionString;
+    setVendor(vendor);
+    setVersionString(versionString);
     this.version = version;
     this.majorVersion = majorVersion;
-    this.osArch = osArch;
+    setOsArch(osArch);
     this.processors = processors;
     this.heapMin = heapMin;
     this.heapMax = heapMax;
@@ -196,313 +79,23 @@ public non-sealed class JvmInstance implements InsightsMessage {
     this.javaLibraryPath = javaLibraryPath;
     this.javaSpecificationVendor = javaSpecificationVendor;
     this.javaVendor = javaVendor;
-    this.javaVendorVersion = javaVendorVersion;
-    this.javaVmName = javaVmName;
-    this.javaVmVendor = javaVmVendor;
-    this.jvmHeapGcDetails = jvmHeapGcDetails;
+    setJavaVendorVersion(javaVendorVersion);
+    setJavaVmName(javaVmName);
+    setJavaVmVendor(javaVmVendor);
+    setJvmHeapGcDetails(jvmHeapGcDetails);
     this.jvmPid = jvmPid;
     this.jvmReportTime = jvmReportTime;
-    this.systemOsName = systemOsName;
-    this.systemOsVersion = systemOsVersion;
+    setSystemOsName(systemOsName);
+    setSystemOsVersion(systemOsVersion);
     this.javaCommand = javaCommand;
     this.jvmPackages = jvmPackages;
     this.jvmArgs = jvmArgs;
-    this.workload = workload;
+    setWorkload(workload);
     this.isOcp = isOcp;
   }
 
   //////////////////////////////////////////////////////
 
-  public UUID getId() {
-    return id;
-  }
-
-  public void setId(UUID id) {
-    this.id = id;
-  }
-
-  public void setLinkingHash(String linkingHash) {
-    this.linkingHash = linkingHash;
-  }
-
-  public String getLinkingHash() {
-    return linkingHash;
-  }
-
-  public String getAccountId() {
-    return accountId;
-  }
-
-  public void setAccountId(String accountId) {
-    this.accountId = accountId;
-  }
-
-  public String getOrgId() {
-    return orgId;
-  }
-
-  public void setOrgId(String orgId) {
-    this.orgId = orgId;
-  }
-
-  public String getHostname() {
-    return hostname;
-  }
-
-  public void setHostname(String hostname) {
-    this.hostname = hostname;
-  }
-
-  public String getVendor() {
-    return vendor;
-  }
-
-  public void setVendor(String vendor) {
-    this.vendor = vendor;
-  }
-
-  public String getVersionString() {
-    return versionString;
-  }
-
-  public void setVersionString(String versionString) {
-    this.versionString = versionString;
-  }
-
-  public String getVersion() {
-    return version;
-  }
-
-  public void setVersion(String version) {
-    this.version = version;
-  }
-
-  public int getMajorVersion() {
-    return majorVersion;
-  }
-
-  public void setMajorVersion(int majorVersion) {
-    this.majorVersion = majorVersion;
-  }
-
-  public String getOsArch() {
-    return osArch;
-  }
-
-  public void setOsArch(String osArch) {
-    this.osArch = osArch;
-  }
-
-  public int getProcessors() {
-    return processors;
-  }
-
-  public void setProcessors(int processors) {
-    this.processors = processors;
-  }
-
-  public int getHeapMin() {
-    return heapMin;
-  }
-
-  public void setHeapMin(int heapMin) {
-    this.heapMin = heapMin;
-  }
-
-  public int getHeapMax() {
-    return heapMax;
-  }
-
-  public void setHeapMax(int heapMax) {
-    this.heapMax = heapMax;
-  }
-
-  public ZonedDateTime getCreated() {
-    return created;
-  }
-
-  public void setCreated(ZonedDateTime created) {
-    this.created = created;
-  }
-
-  public long getLaunchTime() {
-    return launchTime;
-  }
-
-  public void setLaunchTime(long launchTime) {
-    this.launchTime = launchTime;
-  }
-
-  public Map<String, Object> getDetails() {
-    return details;
-  }
-
-  public void setDetails(Map<String, Object> details) {
-    this.details = details;
-  }
-
-  public Set<JarHash> getJarHashes() {
-    return jarHashes;
-  }
-
-  public void setJarHashes(Set<JarHash> jarHashes) {
-    this.jarHashes = jarHashes;
-  }
-
-  public String getJavaClassPath() {
-    return javaClassPath;
-  }
-
-  public void setJavaClassPath(String javaClassPath) {
-    this.javaClassPath = javaClassPath;
-  }
-
-  public String getJavaClassVersion() {
-    return javaClassVersion;
-  }
-
-  public void setJavaClassVersion(String javaClassVersion) {
-    this.javaClassVersion = javaClassVersion;
-  }
-
-  public String getJavaCommand() {
-    return javaCommand;
-  }
-
-  public void setJavaCommand(String javaCommand) {
-    this.javaCommand = javaCommand;
-  }
-
-  public String getJavaHome() {
-    return javaHome;
-  }
-
-  public void setJavaHome(String javaHome) {
-    this.javaHome = javaHome;
-  }
-
-  public String getJavaLibraryPath() {
-    return javaLibraryPath;
-  }
-
-  public void setJavaLibraryPath(String javaLibraryPath) {
-    this.javaLibraryPath = javaLibraryPath;
-  }
-
-  public String getJavaSpecificationVendor() {
-    return javaSpecificationVendor;
-  }
-
-  public void setJavaSpecificationVendor(String javaSpecificationVendor) {
-    this.javaSpecificationVendor = javaSpecificationVendor;
-  }
-
-  public String getJavaVendor() {
-    return javaVendor;
-  }
-
-  public void setJavaVendor(String javaVendor) {
-    this.javaVendor = javaVendor;
-  }
-
-  public String getJavaVendorVersion() {
-    return javaVendorVersion;
-  }
-
-  public void setJavaVendorVersion(String javaVendorVersion) {
-    this.javaVendorVersion = javaVendorVersion;
-  }
-
-  public String getJavaVmName() {
-    return javaVmName;
-  }
-
-  public void setJavaVmName(String javaVmName) {
-    this.javaVmName = javaVmName;
-  }
-
-  public String getJavaVmVendor() {
-    return javaVmVendor;
-  }
-
-  public void setJavaVmVendor(String javaVmVendor) {
-    this.javaVmVendor = javaVmVendor;
-  }
-
-  public String getJvmHeapGcDetails() {
-    return jvmHeapGcDetails;
-  }
-
-  public void setJvmHeapGcDetails(String jvmHeapGcDetails) {
-    this.jvmHeapGcDetails = jvmHeapGcDetails;
-  }
-
-  public String getJvmPid() {
-    return jvmPid;
-  }
-
-  public void setJvmPid(String jvmPid) {
-    this.jvmPid = jvmPid;
-  }
-
-  public String getJvmReportTime() {
-    return jvmReportTime;
-  }
-
-  public void setJvmReportTime(String jvmReportTime) {
-    this.jvmReportTime = jvmReportTime;
-  }
-
-  public String getSystemOsName() {
-    return systemOsName;
-  }
-
-  public void setSystemOsName(String systemOsName) {
-    this.systemOsName = systemOsName;
-  }
-
-  public String getSystemOsVersion() {
-    return systemOsVersion;
-  }
-
-  public void setSystemOsVersion(String systemOsVersion) {
-    this.systemOsVersion = systemOsVersion;
-  }
-
-  public String getJvmPackages() {
-    return jvmPackages;
-  }
-
-  public void setJvmPackages(String jvmPackages) {
-    this.jvmPackages = jvmPackages;
-  }
-
-  public String getJvmArgs() {
-    return jvmArgs;
-  }
-
-  public void setJvmArgs(String jvmArgs) {
-    this.jvmArgs = jvmArgs;
-  }
-
-  public String getWorkload() {
-    return workload;
-  }
-
-  public void setWorkload(String workload) {
-    this.workload = workload;
-  }
-
-  public boolean isOcp() {
-    return isOcp;
-  }
-
-  public void setOcp(boolean ocp) {
-    isOcp = ocp;
-  }
-
-  //////////////////////////////////////////////////////
-
   @Override
   public void sanitize() {
     setJvmArgs(InsightsMessage.sanitizeJavaParameters(getJvmArgs()));
@@ -527,31 +120,31 @@ public non-sealed class JvmInstance implements InsightsMessage {
         && Objects.equals(accountId, that.accountId)
         && Objects.equals(orgId, that.orgId)
         && Objects.equals(hostname, that.hostname)
-        && Objects.equals(vendor, that.vendor)
-        && Objects.equals(versionString, that.versionString)
+        && Objects.equals(getVendor(), that.getVendor())
+        && Objects.equals(getVersionString(), that.getVersionString())
         && Objects.equals(version, that.version)
-        && Objects.equals(osArch, that.osArch)
+        && Objects.equals(getOsArch(), that.getOsArch())
         && Objects.equals(details, that.details)
         && Objects.equals(created, that.created)
         && Objects.equals(jarHashes, that.jarHashes)
         && Objects.equals(javaClassVersion, that.javaClassVersion)
         && Objects.equals(javaSpecificationVendor, that.javaSpecificationVendor)
         && Objects.equals(javaVendor, that.javaVendor)
-        && Objects.equals(javaVendorVersion, that.javaVendorVersion)
-        && Objects.equals(javaVmName, that.javaVmName)
-        && Objects.equals(javaVmVendor, that.javaVmVendor)
-        && Objects.equals(jvmHeapGcDetails, that.jvmHeapGcDetails)
+        && Objects.equals(getJavaVendorVersion(), that.getJavaVendorVersion())
+        && Objects.equals(getJavaVmName(), that.getJavaVmName())
+        && Objects.equals(getJavaVmVendor(), that.getJavaVmVendor())
+        && Objects.equals(getJvmHeapGcDetails(), that.getJvmHeapGcDetails())
         && Objects.equals(jvmPid, that.jvmPid)
         && Objects.equals(jvmReportTime, that.jvmReportTime)
-        && Objects.equals(systemOsName, that.systemOsName)
-        && Objects.equals(systemOsVersion, that.systemOsVersion)
+        && Objects.equals(getSystemOsName(), that.getSystemOsName())
+        && Objects.equals(getSystemOsVersion(), that.getSystemOsVersion())
         && Objects.equals(javaHome, that.javaHome)
         && Objects.equals(javaLibraryPath, that.javaLibraryPath)
         && Objects.equals(javaCommand, that.javaCommand)
         && Objects.equals(javaClassPath, that.javaClassPath)
         && Objects.equals(jvmPackages, that.jvmPackages)
         && Objects.equals(jvmArgs, that.jvmArgs)
-        && Objects.equals(workload, that.workload);
+        && Objects.equals(getWorkload(), that.getWorkload());
   }
 
   @Override
@@ -563,11 +156,11 @@ public non-sealed class JvmInstance implements InsightsMessage {
         orgId,
         hostname,
         launchTime,
-        vendor,
-        versionString,
+        getVendor(),
+        getVersionString(),
         version,
         majorVersion,
-        osArch,
+        getOsArch(),
         processors,
         heapMin,
         heapMax,
@@ -577,21 +170,21 @@ public non-sealed class JvmInstance implements InsightsMessage {
         javaClassVersion,
         javaSpecificationVendor,
         javaVendor,
-        javaVendorVersion,
-        javaVmName,
-        javaVmVendor,
-        jvmHeapGcDetails,
+        getJavaVendorVersion(),
+        getJavaVmName(),
+        getJavaVmVendor(),
+        getJvmHeapGcDetails(),
         jvmPid,
         jvmReportTime,
-        systemOsName,
-        systemOsVersion,
+        getSystemOsName(),
+        getSystemOsVersion(),
         javaHome,
         javaLibraryPath,
         javaCommand,
         javaClassPath,
         jvmPackages,
         jvmArgs,
-        workload,
+        getWorkload(),
         isOcp);
   }
 
@@ -615,10 +208,10 @@ public non-sealed class JvmInstance implements InsightsMessage {
         + ", launchTime="
         + launchTime
         + ", vendor='"
-        + vendor
+        + getVendor()
         + '\''
         + ", versionString='"
-        + versionString
+        + getVersionString()
         + '\''
         + ", version='"
         + version
@@ -626,7 +219,7 @@ public non-sealed class JvmInstance implements InsightsMessage {
         + ", majorVersion="
         + majorVersion
         + ", osArch='"
-        + osArch
+        + getOsArch()
         + '\''
         + ", processors="
         + processors
@@ -650,16 +243,16 @@ public non-sealed class JvmInstance implements InsightsMessage {
         + javaVendor
         + '\''
         + ", javaVendorVersion='"
-        + javaVendorVersion
+        + getJavaVendorVersion()
         + '\''
         + ", javaVmName='"
-        + javaVmName
+        + getJavaVmName()
         + '\''
         + ", javaVmVendor='"
-        + javaVmVendor
+        + getJavaVmVendor()
         + '\''
         + ", jvmHeapGcDetails='"
-        + jvmHeapGcDetails
+        + getJvmHeapGcDetails()
         + '\''
         + ", jvmPid='"
         + jvmPid
@@ -668,10 +261,10 @@ public non-sealed class JvmInstance implements InsightsMessage {
         + jvmReportTime
         + '\''
         + ", systemOsName='"
-        + systemOsName
+        + getSystemOsName()
         + '\''
         + ", systemOsVersion='"
-        + systemOsVersion
+        + getSystemOsVersion()
         + '\''
         + ", javaHome='"
         + javaHome
@@ -692,7 +285,7 @@ public non-sealed class JvmInstance implements InsightsMessage {
         + jvmArgs
         + '\''
         + ", workload='"
-        + workload
+        + getWorkload()
         + '\''
         + ", isOcp="
         + isOcp
@@ -0,0 +1,477 @@
+/* Copyright (C) Red Hat 2023-2026 */
+package com.redhat.runtimes.inventory.models;
+
+import static org.hibernate.type.SqlTypes.*;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.function.Function;
+import org.hibernate.annotations.JdbcTypeCode;
+
+/**
+ * The columns of the jvm_instance table, shared by the {@link JvmInstance} hierarchy and by the
+ * {@link JvmOnlyInstance} view of the same rows. The attributes many instances have in common are
+ * in their {@link RuntimeProfile}.
+ */
+@MappedSuperclass
+public abstract class JvmInstanceBase {
+
+  @Id @UuidV7 protected UUID id;
+
+  @NotNull
+  @Size(max = 255)
+  protected String linkingHash;
+
+  @Size(max = 50)
+  protected String accountId;
+
+  @NotNull
+  @Size(max = 50)
+  protected String orgId;
+
+  @NotNull
+  @Size(max = 50)
+  protected String hostname;
+
+  // Process launched at
+  @NotNull protected long launchTime;
+
+  //      "java.version" : "17.0.1",
+  @NotNull
+  @Size(max = 255)
+  protected String version;
+
+  @NotNull protected int majorVersion;
+
+  @NotNull protected int processors;
+
+  @NotNull protected int heapMin;
+
+  @NotNull protected int heapMax;
+
+  // The "basic" section of the report, possibly without the values that are in a column of their
+  // own (see DetailsPolicy)
+  @NotNull
+  @JdbcTypeCode(JSON)
+  @Column(columnDefinition = "jsonb")
+  protected Map<String, Object> details;
+
+  // Data record created
+  @NotNull protected ZonedDateTime created;
+
+  @ManyToMany(cascade = CascadeType.PERSIST)
+  @JoinTable(
+      name = "jvm_instance_jar_hash",
+      joinColumns = {@JoinColumn(name = "jvm_instance_id")},
+      inverseJoinColumns = {@JoinColumn(name = "jar_hash_id")})
+  protected Set<JarHash> jarHashes;
+
+  @NotNull
+  @Size(max = 255)
+  protected String javaClassVersion;
+
+  @NotNull
+  @Size(max = 255)
+  protected String javaSpecificationVendor;
+
+  @NotNull
+  @Size(max = 255)
+  protected String javaVendor;
+
+  @NotNull
+  @Size(max = 255)
+  protected String jvmPid;
+
+  @NotNull
+  @Size(max = 255)
+  protected String jvmReportTime;
+
+  @NotNull protected String javaHome;
+
+  @NotNull protected String javaLibraryPath;
+
+  @NotNull protected String javaCommand;
+
+  @NotNull
+  @Convert(converter = CompressedTextConverter.class)
+  protected String javaClassPath;
+
+  @NotNull
+  @Convert(converter = CompressedTextConverter.class)
+  protected String jvmPackages;
+
+  @NotNull protected String jvmArgs;
+
+  @NotNull protected boolean isOcp = false;
+
+  // The JVM, OS and workload attributes, shared with the instances that have the same ones
+  @ManyToOne(fetch = FetchType.LAZY, optional = false)
+  @JoinColumn(name = "runtime_profile_id")
+  @JsonIgnore
+  protected RuntimeProfile runtimeProfile = new RuntimeProfile();
+
+  // The values of "basic" that are stored as is in a column, with the getter of the column
+  private static final Map<String, Function<JvmInstanceBase, String>> DETAIL_COLUMNS =
+      Map.ofEntries(
+          Map.entry("java.runtime.version", JvmInstanceBase::getVersionString),
+          Map.entry("java.version", JvmInstanceBase::getVersion),
+          Map.entry("java.vm.specification.vendor", JvmInstanceBase::getVendor),
+          Map.entry("system.arch", JvmInstanceBase::getOsArch),
+          Map.entry("system.hostname", JvmInstanceBase::getHostname),
+          Map.entry("java.class.path", JvmInstanceBase::getJavaClassPath),
+          Map.entry("java.class.version", JvmInstanceBase::getJavaClassVersion),
+          Map.entry("java.command", JvmInstanceBase::getJavaCommand),
+          Map.entry("java.home", JvmInstanceBase::getJavaHome),
+          Map.entry("java.library.path", JvmInstanceBase::getJavaLibraryPath),
+          Map.entry("java.vendor", JvmInstanceBase::getJavaVendor),
+          Map.entry("java.specification.vendor", JvmInstanceBase::getJavaSpecificationVendor),
+          Map.entry("java.vendor.version", JvmInstanceBase::getJavaVendorVersion),
+          Map.entry("java.vm.name", JvmInstanceBase::getJavaVmName),
+          Map.entry("java.vm.vendor", JvmInstanceBase::getJavaVmVendor),
+          Map.entry("jvm.heap.gc.details", JvmInstanceBase::getJvmHeapGcDetails),
+          Map.entry("jvm.pid", JvmInstanceBase::getJvmPid),
+          Map.entry("jvm.report_time", JvmInstanceBase::getJvmReportTime),
+          Map.entry("jvm.packages", JvmInstanceBase::getJvmPackages),
+          Map.entry("jvm.args", JvmInstanceBase::getJvmArgs),
+          Map.entry("system.os.name", JvmInstanceBase::getSystemOsName),
+          Map.entry("system.os.version", JvmInstanceBase::getSystemOsVersion));
+
+  //////////////////////////////////////////////////////
+
+  public UUID getId() {
+    return id;
+  }
+
+  public void setId(UUID id) {
+    this.id = id;
+  }
+
+  public void setLinkingHash(String linkingHash) {
+    this.linkingHash = linkingHash;
+  }
+
+  public String getLinkingHash() {
+    return linkingHash;
+  }
+
+  public String getAccountId() {
+    return accountId;
+  }
+
+  public void setAccountId(String accountId) {
+    this.accountId = accountId;
+  }
+
+  public String getOrgId() {
+    return orgId;
+  }
+
+  public void setOrgId(String orgId) {
+    this.orgId = orgId;
+  }
+
+  public String getHostname() {
+    return hostname;
+  }
+
+  public void setHostname(String hostname) {
+    this.hostname = hostname;
+  }
+
+  public String getVendor() {
+    return runtimeProfile.getVendor();
+  }
+
+  public void setVendor(String vendor) {
+    editableProfile().vendor = vendor;
+  }
+
+  public String getVersionString() {
+    return runtimeProfile.getVersionString();
+  }
+
+  public void setVersionString(String versionString) {
+    editableProfile().versionString = versionString;
+  }
+
+  public String getVersion() {
+    return version;
+  }
+
+  public void setVersion(String version) {
+    this.version = version;
+  }
+
+  public int getMajorVersion() {
+    return majorVersion;
+  }
+
+  public void setMajorVersion(int majorVersion) {
+    this.majorVersion = majorVersion;
+  }
+
+  public String getOsArch() {
+    return runtimeProfile.getOsArch();
+  }
+
+  public void setOsArch(String osArch) {
+    editableProfile().osArch = osArch;
+  }
+
+  public int getProcessors() {
+    return processors;
+  }
+
+  public void setProcessors(int processors) {
+    this.processors = processors;
+  }
+
+  public int getHeapMin() {
+    return heapMin;
+  }
+
+  public void setHeapMin(int heapMin) {
+    this.heapMin = heapMin;
+  }
+
+  public int getHeapMax() {
+    return heapMax;
+  }
+
+  public void setHeapMax(int heapMax) {
+    this.heapMax = heapMax;
+  }
+
+  public ZonedDateTime getCreated() {
+    return created;
+  }
+
+  public void setCreated(ZonedDateTime created) {
+    this.created = created;
+  }
+
+  public long getLaunchTime() {
+    return launchTime;
+  }
+
+  public void setLaunchTime(long launchTime) {
+    this.launchTime = launchTime;
+  }
+
+  /** The "basic" section of the report, with the values omitted from the stored details. */
+  public Map<String, Object> getDetails() {
+    if (details == null || details.keySet().containsAll(DETAIL_COLUMNS.keySet())) {
+      return details;
+    }
+    var out = new HashMap<>(details);
+    DETAIL_COLUMNS.forEach(
+        (key, column) -> {
+          var value = column.apply(this);
+          // "null" is what the column holds when the report has no value
+          if (!out.containsKey(key) && value != null && !"null".equals(value)) {
+            out.put(key, value);
+          }
+        });
+    return out;
+  }
+
+  public void setDetails(Map<String, Object> details) {
+    this.details = details;
+  }
+
+  /**
+   * Removes from the details the values that are in a column as is, to be called once all the
+   * columns are set. {@link #getDetails()} puts them back.
+   */
+  public void omitColumnDetails() {
+    DETAIL_COLUMNS.forEach(
+        (key, column) -> {
+          if (details.get(key) instanceof String value
+              && !"null".equals(value)
+              && value.equals(column.apply(this))) {
+            details.remove(key);
+          }
+        });
+  }
+
+  public Set<JarHash> getJarHashes() {
+    return jarHashes;
+  }
+
+  public void setJarHashes(Set<JarHash> jarHashes) {
+    this.jarHashes = jarHashes;
+  }
+
+  public String getJavaClassPath() {
+    return javaClassPath;
+  }
+
+  public void setJavaClassPath(String javaClassPath) {
+    this.javaClassPath = javaClassPath;
+  }
+
+  public String getJavaClassVersion() {
+    return javaClassVersion;
+  }
+
+  public void setJavaClassVersion(String javaClassVersion) {
+    this.javaClassVersion = javaClassVersion;
+  }
+
+  public String getJavaCommand() {
+    return javaCommand;
+  }
+
+  public void setJavaCommand(String javaCommand) {
+    this.javaCommand = javaCommand;
+  }
+
+  public String getJavaHome() {
+    return javaHome;
+  }
+
+  public void setJavaHome(String javaHome) {
+    this.javaHome = javaHome;
+  }
+
+  public String getJavaLibraryPath() {
+    return javaLibraryPath;
+  }
+
+  public void setJavaLibraryPath(String javaLibraryPath) {
+    this.javaLibraryPath = javaLibraryPath;
+  }
+
+  public String getJavaSpecificationVendor() {
+    return javaSpecificationVendor;
+  }
+
+  public void setJavaSpecificationVendor(String javaSpecificationVendor) {
+    this.javaSpecificationVendor = javaSpecificationVendor;
+  }
+
+  public String getJavaVendor() {
+    return javaVendor;
+  }
+
+  public void setJavaVendor(String javaVendor) {
+    this.javaVendor = javaVendor;
+  }
+
+  public String getJavaVendorVersion() {
+    return runtimeProfile.getJavaVendorVersion();
+  }
+
+  public void setJavaVendorVersion(String javaVendorVersion) {
+    editableProfile().javaVendorVersion = javaVendorVersion;
+  }
+
+  public String getJavaVmName() {
+    return runtimeProfile.getJavaVmName();
+  }
+
+  public void setJavaVmName(String javaVmName) {
+    editableProfile().javaVmName = javaVmName;
+  }
+
+  public String getJavaVmVendor() {
+    return runtimeProfile.getJavaVmVendor();
+  }
+
+  public void setJavaVmVendor(String javaVmVendor) {
+    editableProfile().javaVmVendor = javaVmVendor;
+  }
+
+  public String getJvmHeapGcDetails() {
+    return runtimeProfile.getJvmHeapGcDetails();
+  }
+
+  public void setJvmHeapGcDetails(String jvmHeapGcDetails) {
+    editableProfile().jvmHeapGcDetails = jvmHeapGcDetails;
+  }
+
+  public String getJvmPid() {
+    return jvmPid;
+  }
+
+  public void setJvmPid(String jvmPid) {
+    this.jvmPid = jvmPid;
+  }
+
+  public String getJvmReportTime() {
+    return jvmReportTime;
+  }
+
+  public void setJvmReportTime(String jvmReportTime) {
+    this.jvmReportTime = jvmReportTime;
+  }
+
+  public String getSystemOsName() {
+    return runtimeProfile.getSystemOsName();
+  }
+
+  public void setSystemOsName(String systemOsName) {
+    editableProfile().systemOsName = systemOsName;
+  }
+
+  public String getSystemOsVersion() {
+    return runtimeProfile.getSystemOsVersion();
+  }
+
+  public void setSystemOsVersion(String systemOsVersion) {
+    editableProfile().systemOsVersion = systemOsVersion;
+  }
+
+  public String getJvmPackages() {
+    return jvmPackages;
+  }
+
+  public void setJvmPackages(String jvmPackages) {
+    this.jvmPackages = jvmPackages;
+  }
+
+  public String getJvmArgs() {
+    return jvmArgs;
+  }
+
+  public void setJvmArgs(String jvmArgs) {
+    this.jvmArgs = jvmArgs;
+  }
+
+  public String getWorkload() {
+    return runtimeProfile.getWorkload();
+  }
+
+  public void setWorkload(String workload) {
+    editableProfile().workload = workload;
+  }
+
+  @JsonIgnore
+  public RuntimeProfile getRuntimeProfile() {
+    return runtimeProfile;
+  }
+
+  public void setRuntimeProfile(RuntimeProfile runtimeProfile) {
+    this.runtimeProfile = runtimeProfile;
+  }
+
+  /** The profile to write to, a stored one is shared and is replaced by a new copy first. */
+  private RuntimeProfile editableProfile() {
+    if (runtimeProfile.getId() != null) {
+      runtimeProfile = runtimeProfile.copy();
+    }
+    return runtimeProfile;
+  }
+
+  public boolean isOcp() {
+    return isOcp;
+  }
+
+  public void setOcp(boolean ocp) {
+    isOcp = ocp;
+  }
+}
@@ -0,0 +1,33 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.models;
+
+import jakarta.persistence.*;
+
+/**
+ * The JVM columns of any instance, EAP or not, mapped on the jvm_instance table alone. Queries on
+ * it never join eap_instance, unlike the polymorphic queries on {@link JvmInstance}. The instances
+ * are only created through JvmInstance, but their jar hashes can be updated here.
+ */
+@Entity
+@Table(name = "jvm_instance")
+public class JvmOnlyInstance extends JvmInstanceBase {
+
+  @Column(name = "instance_type", insertable = false, updatable = false)
+  private String instanceType;
+
+  /** {@link JvmInstance#JVM_TYPE} or {@link JvmInstance#EAP_TYPE}. */
+  public String getInstanceType() {
+    return instanceType;
+  }
+
+  @Override
+  public String toString() {
+    return "JvmOnlyInstance{id="
+        + id
+        + ", linkingHash='"
+        + linkingHash
+        + "', instanceType='"
+        + instanceType
+        + "'}";
+  }
+}
@@ -1,9 +1,10 @@
-/* Copyright (C) Red Hat 2023 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.runtimes.inventory.models;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import java.util.Objects;
 
 @Embeddable
 public final class NameVersionPair {
@@ -30,4 +31,21 @@ public final class NameVersionPair {
   public void setName(String name) {
     this.name = name;
   }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(name, version);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) return true;
+    if (!(obj instanceof NameVersionPair other)) return false;
+    return Objects.equals(name, other.name) && Objects.equals(version, other.version);
+  }
+
+  @Override
+  public String toString() {
+    return name + ":" + version;
+  }
 }
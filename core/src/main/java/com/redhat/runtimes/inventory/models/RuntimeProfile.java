@@ -0,0 +1,184 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.models;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.Objects;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * The attributes that a great many JVM instances have in common: the JVM, the OS and the workload.
+ * They are stored once in runtime_profile and the instances only reference them by id.
+ *
+ * <p>A stored profile is immutable and shared by many instances. A new profile is filled while a
+ * report is mapped, then replaced by the stored one with the same {@link #getProfileHash() hash}
+ * before the instance is persisted.
+ */
+@Entity
+@Table(name = "runtime_profile")
+@Immutable
+@Cacheable
+public class RuntimeProfile {
+  // The separator of the values in the hash, it can't appear in them
+  private static final String SEPARATOR = "\u001f";
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  Integer id;
+
+  @NotNull
+  @Convert(converter = DigestConverter.class)
+  private Digest profileHash;
+
+  @NotNull
+  @Size(max = 255)
+  String vendor;
+
+  @NotNull
+  @Size(max = 255)
+  String versionString;
+
+  @NotNull
+  @Size(max = 255)
+  String javaVmName;
+
+  @NotNull
+  @Size(max = 255)
+  String javaVmVendor;
+
+  @NotNull
+  @Size(max = 255)
+  String javaVendorVersion;
+
+  @NotNull
+  @Size(max = 255)
+  String jvmHeapGcDetails;
+
+  @NotNull
+  @Size(max = 255)
+  String systemOsName;
+
+  @NotNull
+  @Size(max = 255)
+  String systemOsVersion;
+
+  @NotNull
+  @Size(max = 50)
+  String osArch;
+
+  @NotNull
+  @Size(max = 255)
+  String workload = "Unidentified";
+
+  public RuntimeProfile() {}
+
+  /** A new, not yet stored, profile with the values of this one. */
+  RuntimeProfile copy() {
+    var copy = new RuntimeProfile();
+    copy.vendor = vendor;
+    copy.versionString = versionString;
+    copy.javaVmName = javaVmName;
+    copy.javaVmVendor = javaVmVendor;
+    copy.javaVendorVersion = javaVendorVersion;
+    copy.jvmHeapGcDetails = jvmHeapGcDetails;
+    copy.systemOsName = systemOsName;
+    copy.systemOsVersion = systemOsVersion;
+    copy.osArch = osArch;
+    copy.workload = workload;
+    return copy;
+  }
+
+  /**
+   * The SHA-256 of the values, the key of the profile. The same hash is computed in SQL by the
+   * migration that created the table, the two must stay in line.
+   */
+  public Digest computeProfileHash() {
+    var values =
+        String.join(
+            SEPARATOR,
+            Objects.toString(vendor, ""),
+            Objects.toString(versionString, ""),
+            Objects.toString(javaVmName, ""),
+            Objects.toString(javaVmVendor, ""),
+            Objects.toString(javaVendorVersion, ""),
+            Objects.toString(jvmHeapGcDetails, ""),
+            Objects.toString(systemOsName, ""),
+            Objects.toString(systemOsVersion, ""),
+            Objects.toString(osArch, ""),
+            Objects.toString(workload, ""));
+    return Digest.sha256(values);
+  }
+
+  @PrePersist
+  void computeProfileHashIfMissing() {
+    if (profileHash == null) {
+      profileHash = computeProfileHash();
+    }
+  }
+
+  public Integer getId() {
+    return id;
+  }
+
+  public Digest getProfileHash() {
+    return profileHash;
+  }
+
+  public String getVendor() {
+    return vendor;
+  }
+
+  public String getVersionString() {
+    return versionString;
+  }
+
+  public String getJavaVmName() {
+    return javaVmName;
+  }
+
+  public String getJavaVmVendor() {
+    return javaVmVendor;
+  }
+
+  public String getJavaVendorVersion() {
+    return javaVendorVersion;
+  }
+
+  public String getJvmHeapGcDetails() {
+    return jvmHeapGcDetails;
+  }
+
+  public String getSystemOsName() {
+    return systemOsName;
+  }
+
+  public String getSystemOsVersion() {
+    return systemOsVersion;
+  }
+
+  public String getOsArch() {
+    return osArch;
+  }
+
+  public String getWorkload() {
+    return workload;
+  }
+
+  @Override
+  public String toString() {
+    return "RuntimeProfile{id="
+        + id
+        + ", vendor='"
+        + vendor
+        + "', versionString='"
+        + versionString
+        + "', systemOsName='"
+        + systemOsName
+        + "', osArch='"
+        + osArch
+        + "', workload='"
+        + workload
+        + "'}";
+  }
+}
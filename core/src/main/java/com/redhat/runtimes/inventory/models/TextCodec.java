@@ -0,0 +1,190 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.models;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import org.eclipse.microprofile.config.ConfigProvider;
+
+/**
+ * Codecs used to store large text columns as bytea. The first byte of every stored value identifies
+ * the codec that wrote it, so the codec used for writing can be changed at any time without
+ * rewriting existing rows.
+ */
+public enum TextCodec {
+  /** No compression, the UTF-8 bytes are stored as is. */
+  PLAIN((byte) 0) {
+    @Override
+    void compress(byte[] utf8, ByteArrayOutputStream out) {
+      out.write(utf8, 0, utf8.length);
+    }
+
+    @Override
+    byte[] decompress(byte[] data, int offset, int length) {
+      var out = new byte[length];
+      System.arraycopy(data, offset, out, 0, length);
+      return out;
+    }
+  },
+
+  GZIP((byte) 1) {
+    @Override
+    void compress(byte[] utf8, ByteArrayOutputStream out) throws IOException {
+      try (var gzip = new GZIPOutputStream(out, BUFFER_SIZE)) {
+        gzip.write(utf8);
+      }
+    }
+
+    @Override
+    byte[] decompress(byte[] data, int offset, int length) throws IOException {
+      try (var gunzip =
+          new GZIPInputStream(new ByteArrayInputStream(data, offset, length), BUFFER_SIZE)) {
+        return gunzip.readAllBytes();
+      }
+    }
+  },
+
+  /**
+   * Deflate primed with a preset dictionary of substrings that show up in nearly every report (JDK
+   * and EAP paths, jar names, JSON keys of the EAP configuration dumps). This mostly pays off on
+   * short values, where gzip has no history to find matches in.
+   */
+  DEFLATE_DICTIONARY((byte) 2) {
+    @Override
+    void compress(byte[] utf8, ByteArrayOutputStream out) throws IOException {
+      var deflater = new Deflater();
+      try {
+        deflater.setDictionary(Dictionary.BYTES);
+        try (var deflate = new DeflaterOutputStream(out, deflater, BUFFER_SIZE)) {
+          deflate.write(utf8);
+        }
+      } finally {
+        deflater.end();
+      }
+    }
+
+    @Override
+    byte[] decompress(byte[] data, int offset, int length) throws IOException {
+      var inflater = new Inflater();
+      try {
+        inflater.setInput(data, offset, length);
+        var out = new ByteArrayOutputStream(length * 4);
+        var buffer = new byte[BUFFER_SIZE];
+        while (!inflater.finished()) {
+          int n = inflater.inflate(buffer);
+          if (n == 0) {
+            if (inflater.needsDictionary()) {
+              inflater.setDictionary(Dictionary.BYTES);
+            } else if (!inflater.finished() && inflater.needsInput()) {
+              throw new IOException("Truncated deflate stream");
+            }
+          }
+          out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+      } catch (DataFormatException e) {
+        throw new IOException(e);
+      } finally {
+        inflater.end();
+      }
+    }
+  };
+
+  public static final String CONFIG_KEY = "inventory.storage.text-codec";
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private final byte id;
+
+  TextCodec(byte id) {
+    this.id = id;
+  }
+
+  abstract void compress(byte[] utf8, ByteArrayOutputStream out) throws IOException;
+
+  abstract byte[] decompress(byte[] data, int offset, int length) throws IOException;
+
+  /** Encodes the text, prefixed with the id of this codec. */
+  public byte[] encode(String text) {
+    var utf8 = text.getBytes(UTF_8);
+    var out = new ByteArrayOutputStream(this == PLAIN ? utf8.length + 1 : utf8.length / 4 + 64);
+    out.write(id);
+    try {
+      compress(utf8, out);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out.toByteArray();
+  }
+
+  /** Decodes a value written by {@link #encode(String)} of any codec. */
+  public static String decode(byte[] stored) {
+    if (stored.length == 0) {
+      throw new IllegalArgumentException("Encoded text is missing its codec id");
+    }
+    var codec = forId(stored[0]);
+    try {
+      return new String(codec.decompress(stored, 1, stored.length - 1), UTF_8);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not decode " + codec + " text", e);
+    }
+  }
+
+  static TextCodec forId(byte id) {
+    for (var codec : values()) {
+      if (codec.id == id) {
+        return codec;
+      }
+    }
+    throw new IllegalArgumentException("Unknown text codec id: " + id);
+  }
+
+  /** The codec new values are written with, from {@value #CONFIG_KEY} (gzip by default). */
+  public static TextCodec configured() {
+    return ConfigProvider.getConfig()
+        .getOptionalValue(CONFIG_KEY, String.class)
+        .map(name -> valueOf(name.trim().replace('-', '_').toUpperCase(Locale.ROOT)))
+        .orElse(GZIP);
+  }
+
+  // Kept in a holder so that the dictionary is only built when the codec is actually used
+  private static final class Dictionary {
+    // Deflate prefers the closest match, so the most common substrings go last
+    static final byte[] BYTES =
+        String.join(
+                "",
+                "\"interface\":{\"management\":{\"inet-address\":\"${jboss.bind.address.management:",
+                "127.0.0.1}\"},\"public\":{\"inet-address\":\"${jboss.bind.address:127.0.0.1}\"}}",
+                "\"socket-binding\":{\"ajp\":{\"port\":\"${jboss.ajp.port:8009}\"},\"http\":{",
+                "\"port\":\"${jboss.http.port:8080}\"},\"https\":{\"port\":\"${jboss.https.port:",
+                "8443}\"},\"management-http\":{\"interface\":\"management\",\"port\":",
+                "\"${jboss.management.http.port:9990}\"},\"management-https\":{\"interface\":",
+                "\"management\",\"port\":\"${jboss.management.https.port:9993}\"},\"txn-",
+                "recovery-environment\":{\"port\":4712},\"txn-status-manager\":{\"port\":4713}}",
+                "\"default-interface\":\"public\",\"port-offset\":\"${jboss.socket.binding.",
+                "port-offset:0}\",\"name\":\"standard-sockets\"",
+                "\"path\":{\"jboss.server.temp.dir\":{\"path\":\"",
+                "\"jboss.server.log.dir\":{\"path\":\"\"jboss.server.data.dir\":{\"path\":\"",
+                "\"jboss.server.config.dir\":{\"path\":\"\"jboss.home.dir\":{\"path\":\"",
+                "\"read-only\":true,\"relative-to\":null},\"core-service\":{",
+                "\"management\":{\"management-interface\":{\"http-interface\":{",
+                "org.jboss.as.,org.wildfly.extension.,org.jboss.modules.,io.undertow.,",
+                "org.hibernate.,org.apache.,io.quarkus.,io.netty.,com.fasterxml.jackson.,",
+                "java.base,java.logging,java.management,java.naming,java.sql,jdk.unsupported,",
+                "/usr/lib/jvm/java-17-openjdk/lib/:/usr/lib/jvm/java-11-openjdk/lib/:",
+                "/opt/jboss-eap-7.4/jboss-modules.jar:/opt/eap/jboss-modules.jar:",
+                "/deployments/lib/main/:/deployments/quarkus-run.jar:/deployments/app.jar:",
+                "-SNAPSHOT.jar:.Final-redhat-00001.jar:.Final.jar:.jar:")
+            .getBytes(UTF_8);
+  }
+}
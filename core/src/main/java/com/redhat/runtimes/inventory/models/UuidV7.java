@@ -0,0 +1,19 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.models;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import org.hibernate.annotations.IdGeneratorType;
+
+/**
+ * Generates the id with the {@link UuidV7Generator}: new rows are appended at the end of the
+ * primary key index instead of at a random place. Replaces {@code @GeneratedValue}.
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Target({FIELD, METHOD})
+@Retention(RUNTIME)
+public @interface UuidV7 {}
@@ -0,0 +1,88 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.models;
+
+import java.lang.reflect.Member;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.Random;
+import java.util.UUID;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+/**
+ * Time-ordered version 7 UUIDs (RFC 9562): 48 bits of Unix milliseconds, a 12 bit counter for the
+ * ids of the same millisecond, then 62 random bits. The ids of this process are strictly
+ * increasing, if the clock goes back the last timestamp is kept until the clock catches up.
+ *
+ * <p>They are ordinary UUIDs, so they go in the same columns as the random ones of the existing
+ * rows. The old rows just don't get the benefit of the ordering.
+ */
+public class UuidV7Generator implements IdentifierGenerator {
+  private static final int COUNTER_BITS = 12;
+  private static final int MAX_COUNTER = (1 << COUNTER_BITS) - 1;
+
+  private static final UuidV7Generator SHARED =
+      new UuidV7Generator(Clock.systemUTC(), new SecureRandom());
+
+  private final Clock clock;
+  private final Random random;
+  private long lastMillis = -1;
+  private int counter;
+
+  UuidV7Generator(Clock clock, Random random) {
+    this.clock = clock;
+    this.random = random;
+  }
+
+  // The constructor used by Hibernate for @UuidV7
+  public UuidV7Generator(
+      UuidV7 config, Member idMember, CustomIdGeneratorCreationContext creationContext) {
+    this(SHARED.clock, SHARED.random);
+  }
+
+  /** A new id, for the rows that are not inserted by Hibernate. */
+  public static UUID newUuid() {
+    return SHARED.next();
+  }
+
+  // All the entities share one sequence, so that ids are ordered across tables too
+  @Override
+  public Object generate(SharedSessionContractImplementor session, Object object) {
+    return SHARED.next();
+  }
+
+  UUID next() {
+    long millis;
+    int count;
+    // The random bits are drawn outside of the lock, SecureRandom has its own
+    long randomBits = random.nextLong();
+    synchronized (this) {
+      var now = clock.millis();
+      if (now > lastMillis) {
+        lastMillis = now;
+        // Starting the counter at a random value in the lower half keeps room for the increments
+        counter = random.nextInt(1 << (COUNTER_BITS - 1));
+      } else if (counter < MAX_COUNTER) {
+        counter++;
+      } else {
+        // The counter is exhausted, borrow the next millisecond
+        lastMillis++;
+        counter = 0;
+      }
+      millis = lastMillis;
+      count = counter;
+    }
+    long msb = (millis << 16) | (0x7L << 12) | count;
+    long lsb = (randomBits & 0x3FFF_FFFF_FFFF_FFFFL) | 0x8000_0000_0000_0000L;
+    return new UUID(msb, lsb);
+  }
+
+  /** The Unix milliseconds of a version 7 UUID. */
+  public static long millisOf(UUID uuid) {
+    if (uuid.version() != 7) {
+      throw new IllegalArgumentException("Not a version 7 UUID: " + uuid);
+    }
+    return uuid.getMostSignificantBits() >>> 16;
+  }
+}
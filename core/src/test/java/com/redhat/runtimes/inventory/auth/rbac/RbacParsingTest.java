@@ -1,4 +1,4 @@
-/* Copyright (C) Red Hat 2023 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.runtimes.inventory.auth.rbac;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -7,6 +7,8 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -105,6 +107,22 @@ class RbacParsingTest {
     Assertions.assertTrue(rbac.canDo("integrations", "admin", "execute"));
   }
 
+  @Test
+  void testMalformedPermission() {
+    // Like the original linear scan, entries after a malformed one are ignored
+    RbacPermissions permissions =
+        RbacPermissions.of(
+            List.of(
+                Map.of("permission", "inventory:hosts:read"),
+                Map.of("permission", "inventory:hosts"),
+                Map.of("permission", "inventory:hosts:write")));
+
+    Assertions.assertTrue(permissions.canRead("inventory", "hosts"));
+    Assertions.assertFalse(permissions.canWrite("inventory", "hosts"));
+    Assertions.assertFalse(permissions.canRead(null, "hosts"));
+    Assertions.assertFalse(permissions.canRead("inventory", null));
+  }
+
   private RbacRaw readValueFromFile(String fileName) throws IOException {
     try (InputStream is = new FileInputStream(new File(BASE + fileName))) {
       return RBAC_RAW_READER.readValue(is);
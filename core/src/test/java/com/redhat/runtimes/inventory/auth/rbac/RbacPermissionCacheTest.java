@@ -0,0 +1,170 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.auth.rbac;
+
+import static com.redhat.runtimes.inventory.auth.rbac.RbacPermissionCache.CIRCUIT_OPEN_GAUGE_NAME;
+import static com.redhat.runtimes.inventory.auth.rbac.RbacPermissionCache.CIRCUIT_REJECTED_COUNTER_NAME;
+import static com.redhat.runtimes.inventory.auth.rbac.RbacPermissionCache.NEGATIVE_SERVED_COUNTER_NAME;
+import static com.redhat.runtimes.inventory.auth.rbac.RbacPermissionCache.STALE_SERVED_COUNTER_NAME;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Uni;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RbacPermissionCacheTest {
+
+  private final List<CompletableFuture<RbacRaw>> calls = new ArrayList<>();
+  private final AtomicLong nanos = new AtomicLong();
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private RbacPermissionCache cache;
+
+  @BeforeEach
+  void setUp() {
+    cache = new RbacPermissionCache();
+    cache.rbacServer =
+        (application, rhIdentity) -> {
+          var call = new CompletableFuture<RbacRaw>();
+          synchronized (calls) {
+            calls.add(call);
+          }
+          return Uni.createFrom().completionStage(call);
+        };
+    cache.registry = registry;
+    cache.refreshAfter = Duration.ofSeconds(60);
+    cache.expireAfter = Duration.ofSeconds(120);
+    cache.negativeExpireAfter = Duration.ofSeconds(10);
+    cache.staleWindow = Duration.ofMinutes(10);
+    cache.maxSize = 100;
+    cache.maxRetryAttempts = 1;
+    cache.initialBackOff = Duration.ofMillis(1);
+    cache.maxBackOff = Duration.ofMillis(1);
+    cache.failureThreshold = 2;
+    cache.circuitBreakerDelay = Duration.ofMinutes(1);
+    cache.ticker = nanos::get;
+    cache.init();
+  }
+
+  @Test
+  void testSingleFlight() {
+    var first = cache.get("identity").subscribeAsCompletionStage();
+    var second = cache.get("identity").subscribeAsCompletionStage();
+    assertEquals(1, calls.size());
+
+    calls.get(0).complete(rbac("inventory:hosts:read"));
+    assertTrue(first.join().canRead("inventory", "hosts"));
+    assertTrue(second.join().canRead("inventory", "hosts"));
+    assertEquals(1, calls.size());
+  }
+
+  @Test
+  void testRefreshAhead() {
+    load("identity", rbac("inventory:hosts:read"));
+
+    advance(Duration.ofSeconds(90));
+    // Served from the current entry while the refresh is in flight
+    assertTrue(get("identity").canRead("inventory", "hosts"));
+    assertTrue(get("identity").canRead("inventory", "hosts"));
+    assertEquals(2, calls.size());
+
+    calls.get(1).complete(rbac("inventory:hosts:write"));
+    assertFalse(get("identity").canRead("inventory", "hosts"));
+    assertTrue(get("identity").canWrite("inventory", "hosts"));
+  }
+
+  @Test
+  void testStaleWhileRbacIsDown() {
+    load("identity", rbac("inventory:hosts:read"));
+
+    advance(Duration.ofSeconds(150));
+    var result = cache.get("identity").subscribeAsCompletionStage();
+    assertFalse(result.isDone());
+    failUntilDone(result);
+    assertTrue(result.join().canRead("inventory", "hosts"));
+    assertEquals(1, registry.counter(STALE_SERVED_COUNTER_NAME).count());
+
+    // Past the stale window, the failure surfaces
+    advance(Duration.ofMinutes(10));
+    result = cache.get("identity").subscribeAsCompletionStage();
+    failUntilDone(result);
+    assertThrows(Exception.class, result::join);
+  }
+
+  @Test
+  void testNegativeCaching() {
+    load("identity", rbac());
+    assertFalse(get("identity").canRead("inventory", "hosts"));
+    assertEquals(1, calls.size());
+    assertEquals(2, registry.counter(NEGATIVE_SERVED_COUNTER_NAME).count());
+
+    // Denied identities are asked for again after the shorter negative expiry
+    advance(Duration.ofSeconds(11));
+    var result = cache.get("identity").subscribeAsCompletionStage();
+    assertEquals(2, calls.size());
+    calls.get(1).complete(rbac("inventory:hosts:read"));
+    assertTrue(result.join().canRead("inventory", "hosts"));
+  }
+
+  @Test
+  void testCircuitBreaker() {
+    for (var identity : List.of("a", "b")) {
+      var result = cache.get(identity).subscribeAsCompletionStage();
+      failUntilDone(result);
+      assertThrows(Exception.class, result::join);
+    }
+    assertEquals(1.0, registry.get(CIRCUIT_OPEN_GAUGE_NAME).gauge().value());
+
+    // RBAC isn't called (nor retried) while the circuit is open
+    var calledBefore = calls.size();
+    assertThrows(Exception.class, () -> get("c"));
+    assertEquals(calledBefore, calls.size());
+    assertEquals(1, registry.counter(CIRCUIT_REJECTED_COUNTER_NAME).count());
+  }
+
+  private void load(String identity, RbacRaw rbac) {
+    var result = cache.get(identity).subscribeAsCompletionStage();
+    calls.get(calls.size() - 1).complete(rbac);
+    result.join();
+  }
+
+  private RbacPermissions get(String identity) {
+    return cache.get(identity).await().indefinitely();
+  }
+
+  // Fails the RBAC calls, including the retries, until the result is done
+  private void failUntilDone(CompletableFuture<?> result) {
+    long deadline = System.currentTimeMillis() + 5000;
+    while (!result.isDone()) {
+      synchronized (calls) {
+        calls.forEach(call -> call.completeExceptionally(new IOException("RBAC is down")));
+      }
+      if (System.currentTimeMillis() > deadline) {
+        throw new AssertionError("Timed out");
+      }
+      Thread.onSpinWait();
+    }
+  }
+
+  private void advance(Duration duration) {
+    nanos.addAndGet(duration.toNanos());
+  }
+
+  private static RbacRaw rbac(String... permissions) {
+    var rbac = new RbacRaw();
+    rbac.data = new ArrayList<>();
+    for (var permission : permissions) {
+      rbac.data.add(Map.of("permission", permission));
+    }
+    return rbac;
+  }
+}
@@ -0,0 +1,116 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.jfr;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import jakarta.ws.rs.ClientErrorException;
+import jakarta.ws.rs.ForbiddenException;
+import jakarta.ws.rs.NotAuthorizedException;
+import jakarta.ws.rs.NotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class JfrRecordingResourceTest {
+  private static final String BEARER = "Bearer s3cr3t";
+
+  @TempDir Path dir;
+
+  private final JfrRecordingResource resource = new JfrRecordingResource();
+
+  @BeforeEach
+  void setUp() {
+    resource.token = Optional.of("s3cr3t");
+    resource.directory = Optional.of(dir.toString());
+    resource.maxDuration = Duration.ofMinutes(1);
+    resource.maxSize = 10_000_000;
+    resource.maxFiles = 3;
+  }
+
+  @Test
+  public void testRecordingHasTheIdsOfTheRequest() throws Exception {
+    assertEquals("NONE", resource.status(null, BEARER).get("state"));
+    assertEquals("RUNNING", resource.start(null, BEARER, "PT10M").get("state"));
+    assertThrows(ClientErrorException.class, () -> resource.start(null, BEARER, null));
+
+    try (var outer = RequestContext.bind("request-1", "org-1")) {
+      try (var inner = RequestContext.bind(null, "org-2")) {
+        emit("inner");
+      }
+      emit("outer");
+    }
+    emit("none");
+
+    var stopped = resource.stop(null, BEARER);
+    // A recording with a destination is closed once it is written
+    assertEquals("CLOSED", stopped.get("state"));
+    assertThrows(ClientErrorException.class, () -> resource.stop(null, BEARER));
+
+    var events =
+        RecordingFile.readAllEvents(Path.of((String) stopped.get("file"))).stream()
+            .filter(e -> e.getEventType().getName().equals("com.redhat.runtimes.inventory.Message"))
+            .toList();
+    assertEquals(3, events.size());
+    assertEquals("inner", events.get(0).getString("flow"));
+    assertNull(events.get(0).getString("requestId"));
+    assertEquals("org-2", events.get(0).getString("orgId"));
+    assertEquals("request-1", events.get(1).getString("requestId"));
+    assertEquals("org-1", events.get(1).getString("orgId"));
+    assertNull(events.get(2).getString("orgId"));
+  }
+
+  @Test
+  public void testRequestsWithAnIdentityAreRefused() {
+    assertThrows(ForbiddenException.class, () -> resource.status("eyJpZGVudGl0eSI6e319", BEARER));
+    assertThrows(
+        ForbiddenException.class, () -> resource.start("eyJpZGVudGl0eSI6e319", BEARER, null));
+    assertEquals("NONE", resource.status(null, BEARER).get("state"));
+  }
+
+  @Test
+  public void testRequestsNeedTheToken() {
+    assertThrows(NotAuthorizedException.class, () -> resource.status(null, null));
+    assertThrows(NotAuthorizedException.class, () -> resource.start(null, "Bearer guess", null));
+    assertThrows(NotAuthorizedException.class, () -> resource.stop(null, "s3cr3t"));
+
+    // Not served at all without a token
+    resource.token = Optional.empty();
+    assertThrows(NotFoundException.class, () -> resource.status(null, BEARER));
+    assertThrows(NotFoundException.class, () -> resource.start(null, BEARER, null));
+  }
+
+  @Test
+  public void testOnlyTheLastRecordingsAreKept() throws Exception {
+    for (long started = 1000; started < 5000; started += 1000) {
+      Files.writeString(dir.resolve(JfrRecordingResource.FILE_PREFIX + started + ".jfr"), "");
+    }
+    Files.writeString(dir.resolve("other.jfr"), "");
+
+    resource.start(null, BEARER, "PT1M");
+    var file = Path.of((String) resource.stop(null, BEARER).get("file"));
+
+    try (var files = Files.list(dir)) {
+      assertEquals(
+          Set.of(
+              JfrRecordingResource.FILE_PREFIX + "3000.jfr",
+              JfrRecordingResource.FILE_PREFIX + "4000.jfr",
+              file.getFileName().toString(),
+              "other.jfr"),
+          files.map(f -> f.getFileName().toString()).collect(Collectors.toSet()));
+    }
+  }
+
+  private static void emit(String flow) {
+    var event = new MessageEvent();
+    event.begin();
+    event.flow = flow;
+    event.emit();
+  }
+}
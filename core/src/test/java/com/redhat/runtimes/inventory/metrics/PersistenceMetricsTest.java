@@ -0,0 +1,89 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.metrics;
+
+import static com.redhat.runtimes.inventory.metrics.PersistenceMetrics.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PersistenceMetricsTest {
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final PersistenceMetrics metrics = new PersistenceMetrics();
+
+  @BeforeEach
+  void setUp() {
+    metrics.registry = registry;
+  }
+
+  @Test
+  public void testStatsOfAScope() {
+    try (var scope = metrics.open("ingress")) {
+      PersistenceStats.statementPrepared();
+      PersistenceStats.statementPrepared();
+      PersistenceStats.entityInserted();
+      PersistenceStats.collectionLoaded();
+      PersistenceStats.flushStarted();
+      // A nested flush is part of the outer one
+      PersistenceStats.flushStarted();
+      PersistenceStats.flushEnded();
+      PersistenceStats.flushEnded();
+
+      var stats = scope.stats();
+      assertEquals(2, stats.getStatements());
+      assertEquals(1, stats.getEntityInserts());
+      assertEquals(1, stats.getCollectionLoads());
+      assertEquals(1, stats.getFlushes());
+    }
+
+    assertEquals(2, summary(STATEMENTS_NAME, "ingress"));
+    assertEquals(1, summary(ENTITY_INSERTS_NAME, "ingress"));
+    assertEquals(1, summary(COLLECTION_LOADS_NAME, "ingress"));
+    assertEquals(1, registry.get(FLUSH_TIMER_NAME).tags(SOURCE_TAG, "ingress").timer().count());
+  }
+
+  @Test
+  public void testRowsWrittenWithoutHibernateAreCounted() {
+    try (var scope = metrics.open("ingress")) {
+      PersistenceStats.statementPrepared();
+      PersistenceStats.statementsPrepared(2);
+      PersistenceStats.entitiesInserted(300);
+
+      assertEquals(3, scope.stats().getStatements());
+      assertEquals(300, scope.stats().getEntityInserts());
+    }
+    assertEquals(300, summary(ENTITY_INSERTS_NAME, "ingress"));
+  }
+
+  @Test
+  public void testNestedScopesCountForTheOuterOne() {
+    try (var outer = metrics.open("egg")) {
+      PersistenceStats.statementPrepared();
+      try (var inner = metrics.open("DisplayInventory.getJvmInstanceRecord")) {
+        assertNull(inner.stats());
+        PersistenceStats.statementPrepared();
+      }
+      assertEquals(2, outer.stats().getStatements());
+    }
+    assertEquals(2, summary(STATEMENTS_NAME, "egg"));
+    assertNull(registry.find(STATEMENTS_NAME).tags(SOURCE_TAG, "DisplayInventory").summary());
+  }
+
+  @Test
+  public void testNothingIsCountedOutsideOfAScope() {
+    PersistenceStats.statementPrepared();
+    PersistenceStats.entityInserted();
+    assertNull(PersistenceStats.current());
+    try (var scope = metrics.open("ingress")) {
+      assertEquals(0, scope.stats().getStatements());
+    }
+    assertNull(PersistenceStats.current());
+    // Without a flush there is no flush time
+    assertNull(registry.find(FLUSH_TIMER_NAME).timer());
+  }
+
+  private double summary(String name, String source) {
+    return registry.get(name).tags(SOURCE_TAG, source).summary().totalAmount();
+  }
+}
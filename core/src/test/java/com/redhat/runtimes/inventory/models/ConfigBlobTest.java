@@ -0,0 +1,40 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.models;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class ConfigBlobTest {
+  private static final String LOGGING = "{\"logging\":{\"level\":\"INFO\"}}";
+  // sha256 of the UTF-8 text, as computed by the V1_0_11 migration
+  private static final String LOGGING_HASH =
+      "074a1f404c973a88ea261c32f8ccb3a43db1be775f9dfc417f4b594fdbd0aa94";
+
+  @Test
+  public void testTheBlobIsKeyedByTheHashOfItsText() {
+    var blob = ConfigBlob.of(LOGGING);
+    assertEquals(LOGGING_HASH, blob.getHash().toHex());
+    assertEquals(LOGGING, blob.getContent());
+    assertEquals(blob, ConfigBlob.of(new String(LOGGING)));
+    assertNotEquals(blob, ConfigBlob.of("{}"));
+  }
+
+  @Test
+  public void testEqualValuesShareOneBlob() {
+    var contents = new LinkedHashMap<String, String>();
+    contents.put("app.war", "{}");
+    contents.put("logging", LOGGING);
+    contents.put("other.war", "{}");
+
+    var blobs = ConfigBlob.of(contents);
+    assertEquals(List.of("app.war", "logging", "other.war"), List.copyOf(blobs.keySet()));
+    assertSame(blobs.get("app.war"), blobs.get("other.war"));
+    assertEquals(contents, ConfigBlob.contents(blobs));
+    assertNull(ConfigBlob.of((Map<String, String>) null));
+    assertNull(ConfigBlob.contents(null));
+  }
+}
@@ -0,0 +1,59 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.models;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class DetailsPolicyTest {
+
+  @Test
+  public void testOnlyTheValuesOfTheColumnsAreOmitted() {
+    var basic = new HashMap<String, Object>();
+    basic.put("java.vm.name", "OpenJDK 64-Bit Server VM");
+    basic.put("java.home", "/usr/lib/jvm/java-17");
+    // Sanitized in its column
+    basic.put("jvm.args", "[-Djavax.net.ssl.keyStorePassword=secret]");
+    // Not in a column as is
+    basic.put("jvm.heap.min", 1024);
+    basic.put("java.vm.specification.version", "17");
+    basic.put("user.country", "FR");
+    // A column with no value in the report
+    basic.put("java.library.path", "null");
+    var reported = Map.copyOf(basic);
+
+    var inst = new JvmInstance();
+    inst.setJavaVmName("OpenJDK 64-Bit Server VM");
+    inst.setJavaHome("/usr/lib/jvm/java-17");
+    inst.setJvmArgs("[-Djavax.net.ssl.keyStorePassword=****]");
+    inst.setHeapMin(1024);
+    inst.setMajorVersion(17);
+    inst.setJavaLibraryPath("null");
+    inst.setJavaVendor("null");
+    inst.setDetails(basic);
+
+    DetailsPolicy.REMAINDER.apply(inst);
+    assertEquals(
+        Map.of(
+            "jvm.args", "[-Djavax.net.ssl.keyStorePassword=secret]",
+            "jvm.heap.min", 1024,
+            "java.vm.specification.version", "17",
+            "user.country", "FR",
+            "java.library.path", "null"),
+        inst.details);
+    assertEquals(reported, inst.getDetails());
+  }
+
+  @Test
+  public void testTheFullPolicyKeepsEverything() {
+    var basic = new HashMap<String, Object>(Map.of("java.home", "/opt/jdk"));
+    var inst = new JvmInstance();
+    inst.setJavaHome("/opt/jdk");
+    inst.setDetails(basic);
+
+    DetailsPolicy.FULL.apply(inst);
+    assertEquals(Map.of("java.home", "/opt/jdk"), inst.details);
+  }
+}
@@ -0,0 +1,61 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.models;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+public class DigestTest {
+  private static final String SHA1 = "82a8c99551533f4448675f273665cb6d7b750511";
+  private static final String SHA256 =
+      "0c4ba1a3e9a83e1a75d7ff5fc1b6dd5e2e5a5b5d6c9a8e3e7b1c0a9f8e7d6c5b";
+
+  @Test
+  public void testHexRoundTrip() {
+    var digest = Digest.ofHex(SHA1);
+    assertEquals(20, digest.length());
+    assertEquals(SHA1, digest.toHex());
+    assertEquals(SHA1, Digest.ofHex(SHA1.toUpperCase()).toHex());
+    assertEquals(digest, Digest.of(digest.toBytes()));
+    assertEquals(digest.hashCode(), Digest.of(digest.toBytes()).hashCode());
+    assertNotEquals(digest, Digest.ofHex(SHA256));
+  }
+
+  @Test
+  public void testMissingAndMalformedChecksums() {
+    assertSame(Digest.EMPTY, Digest.ofHex(""));
+    assertSame(Digest.EMPTY, Digest.ofHex(null));
+    assertSame(Digest.EMPTY, Digest.of(new byte[0]));
+    assertEquals("", Digest.EMPTY.toHex());
+    assertTrue(Digest.isHex(SHA1));
+    assertTrue(Digest.isHex(""));
+    assertFalse(Digest.isHex("abc"));
+    assertFalse(Digest.isHex("not a checksum"));
+    assertThrows(IllegalArgumentException.class, () -> Digest.ofHex("zz"));
+  }
+
+  @Test
+  public void testJarsAreTheSameWhenTheirContentsAre() {
+    var jar = new JarHash(null, "a.jar", "g", "v", "1.0", SHA1, SHA256, "");
+    var renamed = new JarHash(UUID.randomUUID(), "b.jar", "g", "v", "1.0", "", SHA256, "");
+    assertEquals(jar, renamed);
+    assertEquals(jar.hashCode(), renamed.hashCode());
+    assertEquals(SHA256, renamed.getSha256Checksum());
+
+    // Without a checksum the names and versions are compared
+    var unknown = new JarHash(null, "a.jar", "g", "v", "1.0", "", "", "");
+    var other = new JarHash(null, "a.jar", "g", "v", "2.0", "", "", "");
+    assertNotEquals(unknown, other);
+    assertNotEquals(unknown, jar);
+
+    var jars = new HashSet<JarHash>();
+    jars.add(jar);
+    jars.add(renamed);
+    jars.add(unknown);
+    jars.add(other);
+    jars.add(new JarHash(null, "a.jar", "g", "v", "2.0", "", "", ""));
+    assertEquals(3, jars.size());
+  }
+}
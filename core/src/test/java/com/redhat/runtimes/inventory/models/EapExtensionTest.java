@@ -0,0 +1,56 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.models;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+public class EapExtensionTest {
+  // sha256 of the module and the sorted subsystems, as computed by eap_extension_hash()
+  private static final String HASH =
+      "dbbd31c5e055439fee9944d6b1b06ce5f2d9ef7b889c4cbfb68bc87b8082136c";
+  private static final String HASH_WITHOUT_SUBSYSTEMS =
+      "b4ce3fbcd8bd62d7692794fd2e712d13e85760a866917ab8149191a1c505e3c8";
+
+  @Test
+  public void testTheHashMatchesTheMigration() {
+    var extension =
+        extension("org.jboss.as.logging", subsystem("logging", "8.0.0"), subsystem("jmx", "1.2.0"));
+    assertEquals(HASH, extension.computeContentHash().toHex());
+    assertEquals(
+        HASH_WITHOUT_SUBSYSTEMS, extension("org.jboss.as.ee").computeContentHash().toHex());
+  }
+
+  @Test
+  public void testExtensionsWithTheSameContentAreEqual() {
+    var extension =
+        extension("org.jboss.as.logging", subsystem("logging", "8.0.0"), subsystem("jmx", "1.2.0"));
+    var reordered =
+        extension("org.jboss.as.logging", subsystem("jmx", "1.2.0"), subsystem("logging", "8.0.0"));
+    assertEquals(extension.computeContentHash(), reordered.computeContentHash());
+    assertEquals(extension, reordered);
+    assertTrue(new HashSet<>(Set.of(extension)).contains(reordered));
+
+    var upgraded =
+        extension("org.jboss.as.logging", subsystem("logging", "9.0.0"), subsystem("jmx", "1.2.0"));
+    assertNotEquals(extension, upgraded);
+    assertNotEquals(extension, extension("org.jboss.as.jmx", subsystem("jmx", "1.2.0")));
+  }
+
+  private static EapExtension extension(String module, NameVersionPair... subsystems) {
+    var extension = new EapExtension();
+    extension.setModule(module);
+    extension.setSubsystems(new LinkedHashSet<>(Set.of(subsystems)));
+    return extension;
+  }
+
+  private static NameVersionPair subsystem(String name, String version) {
+    var subsystem = new NameVersionPair();
+    subsystem.setName(name);
+    subsystem.setVersion(version);
+    return subsystem;
+  }
+}
@@ -1,9 +1,11 @@
-/* Copyright (C) Red Hat 2023 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.runtimes.inventory.models;
 
 import static com.redhat.runtimes.inventory.models.InsightsMessage.REDACTED_VALUE;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.util.ArrayList;
+import java.util.Random;
 import org.junit.jupiter.api.Test;
 
 public class InsightsMessageTest {
@@ -74,4 +76,116 @@ public class InsightsMessageTest {
 
     assertEquals(sanitizedJvmArgs, InsightsMessage.sanitizeJavaParameters(sanitizedJvmArgs));
   }
+
+  // Fragments the generated parameters are made of, biased towards the characters the tokenizer
+  // treats specially
+  private static final String[] FRAGMENTS = {
+    " ",
+    " ",
+    "=",
+    "\\",
+    "'",
+    "\"",
+    ",",
+    "]",
+    "[",
+    "-D",
+    "-D",
+    "-X",
+    "a",
+    "b.c",
+    "{",
+    "}",
+    ":",
+    "-Dkey=",
+    "value",
+    "/opt/jboss",
+    "\t"
+  };
+
+  // The sanitizer is a single pass rewrite of this tokenizing implementation, for every input they
+  // have to produce the same output
+  @Test
+  public void testSanitizeJavaParametersMatchesTokenizingImplementation() {
+    var random = new Random(20231031L);
+    for (int i = 0; i < 50_000; i++) {
+      var parameters = new StringBuilder();
+      int fragments = random.nextInt(40);
+      for (int j = 0; j < fragments; j++) {
+        parameters.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+      }
+      var input = parameters.toString();
+      assertEquals(
+          tokenizingSanitize(input),
+          InsightsMessage.sanitizeJavaParameters(input),
+          () -> "Sanitizing <" + input + ">");
+    }
+  }
+
+  static String tokenizingSanitize(final String parameters) {
+    final StringBuilder out = new StringBuilder();
+    for (final String token : tokenize(parameters)) {
+      if (token.startsWith("-D") && token.contains("=")) {
+        String[] parts = token.split("=", 2);
+        out.append(parts[0]);
+        out.append(REDACTED_VALUE);
+        if (token.endsWith(",")) {
+          out.append(',');
+        }
+        if (token.endsWith("]")) {
+          out.append(']');
+        }
+      } else {
+        out.append(token);
+      }
+      out.append(" ");
+    }
+    out.deleteCharAt(out.length() - 1);
+    return out.toString();
+  }
+
+  private static String[] tokenize(final String parameters) {
+    final ArrayList<String> tokens = new ArrayList<String>();
+    StringBuilder currentWord = new StringBuilder();
+    Character currentQuote = null;
+    boolean escaping = false;
+    boolean afterEquals = false;
+    for (final char c : parameters.toCharArray()) {
+      if (c == '\\' && !escaping) {
+        escaping = true;
+        currentWord.append(c);
+        continue;
+      }
+      if (escaping) {
+        escaping = false;
+        currentWord.append(c);
+        continue;
+      }
+      if (c == '=') {
+        afterEquals = true;
+        currentWord.append(c);
+        continue;
+      }
+      if (currentQuote == null && c == ' ') {
+        tokens.add(currentWord.toString());
+        currentWord = new StringBuilder();
+        continue;
+      }
+      if (c == '\'' || c == '"') {
+        if (currentQuote != null) {
+          if (c == currentQuote) {
+            currentQuote = null;
+          }
+        } else {
+          if (afterEquals || currentWord.isEmpty()) {
+            currentQuote = c;
+          }
+        }
+      }
+      afterEquals = false;
+      currentWord.append(c);
+    }
+    tokens.add(currentWord.toString());
+    return tokens.toArray(new String[0]);
+  }
 }
@@ -0,0 +1,125 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.models;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.spi.QueryOptions;
+import org.hibernate.query.sqm.internal.QuerySqmImpl;
+import org.hibernate.query.sqm.tree.select.SqmSelectStatement;
+import org.hibernate.sql.exec.spi.JdbcParameterBindings;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The SQL Hibernate generates for the queries on the instances, without a database: the JVM-only
+ * paths must read jvm_instance alone.
+ */
+public class JvmInstanceQueryPlanTest {
+  private static SessionFactoryImplementor sessionFactory;
+
+  @BeforeAll
+  static void setUp() {
+    var registry =
+        new StandardServiceRegistryBuilder()
+            .applySetting("hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect")
+            .applySetting("hibernate.boot.allow_jdbc_metadata_access", "false")
+            .applySetting("jakarta.persistence.validation.mode", "none")
+            .applySetting(
+                "hibernate.physical_naming_strategy",
+                SnakeCasePhysicalNamingStrategy.class.getName())
+            .build();
+    var sources = new MetadataSources(registry);
+    for (var entity :
+        new Class<?>[] {
+          JvmInstance.class,
+          JvmOnlyInstance.class,
+          RuntimeProfile.class,
+          EapInstance.class,
+          EapInstanceRaw.class,
+          EapConfiguration.class,
+          EapDeployment.class,
+          EapExtension.class,
+          ConfigBlob.class,
+          JarHash.class
+        }) {
+      sources.addAnnotatedClass(entity);
+    }
+    sessionFactory = (SessionFactoryImplementor) sources.buildMetadata().buildSessionFactory();
+  }
+
+  @AfterAll
+  static void tearDown() {
+    sessionFactory.close();
+  }
+
+  @Test
+  public void testJvmOnlyQueriesDoNotJoinEapInstance() {
+    for (var query :
+        new String[] {
+          "SELECT ri from JvmOnlyInstance ri where ri.linkingHash = ?1",
+          "SELECT i.id FROM JvmOnlyInstance i WHERE i.orgId = :orgId and i.hostname = :hostname"
+              + " ORDER BY i.created desc",
+          "SELECT i FROM JvmOnlyInstance i WHERE i.orgId = :orgId AND i.hostname = :hostname"
+              + " ORDER BY i.created desc"
+        }) {
+      var sql = sqlOf(query);
+      assertTrue(sql.contains(" from jvm_instance "), sql);
+      assertFalse(sql.contains("eap_instance"), sql);
+      assertFalse(sql.contains(" join "), sql);
+    }
+  }
+
+  @Test
+  public void testPolymorphicQueriesUseTheDiscriminator() {
+    var sql = sqlOf("SELECT i FROM JvmInstance i WHERE i.orgId = :orgId");
+    // The EAP columns still need the join, but not the type of the instance
+    assertTrue(sql.contains("left join eap_instance"), sql);
+    assertTrue(sql.contains(".instance_type"), sql);
+    assertFalse(sql.contains("case when"), sql);
+
+    sql = sqlOf("SELECT i FROM EapInstance i WHERE i.orgId = :orgId");
+    assertTrue(sql.contains(" from eap_instance "), sql);
+    assertTrue(sql.contains(" join jvm_instance "), sql);
+  }
+
+  @Test
+  public void testDiscriminatorValues() {
+    var metamodel = sessionFactory.getMappingMetamodel();
+    assertEquals(
+        JvmInstance.JVM_TYPE,
+        metamodel.getEntityDescriptor(JvmInstance.class).getDiscriminatorValue());
+    assertEquals(
+        JvmInstance.EAP_TYPE,
+        metamodel.getEntityDescriptor(EapInstance.class).getDiscriminatorValue());
+  }
+
+  private static String sqlOf(String hql) {
+    try (var session = sessionFactory.openSession()) {
+      var query = (QuerySqmImpl<?>) session.createQuery(hql);
+      var translation =
+          sessionFactory
+              .getQueryEngine()
+              .getSqmTranslatorFactory()
+              .createSelectTranslator(
+                  (SqmSelectStatement<?>) query.getSqmStatement(),
+                  QueryOptions.NONE,
+                  query.getDomainParameterXref(),
+                  query.getParameterBindings(),
+                  query.getLoadQueryInfluencers(),
+                  sessionFactory,
+                  false)
+              .translate();
+      return sessionFactory
+          .getJdbcServices()
+          .getJdbcEnvironment()
+          .getSqlAstTranslatorFactory()
+          .buildSelectTranslator(sessionFactory, translation.getSqlAst())
+          .translate(JdbcParameterBindings.NO_BINDINGS, QueryOptions.NONE)
+          .getSqlString();
+    }
+  }
+}
@@ -0,0 +1,77 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.models;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class RuntimeProfileTest {
+  // sha256 of the values joined by \x1f, as computed by runtime_profile_hash() in the migration
+  private static final String HASH =
+      "40dbca9ed6170d628b8a4798a7e678de79896b2069eefa1e5835683082481e82";
+  private static final String HASH_WITHOUT_VENDOR_VERSION =
+      "9e07f201ee7ce8b2daf218a08ce343b9d218df9b0dc23505db5e4e296297407e";
+
+  @Test
+  public void testTheHashMatchesTheMigration() {
+    var inst = newInstance();
+    assertEquals(HASH, inst.getRuntimeProfile().computeProfileHash().toHex());
+
+    // A missing value hashes like an empty one
+    inst.setJavaVendorVersion(null);
+    assertEquals(
+        HASH_WITHOUT_VENDOR_VERSION, inst.getRuntimeProfile().computeProfileHash().toHex());
+    inst.setJavaVendorVersion("");
+    assertEquals(
+        HASH_WITHOUT_VENDOR_VERSION, inst.getRuntimeProfile().computeProfileHash().toHex());
+  }
+
+  @Test
+  public void testInstancesWithTheSameAttributesHaveTheSameProfile() {
+    var inst = newInstance();
+    var other = newInstance();
+    other.setHostname("another-host");
+    other.setProcessors(64);
+    assertEquals(
+        inst.getRuntimeProfile().computeProfileHash(),
+        other.getRuntimeProfile().computeProfileHash());
+
+    other.setWorkload("Quarkus");
+    assertNotEquals(
+        inst.getRuntimeProfile().computeProfileHash(),
+        other.getRuntimeProfile().computeProfileHash());
+  }
+
+  @Test
+  public void testAStoredProfileIsNotChangedByAnInstance() {
+    var stored = newInstance().getRuntimeProfile();
+    stored.id = 1;
+    var inst = new JvmInstance();
+    inst.setRuntimeProfile(stored);
+    var other = new JvmInstance();
+    other.setRuntimeProfile(stored);
+
+    inst.setOsArch("aarch64");
+    assertEquals("aarch64", inst.getOsArch());
+    assertNull(inst.getRuntimeProfile().getId());
+    assertEquals("Linux", inst.getSystemOsName());
+    // The shared profile is left as it was
+    assertSame(stored, other.getRuntimeProfile());
+    assertEquals("amd64", stored.getOsArch());
+    assertEquals("amd64", other.getOsArch());
+  }
+
+  private static JvmInstance newInstance() {
+    var inst = new JvmInstance();
+    inst.setVendor("Oracle Corporation");
+    inst.setVersionString("17.0.1+12");
+    inst.setJavaVmName("OpenJDK 64-Bit Server VM");
+    inst.setJavaVmVendor("Red Hat, Inc.");
+    inst.setJavaVendorVersion("(Red_Hat-17.0.1.0.12-1)");
+    inst.setJvmHeapGcDetails("G1");
+    inst.setSystemOsName("Linux");
+    inst.setSystemOsVersion("6.0");
+    inst.setOsArch("amd64");
+    return inst;
+  }
+}
@@ -0,0 +1,50 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.models;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class TextCodecTest {
+
+  private static final String CLASS_PATH =
+      "/opt/jboss-eap-7.4/jboss-modules.jar:/deployments/lib/main/io.quarkus.quarkus-core-3.2.6"
+          + ".Final.jar:/deployments/lib/main/io.quarkus.quarkus-arc-3.2.6.Final.jar:"
+          + "/deployments/lib/main/io.netty.netty-codec-4.1.97.Final.jar:/deployments/app.jar";
+
+  @Test
+  public void testRoundTrip() {
+    for (var codec : TextCodec.values()) {
+      for (var text : new String[] {"", "x", CLASS_PATH, "Grüße, ☕ {\"a\":[1,2]}"}) {
+        assertEquals(text, TextCodec.decode(codec.encode(text)), codec.name());
+      }
+    }
+  }
+
+  @Test
+  public void testAnyCodecCanBeDecoded() {
+    // Values written with a different codec than the configured one must stay readable
+    var converter = new CompressedTextConverter();
+    for (var codec : TextCodec.values()) {
+      assertEquals(CLASS_PATH, converter.convertToEntityAttribute(codec.encode(CLASS_PATH)));
+    }
+    assertEquals(null, converter.convertToDatabaseColumn(null));
+    assertEquals(null, converter.convertToEntityAttribute(null));
+  }
+
+  @Test
+  public void testCompresses() {
+    assertTrue(TextCodec.GZIP.encode(CLASS_PATH).length < CLASS_PATH.length());
+    assertTrue(
+        TextCodec.DEFLATE_DICTIONARY.encode(CLASS_PATH).length
+            < TextCodec.GZIP.encode(CLASS_PATH).length);
+  }
+
+  @Test
+  public void testUnknownCodec() {
+    assertThrows(IllegalArgumentException.class, () -> TextCodec.decode(new byte[] {42, 1}));
+    assertThrows(IllegalArgumentException.class, () -> TextCodec.decode(new byte[0]));
+  }
+}
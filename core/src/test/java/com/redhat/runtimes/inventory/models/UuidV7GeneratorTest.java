@@ -0,0 +1,82 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.models;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+public class UuidV7GeneratorTest {
+  private static final Instant NOW = Instant.parse("2026-10-18T10:15:30.123Z");
+
+  @Test
+  public void testLayout() {
+    var generator = new UuidV7Generator(Clock.fixed(NOW, ZoneOffset.UTC), new Random(1));
+    var uuid = generator.next();
+    assertEquals(7, uuid.version());
+    assertEquals(2, uuid.variant());
+    assertEquals(NOW.toEpochMilli(), UuidV7Generator.millisOf(uuid));
+    assertThrows(IllegalArgumentException.class, () -> UuidV7Generator.millisOf(UUID.randomUUID()));
+  }
+
+  @Test
+  public void testIdsOfTheSameMillisecondAreIncreasing() {
+    var generator = new UuidV7Generator(Clock.fixed(NOW, ZoneOffset.UTC), new Random(2));
+    var previous = generator.next();
+    // More ids than the counter holds, the later ones borrow the next milliseconds
+    for (int i = 0; i < 10_000; i++) {
+      var uuid = generator.next();
+      assertTrue(compareUnsigned(previous, uuid) < 0, previous + " is not before " + uuid);
+      assertTrue(UuidV7Generator.millisOf(uuid) <= NOW.toEpochMilli() + 5);
+      previous = uuid;
+    }
+  }
+
+  @Test
+  public void testClockGoingBackKeepsTheOrder() {
+    var clock = new MutableClock(NOW);
+    var generator = new UuidV7Generator(clock, new Random(3));
+    var first = generator.next();
+    clock.now = NOW.minusSeconds(1);
+    var second = generator.next();
+    assertTrue(compareUnsigned(first, second) < 0);
+    assertEquals(NOW.toEpochMilli(), UuidV7Generator.millisOf(second));
+    clock.now = NOW.plusSeconds(1);
+    assertEquals(NOW.plusSeconds(1).toEpochMilli(), UuidV7Generator.millisOf(generator.next()));
+  }
+
+  // How Postgres orders uuid values: byte by byte, unsigned
+  private static int compareUnsigned(UUID a, UUID b) {
+    int msb = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+    return msb != 0
+        ? msb
+        : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+  }
+
+  private static class MutableClock extends Clock {
+    Instant now;
+
+    MutableClock(Instant now) {
+      this.now = now;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+
+    @Override
+    public ZoneOffset getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(java.time.ZoneId zone) {
+      return this;
+    }
+  }
+}
@@ -1,6 +1,8 @@
-/* Copyright (C) Red Hat 2024 */
+/* Copyright (C) Red Hat 2024-2026 */
 package com.redhat.runtimes.inventory.events;
 
+import com.redhat.runtimes.inventory.jfr.DownloadEvent;
+import com.redhat.runtimes.inventory.jfr.UnpackEvent;
 import io.quarkus.logging.Log;
 import jakarta.enterprise.context.ApplicationScoped;
 import java.io.ByteArrayInputStream;
@@ -12,31 +14,55 @@ import java.net.URL;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.zip.GZIPInputStream;
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
 import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.apache.commons.compress.utils.CountingInputStream;
 
 @ApplicationScoped
 public class ArchiveFetcher {
 
   private HttpClient httpClient;
 
+  /** A report of an upload, with the number of bytes it was decompressed to. */
+  public record Document(String json, int size) {}
+
   public List<String> getJsonsFromArchiveStream(String url) {
     return getJsonsFromArchiveStream(getInputStreamFromS3(url));
   }
 
   List<String> getJsonsFromArchiveStream(InputStream archiveStream) {
+    try (var lease = MemoryBudget.unlimited().admit()) {
+      return getDocumentsFromArchiveStream(archiveStream, lease).stream()
+          .map(Document::json)
+          .toList();
+    }
+  }
+
+  /**
+   * The reports of an egg upload, charged to the lease as they are decompressed.
+   *
+   * @throws IllegalStateException when a report, or all of them, are larger than the caps of the
+   *     budget
+   */
+  List<Document> getDocumentsFromArchiveStream(
+      InputStream archiveStream, MemoryBudget.Lease lease) {
+    var budget = lease.getBudget();
+    var event = new UnpackEvent();
+    event.begin();
+    var counted = new CountingInputStream(archiveStream);
     // The egg file comes in as a String, but it is actually a gzipped tarfile
     // So we will turn it into a stream, 'uncompress' the stream, then walk
     // the archive for files we care about.
     String insightsDataPath = "/data/var/tmp/insights-runtimes/uploads/";
-    List<String> jsonFiles = new ArrayList<String>();
+    List<Document> jsonFiles = new ArrayList<>();
 
     try {
-      GzipCompressorInputStream gzis = new GzipCompressorInputStream(archiveStream);
+      GzipCompressorInputStream gzis = new GzipCompressorInputStream(counted);
       TarArchiveInputStream tarInput = new TarArchiveInputStream(gzis);
 
       ArchiveEntry entry;
@@ -48,27 +74,37 @@ public class ArchiveFetcher {
           continue;
         }
 
-        // Read in the file stream and turn it into a string for processing
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        byte[] buffer = new byte[4096];
-        int bytesRead;
-        while ((bytesRead = tarInput.read(buffer)) != -1) {
-          baos.write(buffer, 0, bytesRead);
+        // Read in the file stream and turn it into a string for processing. The size in the header
+        // of the entry rejects it before it is read, the reading itself stops at the caps when the
+        // header lies
+        long remaining = budget.getMaxArchiveSize() - event.decompressedBytes;
+        if (entry.getSize() > budget.getMaxEntrySize() || entry.getSize() > remaining) {
+          throw tooLarge(entryName, entry.getSize());
+        }
+        var bytes = readAll(tarInput, lease, Math.min(budget.getMaxEntrySize(), remaining));
+        if (bytes == null) {
+          throw tooLarge(entryName, -1);
         }
-        String json = new String(baos.toByteArray());
+        String json = new String(bytes, StandardCharsets.UTF_8);
         if (json == null || json.isEmpty()) {
           continue;
         }
 
-        jsonFiles.add(json);
+        jsonFiles.add(new Document(json, bytes.length));
+        event.decompressedBytes += bytes.length;
       }
     } catch (IOException e) {
       e.printStackTrace();
     }
+    event.compressedBytes = counted.getBytesRead();
+    event.documents = jsonFiles.size();
+    event.emit();
     return jsonFiles;
   }
 
-  private InputStream getInputStreamFromS3(String urlStr) {
+  InputStream getInputStreamFromS3(String urlStr) {
+    var event = new DownloadEvent();
+    event.begin();
     try {
       var uri = new URL(urlStr).toURI();
       var requestBuilder = HttpRequest.newBuilder().uri(uri);
@@ -81,6 +117,10 @@ public class ArchiveFetcher {
       var response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
       Log.debugf("S3 HTTP Client status: %s", response.statusCode());
 
+      // The body is streamed, its size is only known once it is unpacked
+      event.url = urlStr;
+      event.statusCode = response.statusCode();
+      event.emit();
       return response.body();
     } catch (URISyntaxException | IOException | InterruptedException e) {
       Log.error("Error in HTTP send: ", e);
@@ -93,6 +133,24 @@ public class ArchiveFetcher {
   }
 
   public String getJsonFromS3(String urlStr) {
+    return unzipJson(getBytesFromS3(urlStr));
+  }
+
+  /** The upload as it is stored, still compressed. */
+  public byte[] getBytesFromS3(String urlStr) {
+    try (var lease = MemoryBudget.unlimited().admit()) {
+      return getBytesFromS3(urlStr, lease);
+    }
+  }
+
+  /**
+   * The upload as it is stored, still compressed, charged to the lease as it is downloaded.
+   *
+   * @throws IllegalStateException when the upload is larger than the archive cap of the budget
+   */
+  public byte[] getBytesFromS3(String urlStr, MemoryBudget.Lease lease) {
+    var event = new DownloadEvent();
+    event.begin();
     try {
       var uri = new URL(urlStr).toURI();
       var requestBuilder = HttpRequest.newBuilder().uri(uri);
@@ -102,10 +160,27 @@ public class ArchiveFetcher {
       if (httpClient == null) {
         httpClient = HttpClient.newBuilder().build();
       }
-      var response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+      var response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
       Log.debugf("S3 HTTP Client status: %s", response.statusCode());
 
-      return unzipJson(response.body());
+      // Rejected on its announced length when there is one, before the body is read
+      var maxSize = lease.getBudget().getMaxArchiveSize();
+      var length = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+      byte[] body;
+      try (var in = response.body()) {
+        if (length > maxSize) {
+          throw tooLarge(urlStr, length);
+        }
+        body = readAll(in, lease, maxSize);
+      }
+      if (body == null) {
+        throw tooLarge(urlStr, -1);
+      }
+      event.url = urlStr;
+      event.statusCode = response.statusCode();
+      event.bytes = body.length;
+      event.emit();
+      return body;
     } catch (URISyntaxException | IOException | InterruptedException e) {
       Log.error("Error in HTTP send: ", e);
       throw new RuntimeException(e);
@@ -113,12 +188,63 @@ public class ArchiveFetcher {
   }
 
   public static String unzipJson(byte[] buffy) {
+    try (var lease = MemoryBudget.unlimited().admit()) {
+      return unzipDocument(buffy, lease).json();
+    }
+  }
+
+  /**
+   * The report of an upload, charged to the lease as it is decompressed.
+   *
+   * @throws IllegalStateException when the report is larger than the caps of the budget
+   */
+  public static Document unzipDocument(byte[] buffy, MemoryBudget.Lease lease) {
+    var budget = lease.getBudget();
+    var event = new UnpackEvent();
+    event.begin();
     try (var bais = new ByteArrayInputStream(buffy);
         var gunzip = new GZIPInputStream(bais)) {
-      return new String(gunzip.readAllBytes());
+      var json =
+          readAll(gunzip, lease, Math.min(budget.getMaxEntrySize(), budget.getMaxArchiveSize()));
+      if (json == null) {
+        throw tooLarge("report", -1);
+      }
+      event.compressedBytes = buffy.length;
+      event.decompressedBytes = json.length;
+      event.documents = 1;
+      event.emit();
+      return new Document(new String(json, StandardCharsets.UTF_8), json.length);
     } catch (IOException e) {
       Log.error("Error in Unzipping archive: ", e);
       throw new RuntimeException(e);
     }
   }
+
+  /**
+   * Reads a stream to its end, charging the lease for each chunk before it is buffered.
+   *
+   * @return the bytes read, or null as soon as there are more than the limit, so that a gzip bomb
+   *     is never decompressed further
+   */
+  static byte[] readAll(InputStream in, MemoryBudget.Lease lease, long limit) throws IOException {
+    var out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[8192];
+    int bytesRead;
+    while ((bytesRead = in.read(buffer)) != -1) {
+      if (out.size() + (long) bytesRead > limit) {
+        return null;
+      }
+      lease.acquire(bytesRead);
+      out.write(buffer, 0, bytesRead);
+    }
+    return out.toByteArray();
+  }
+
+  private static IllegalStateException tooLarge(String what, long size) {
+    return new IllegalStateException(
+        "Rejected "
+            + what
+            + (size < 0 ? "" : " of " + size + " bytes")
+            + ": larger than the size caps of the ingestion");
+  }
 }
@@ -0,0 +1,98 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.events;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.redhat.runtimes.inventory.models.ConfigBlob;
+import com.redhat.runtimes.inventory.models.Digest;
+import com.redhat.runtimes.inventory.models.EapConfiguration;
+import com.redhat.runtimes.inventory.models.TextCodec;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Stores the subsystems and deployments of the EAP configurations being stored as shared {@link
+ * ConfigBlob}s. The hashes of the stored blobs are cached, so that a blob already seen is neither
+ * sent nor compressed again.
+ *
+ * <p>Like the {@link EapExtensions}, the missing blobs of a configuration are inserted in their own
+ * transaction, and concurrent inserts of the same one are resolved by the hash.
+ */
+@ApplicationScoped
+public class ConfigBlobs {
+
+  @Inject EntityManager entityManager;
+
+  @ConfigProperty(name = "inventory.config-blob.cache.max-size", defaultValue = "50000")
+  long maxSize;
+
+  private final TextCodec codec = TextCodec.configured();
+
+  private Cache<Digest, Boolean> stored;
+
+  @PostConstruct
+  void init() {
+    stored = Caffeine.newBuilder().maximumSize(maxSize).build();
+  }
+
+  public void intern(EapConfiguration config) {
+    if (config == null) {
+      return;
+    }
+    var missing = new LinkedHashMap<Digest, ConfigBlob>();
+    collectMissing(config.getSubsystemBlobs(), missing);
+    collectMissing(config.getDeploymentBlobs(), missing);
+    if (!missing.isEmpty()) {
+      QuarkusTransaction.requiringNew().run(() -> store(missing.values()));
+      missing.keySet().forEach(hash -> stored.put(hash, Boolean.TRUE));
+    }
+    config.setSubsystemBlobs(references(config.getSubsystemBlobs()));
+    config.setDeploymentBlobs(references(config.getDeploymentBlobs()));
+  }
+
+  /** Forgets the stored blobs, for the tests that delete them. */
+  void invalidateAll() {
+    stored.invalidateAll();
+  }
+
+  private void collectMissing(Map<String, ConfigBlob> blobs, Map<Digest, ConfigBlob> missing) {
+    if (blobs == null) {
+      return;
+    }
+    for (var blob : blobs.values()) {
+      if (stored.getIfPresent(blob.getHash()) == null) {
+        missing.putIfAbsent(blob.getHash(), blob);
+      }
+    }
+  }
+
+  private Map<String, ConfigBlob> references(Map<String, ConfigBlob> blobs) {
+    if (blobs == null) {
+      return null;
+    }
+    var out = new LinkedHashMap<String, ConfigBlob>();
+    blobs.forEach(
+        (key, blob) -> out.put(key, entityManager.getReference(ConfigBlob.class, blob.getHash())));
+    return out;
+  }
+
+  private void store(Iterable<ConfigBlob> blobs) {
+    for (var blob : blobs) {
+      entityManager
+          .createNativeQuery(
+              """
+                INSERT INTO config_blob (hash, content) VALUES (?1, ?2)
+                  ON CONFLICT (hash) DO NOTHING
+              """)
+          .setParameter(1, blob.getHash().toBytes())
+          .setParameter(2, codec.encode(blob.getContent()))
+          .executeUpdate();
+    }
+  }
+}
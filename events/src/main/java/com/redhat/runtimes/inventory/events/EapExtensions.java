@@ -0,0 +1,99 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.events;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.redhat.runtimes.inventory.models.Digest;
+import com.redhat.runtimes.inventory.models.EapConfiguration;
+import com.redhat.runtimes.inventory.models.EapExtension;
+import com.redhat.runtimes.inventory.models.UuidV7Generator;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import java.util.HashSet;
+import java.util.UUID;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Replaces the extensions of the EAP configurations being stored by the shared ones with the same
+ * content. The ids of the stored extensions are cached by hash, so that an extension already seen
+ * costs no statement at all.
+ *
+ * <p>Like the {@link RuntimeProfiles}, a missing extension is inserted with its subsystems in its
+ * own transaction, and concurrent inserts of the same one are resolved by the unique hash.
+ */
+@ApplicationScoped
+public class EapExtensions {
+
+  @Inject EntityManager entityManager;
+
+  @ConfigProperty(name = "inventory.eap-extension.cache.max-size", defaultValue = "10000")
+  long maxSize;
+
+  private Cache<Digest, UUID> ids;
+
+  @PostConstruct
+  void init() {
+    ids = Caffeine.newBuilder().maximumSize(maxSize).build();
+  }
+
+  public void intern(EapConfiguration config) {
+    if (config == null || config.getExtensions() == null) {
+      return;
+    }
+    var shared = new HashSet<EapExtension>();
+    for (var extension : config.getExtensions()) {
+      if (extension.getId() != null) {
+        shared.add(extension);
+        continue;
+      }
+      var hash = extension.computeContentHash();
+      var id =
+          ids.get(hash, h -> QuarkusTransaction.requiringNew().call(() -> store(h, extension)));
+      shared.add(entityManager.getReference(EapExtension.class, id));
+    }
+    config.setExtensions(shared);
+  }
+
+  /** Forgets the stored extensions, for the tests that delete them. */
+  void invalidateAll() {
+    ids.invalidateAll();
+  }
+
+  private UUID store(Digest hash, EapExtension extension) {
+    var id = UuidV7Generator.newUuid();
+    int inserted =
+        entityManager
+            .createNativeQuery(
+                """
+                  INSERT INTO eap_extension (id, module, content_hash) VALUES (?1, ?2, ?3)
+                    ON CONFLICT (content_hash) DO NOTHING
+                """)
+            .setParameter(1, id)
+            .setParameter(2, extension.getModule())
+            .setParameter(3, hash.toBytes())
+            .executeUpdate();
+    if (inserted == 0) {
+      // Stored by another report, with its subsystems
+      return entityManager
+          .createQuery("SELECT e.id FROM EapExtension e WHERE e.contentHash = :hash", UUID.class)
+          .setParameter("hash", hash)
+          .getSingleResult();
+    }
+    for (var subsystem : extension.getSubsystems()) {
+      entityManager
+          .createNativeQuery(
+              """
+                INSERT INTO eap_extension_subsystems (eap_extension_id, name, version)
+                  VALUES (?1, ?2, ?3)
+              """)
+          .setParameter(1, id)
+          .setParameter(2, subsystem.getName())
+          .setParameter(3, subsystem.getVersion())
+          .executeUpdate();
+    }
+    return id;
+  }
+}
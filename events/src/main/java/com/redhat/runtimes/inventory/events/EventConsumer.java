@@ -1,20 +1,33 @@
-/* Copyright (C) Red Hat 2023-2024 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.runtimes.inventory.events;
 
+import static com.redhat.runtimes.inventory.events.IngestionMetrics.*;
 import static com.redhat.runtimes.inventory.events.Utils.*;
 
+import com.redhat.runtimes.inventory.jfr.MessageEvent;
+import com.redhat.runtimes.inventory.jfr.PersistEvent;
+import com.redhat.runtimes.inventory.jfr.RequestContext;
+import com.redhat.runtimes.inventory.metrics.PersistenceStats;
+import com.redhat.runtimes.inventory.metrics.TrackPersistence;
+import com.redhat.runtimes.inventory.models.JvmInstance;
+import com.redhat.runtimes.inventory.models.UpdateInstance;
 import io.micrometer.core.annotation.Counted;
 import io.micrometer.core.annotation.Timed;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.binder.jvm.JvmMemoryMetrics;
 import io.micrometer.core.instrument.binder.system.ProcessorMetrics;
 import io.quarkus.logging.Log;
+import io.quarkus.runtime.configuration.MemorySize;
 import io.smallrye.reactive.messaging.annotations.Blocking;
+import io.smallrye.reactive.messaging.kafka.KafkaClientService;
 import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.RollbackException;
 import java.time.Clock;
+import java.util.List;
+import org.apache.commons.compress.utils.CountingInputStream;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.reactive.messaging.Incoming;
 
 @ApplicationScoped
@@ -36,6 +49,22 @@ public class EventConsumer {
 
   @Inject ArchiveFetcher archiveFetcher;
 
+  @Inject IngestionMetrics metrics;
+
+  @Inject KafkaClientService kafkaClients;
+
+  @ConfigProperty(name = "inventory.ingestion.memory-budget", defaultValue = "256M")
+  MemorySize memoryBudget;
+
+  @ConfigProperty(name = "inventory.ingestion.max-archive-size", defaultValue = "128M")
+  MemorySize maxArchiveSize;
+
+  @ConfigProperty(name = "inventory.ingestion.max-entry-size", defaultValue = "64M")
+  MemorySize maxEntrySize;
+
+  // Shared by both channels, a message holds its lease until its reports are stored
+  private MemoryBudget budget;
+
   private ArchiveAnnouncementParser jsonParser = new ArchiveAnnouncementParser();
 
   private Clock clock = Clock.systemDefaultZone();
@@ -44,33 +73,82 @@ public class EventConsumer {
   public void init() {
     new ProcessorMetrics().bindTo(registry);
     new JvmMemoryMetrics().bindTo(registry);
+    budget =
+        new MemoryBudget(
+            memoryBudget.asLongValue(),
+            maxArchiveSize.asLongValue(),
+            maxEntrySize.asLongValue(),
+            this::pauseConsumers);
+    metrics.registerBudget(budget);
+  }
+
+  // The messages already polled wait for the budget to be admitted, pausing the consumers stops
+  // the polling of more of them meanwhile
+  private void pauseConsumers(boolean exhausted) {
+    Log.infof(
+        exhausted
+            ? "Memory budget of %d bytes exhausted, pausing the consumers"
+            : "Memory budget of %d bytes available again, resuming the consumers",
+        budget.getLimit());
+    for (var channel : List.of(INGRESS_CHANNEL, EGG_CHANNEL)) {
+      for (var consumer : kafkaClients.getConsumers(channel)) {
+        (exhausted ? consumer.pause().replaceWithVoid() : consumer.resume())
+            .subscribe()
+            .with(
+                ignored -> {},
+                failure ->
+                    Log.warnf(failure, "Could not pause or resume the %s consumer", channel));
+      }
+    }
   }
 
   @Incoming(INGRESS_CHANNEL)
   @Blocking
   @Timed(CONSUMED_TIMER_NAME)
   @Counted(value = PROCESSING_EXCEPTION_COUNTER_NAME, recordFailuresOnly = true)
+  @TrackPersistence(INGRESS_FLOW)
   public void processMainFlow(String payload) throws RollbackException {
     Log.debugf("Processing received Kafka message %s", payload);
 
     // Parse JSON using Jackson
     var announce = jsonParser.fromJsonString(payload);
     if (announce.getContentType().equals(VALID_CONTENT_TYPE)) {
-
-      // Get data back from S3
-      Log.infof("Processed message URL: %s", announce.getUrl());
-      var archiveJson = archiveFetcher.getJsonFromS3(announce.getUrl());
-      Log.debugf("Retrieved from S3: %s", archiveJson);
-      if (shouldProcessMessage(archiveJson, clock, false)) {
-        persistence.processMessage(announce, archiveJson);
+      var event = begin(INGRESS_FLOW, announce);
+      try (var inFlight = metrics.inFlight(announce.getTimestamp());
+          var request = RequestContext.bind(announce.getRequestId(), announce.getOrgId())) {
+        try (var lease = budget.admit()) {
+          processIngressReport(announce, lease);
+        } catch (Throwable e) {
+          event.failure = e.getClass().getName();
+          throw e;
+        } finally {
+          event.emit();
+        }
       }
     }
   }
 
+  private void processIngressReport(ArchiveAnnouncement announce, MemoryBudget.Lease lease)
+      throws RollbackException {
+    // Get data back from S3
+    Log.infof("Processed message URL: %s", announce.getUrl());
+    var sample = metrics.start();
+    var archive = archiveFetcher.getBytesFromS3(announce.getUrl(), lease);
+    metrics.stop(sample, INGRESS_FLOW, DOWNLOAD_STAGE);
+
+    sample = metrics.start();
+    var document = ArchiveFetcher.unzipDocument(archive, lease);
+    metrics.stop(sample, INGRESS_FLOW, DECOMPRESS_STAGE);
+    Log.debugf("Retrieved from S3: %s", document.json());
+
+    processReport(INGRESS_FLOW, announce, document, archive.length);
+  }
+
   @Incoming(EGG_CHANNEL)
   @Blocking
   @Timed(CONSUMED_TIMER_NAME)
   @Counted(value = PROCESSING_EXCEPTION_COUNTER_NAME, recordFailuresOnly = true)
+  @TrackPersistence(EGG_FLOW)
   public void processEggFlow(String payload) throws RollbackException {
     Log.debugf("Processing received Kafka message from egg %s", payload);
 
@@ -79,19 +157,96 @@ public class EventConsumer {
     if (VALID_CONTENT_TYPE.equals(announce.getContentType()) || announce.isRuntimes()) {
       var url = announce.getUrl();
       if (url != null) {
-        // Get data back from S3
-        Log.infof("Processed message URL: %s", url);
-        var jsonFiles = archiveFetcher.getJsonsFromArchiveStream(announce.getUrl());
-        Log.debugf("Found [%s] files in the S3 archive.", jsonFiles.size());
-        for (String json : jsonFiles) {
-          if (shouldProcessMessage(json, clock, true)) {
-            persistence.processMessage(announce, json);
+        var event = begin(EGG_FLOW, announce);
+        try (var inFlight = metrics.inFlight(announce.getTimestamp());
+            var request = RequestContext.bind(announce.getRequestId(), announce.getOrgId())) {
+          try (var lease = budget.admit()) {
+            processEggArchive(announce, url, lease);
+          } catch (Throwable e) {
+            event.failure = e.getClass().getName();
+            throw e;
+          } finally {
+            event.emit();
           }
         }
       }
     }
   }
 
+  private void processEggArchive(ArchiveAnnouncement announce, String url, MemoryBudget.Lease lease)
+      throws RollbackException {
+    // Get data back from S3
+    Log.infof("Processed message URL: %s", url);
+    // The archive is streamed, so the download only covers the wait for the response and the
+    // transfer of the body is part of the decompression
+    var sample = metrics.start();
+    var archive = new CountingInputStream(archiveFetcher.getInputStreamFromS3(url));
+    metrics.stop(sample, EGG_FLOW, DOWNLOAD_STAGE);
+
+    sample = metrics.start();
+    var jsonFiles = archiveFetcher.getDocumentsFromArchiveStream(archive, lease);
+    metrics.stop(sample, EGG_FLOW, DECOMPRESS_STAGE);
+    metrics.recordArchive(EGG_FLOW, archive.getBytesRead());
+    metrics.recordEggDocuments(jsonFiles.size());
+
+    Log.debugf("Found [%s] files in the S3 archive.", jsonFiles.size());
+    for (var document : jsonFiles) {
+      processReport(EGG_FLOW, announce, document, -1);
+    }
+  }
+
+  private void processReport(
+      String flow,
+      ArchiveAnnouncement announce,
+      ArchiveFetcher.Document document,
+      int compressedSize)
+      throws RollbackException {
+    var json = document.json();
+    var sample = metrics.start();
+    var report = parse(json);
+    metrics.stop(sample, flow, PARSE_STAGE);
+    if (!shouldProcessMessage(report, clock, EGG_FLOW.equals(flow))) {
+      return;
+    }
+
+    sample = metrics.start();
+    var msg = instanceOf(announce, json, report);
+    metrics.stop(sample, flow, MAP_STAGE);
+    // Before persisting, which can take the jar hashes out of the instance
+    var jars = jarsOf(msg);
+
+    // The rows are only written when the transaction commits, so the event covers the call
+    var event = new PersistEvent();
+    var stats = PersistenceStats.current();
+    var statements = stats == null ? 0 : stats.getStatements();
+    var entityInserts = stats == null ? 0 : stats.getEntityInserts();
+    event.begin();
+    sample = metrics.start();
+    persistence.persist(msg);
+    metrics.stop(sample, flow, PERSIST_STAGE);
+    event.payloadType = typeOf(msg);
+    event.linkingHash =
+        msg instanceof UpdateInstance update
+            ? update.getLinkingHash()
+            : ((JvmInstance) msg).getLinkingHash();
+    if (stats != null) {
+      event.statements = stats.getStatements() - statements;
+      event.entityInserts = stats.getEntityInserts() - entityInserts;
+    }
+    event.emit();
+    metrics.recordCommitted(flow, announce.getTimestamp());
+
+    metrics.recordReport(flow, msg, compressedSize, document.size(), jars);
+  }
+
+  private static MessageEvent begin(String flow, ArchiveAnnouncement announce) {
+    var event = new MessageEvent();
+    event.flow = flow;
+    event.contentType = announce.getContentType();
+    event.begin();
+    return event;
+  }
+
   void setClock(Clock clock) {
     this.clock = clock;
   }
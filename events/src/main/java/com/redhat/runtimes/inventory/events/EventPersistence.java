@@ -1,4 +1,4 @@
-/* Copyright (C) Red Hat 2024 */
+/* Copyright (C) Red Hat 2024-2026 */
 package com.redhat.runtimes.inventory.events;
 
 import static com.redhat.runtimes.inventory.events.Utils.instanceOf;
@@ -6,6 +6,8 @@ import static com.redhat.runtimes.inventory.events.Utils.instanceOf;
 import com.redhat.runtimes.inventory.models.EapInstance;
 import com.redhat.runtimes.inventory.models.InsightsMessage;
 import com.redhat.runtimes.inventory.models.JvmInstance;
+import com.redhat.runtimes.inventory.models.JvmInstanceBase;
+import com.redhat.runtimes.inventory.models.JvmOnlyInstance;
 import com.redhat.runtimes.inventory.models.UpdateInstance;
 import io.quarkus.logging.Log;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -15,29 +17,64 @@ import jakarta.transaction.RollbackException;
 import jakarta.transaction.Transactional;
 import java.util.List;
 import java.util.Optional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 @ApplicationScoped
 public class EventPersistence {
 
   @Inject EntityManager entityManager;
 
+  @Inject RuntimeProfiles runtimeProfiles;
+
+  @Inject EapExtensions eapExtensions;
+
+  @Inject ConfigBlobs configBlobs;
+
+  @Inject JarHashLoader jarHashLoader;
+
+  @Inject StatelessPersistence statelessPersistence;
+
+  /** How new instances are stored, updates always go through the entity manager. */
+  public enum Mode {
+    /** Persisted by the entity manager, which cascades to the rows they own. */
+    STATEFUL,
+    /** Inserted by {@link StatelessPersistence}, without a persistence context. */
+    STATELESS
+  }
+
+  @ConfigProperty(name = "inventory.persistence.mode", defaultValue = "stateful")
+  Mode mode;
+
   @Transactional
   public void processMessage(ArchiveAnnouncement announce, String json) throws RollbackException {
-    // Needs to be visible in the catch block
-    JvmInstance inst;
-    InsightsMessage msg = instanceOf(announce, json);
+    persist(instanceOf(announce, json));
+  }
 
-    if (msg instanceof EapInstance) {
-      inst = (EapInstance) msg;
+  /** Stores a message already mapped from its report. */
+  @Transactional
+  public void persist(InsightsMessage msg) throws RollbackException {
+    // Needs to be visible in the catch block
+    JvmInstanceBase inst;
+    List<JarHashCopy.Link> jars = List.of();
+    if (msg instanceof EapInstance eap) {
+      inst = eap;
+      runtimeProfiles.intern(inst);
+      eapExtensions.intern(eap.getConfiguration());
+      configBlobs.intern(eap.getConfiguration());
+      jars = jarHashLoader.take(inst);
     } else if (msg instanceof JvmInstance) {
       inst = (JvmInstance) msg;
+      runtimeProfiles.intern(inst);
+      jars = jarHashLoader.take(inst);
     } else if (msg instanceof UpdateInstance update) {
       var linkingHash = update.getLinkingHash();
       var maybeInst = getInstanceFromHash(linkingHash);
       if (maybeInst.isPresent()) {
         inst = maybeInst.get();
         var newJars = update.getUpdates();
-        inst.getJarHashes().addAll(newJars);
+        if (!jarHashLoader.add(inst, newJars)) {
+          inst.getJarHashes().addAll(newJars);
+        }
       } else {
         throw new IllegalStateException(
             "Update message seen for non-existent hash: " + linkingHash);
@@ -48,13 +85,21 @@ public class EventPersistence {
     }
 
     Log.debugf("About to persist: %s", inst);
-    entityManager.persist(inst);
+    if (mode == Mode.STATELESS && !(msg instanceof UpdateInstance)) {
+      statelessPersistence.insert(inst);
+    } else {
+      entityManager.persist(inst);
+    }
+    jarHashLoader.load(jars);
   }
 
-  Optional<JvmInstance> getInstanceFromHash(String linkingHash) {
-    List<JvmInstance> instances =
+  // An update only adds jar hashes, so the EAP columns of the instance are not needed
+  Optional<JvmOnlyInstance> getInstanceFromHash(String linkingHash) {
+    List<JvmOnlyInstance> instances =
         entityManager
-            .createQuery("SELECT ri from JvmInstance ri where ri.linkingHash = ?1")
+            .createQuery(
+                "SELECT ri from JvmOnlyInstance ri where ri.linkingHash = ?1",
+                JvmOnlyInstance.class)
             .setParameter(1, linkingHash)
             .getResultList();
     if (instances.size() > 1) {
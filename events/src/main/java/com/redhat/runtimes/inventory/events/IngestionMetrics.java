@@ -0,0 +1,192 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.events;
+
+import com.redhat.runtimes.inventory.models.EapInstance;
+import com.redhat.runtimes.inventory.models.InsightsMessage;
+import com.redhat.runtimes.inventory.models.JvmInstance;
+import com.redhat.runtimes.inventory.models.UpdateInstance;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Meters of the steps of the ingestion, so that a slow message can be attributed to the download,
+ * the decompression, the JSON parsing, the mapping to entities or the database. Also how stale the
+ * inventory is: the delay from the announcement of a report to its commit, and the age of the
+ * oldest message still being processed, and how much of the memory budget of the ingestion is in
+ * use.
+ */
+@ApplicationScoped
+public class IngestionMetrics {
+  public static final String STAGE_TIMER_NAME = "input.stage";
+  public static final String COMPRESSED_SIZE_NAME = "input.payload.compressed";
+  public static final String DECOMPRESSED_SIZE_NAME = "input.payload.decompressed";
+  public static final String JARS_NAME = "input.report.jars";
+  public static final String EGG_DOCUMENTS_NAME = "input.egg.documents";
+  public static final String FRESHNESS_TIMER_NAME = "input.freshness";
+  public static final String OLDEST_IN_FLIGHT_NAME = "input.inflight.oldest.age";
+  public static final String BUDGET_UTILIZATION_NAME = "input.budget.utilization";
+
+  public static final String FLOW_TAG = "flow";
+  public static final String STAGE_TAG = "stage";
+  public static final String TYPE_TAG = "type";
+
+  public static final String INGRESS_FLOW = "ingress";
+  public static final String EGG_FLOW = "egg";
+
+  public static final String DOWNLOAD_STAGE = "download";
+  public static final String DECOMPRESS_STAGE = "decompress";
+  public static final String PARSE_STAGE = "parse";
+  public static final String MAP_STAGE = "map";
+  public static final String PERSIST_STAGE = "persist";
+
+  // Type of the compressed size of an egg upload, which holds several reports
+  static final String ARCHIVE_TYPE = "archive";
+
+  @Inject MeterRegistry registry;
+
+  private final Set<InFlight> inFlight = ConcurrentHashMap.newKeySet();
+
+  private Clock clock = Clock.systemUTC();
+
+  @PostConstruct
+  void init() {
+    Gauge.builder(OLDEST_IN_FLIGHT_NAME, this, IngestionMetrics::oldestInFlightAge)
+        .baseUnit("seconds")
+        .register(registry);
+  }
+
+  /** Exports the ratio of the budget held by the messages in flight, above 1 when overrun. */
+  public void registerBudget(MemoryBudget budget) {
+    Gauge.builder(BUDGET_UTILIZATION_NAME, budget, MemoryBudget::utilization).register(registry);
+  }
+
+  public Timer.Sample start() {
+    return Timer.start(registry);
+  }
+
+  /** Records the time since the sample was started as the duration of the stage. */
+  public void stop(Timer.Sample sample, String flow, String stage) {
+    sample.stop(
+        Timer.builder(STAGE_TIMER_NAME).tags(FLOW_TAG, flow, STAGE_TAG, stage).register(registry));
+  }
+
+  /** Records the size of the compressed upload, before it is split into reports. */
+  public void recordArchive(String flow, long compressedSize) {
+    summary(COMPRESSED_SIZE_NAME, "bytes", flow, ARCHIVE_TYPE).record(compressedSize);
+  }
+
+  /**
+   * Records the sizes of a report.
+   *
+   * @param compressedSize size of the upload of the report, or -1 when it came in an archive with
+   *     others
+   * @param decompressedSize bytes the report was decompressed to
+   * @param jars jars of the report, see {@link #jarsOf}, counted before the report is persisted:
+   *     the jar hashes of the big ones are taken out of their instance to be copied
+   */
+  public void recordReport(
+      String flow, InsightsMessage msg, int compressedSize, int decompressedSize, int jars) {
+    var type = typeOf(msg);
+    if (compressedSize >= 0) {
+      summary(COMPRESSED_SIZE_NAME, "bytes", flow, type).record(compressedSize);
+    }
+    summary(DECOMPRESSED_SIZE_NAME, "bytes", flow, type).record(decompressedSize);
+    summary(JARS_NAME, null, flow, type).record(jars);
+  }
+
+  public void recordEggDocuments(int documents) {
+    DistributionSummary.builder(EGG_DOCUMENTS_NAME).register(registry).record(documents);
+  }
+
+  /**
+   * Records how long after it was announced a report was committed, which is how stale the
+   * inventory is. Nothing is recorded when the announcement has no timestamp.
+   */
+  public void recordCommitted(String flow, Instant announced) {
+    if (announced == null) {
+      return;
+    }
+    var delay = Duration.between(announced, clock.instant());
+    if (!delay.isNegative()) {
+      Timer.builder(FRESHNESS_TIMER_NAME).tags(FLOW_TAG, flow).register(registry).record(delay);
+    }
+  }
+
+  /**
+   * Counts a message in flight until the returned handle is closed.
+   *
+   * @param announced when the message was announced, or null to count from now
+   */
+  public InFlight inFlight(Instant announced) {
+    var message = new InFlight(announced == null ? clock.instant() : announced);
+    inFlight.add(message);
+    return message;
+  }
+
+  /** Age in seconds of the oldest message in flight, 0 when there is none. */
+  double oldestInFlightAge() {
+    var now = clock.instant();
+    return inFlight.stream()
+        .mapToDouble(m -> Math.max(0, Duration.between(m.since, now).toMillis() / 1000d))
+        .max()
+        .orElse(0);
+  }
+
+  void setClock(Clock clock) {
+    this.clock = clock;
+  }
+
+  /** A message being processed, compared by identity. */
+  public final class InFlight implements AutoCloseable {
+    private final Instant since;
+
+    private InFlight(Instant since) {
+      this.since = since;
+    }
+
+    @Override
+    public void close() {
+      inFlight.remove(this);
+    }
+  }
+
+  private DistributionSummary summary(String name, String unit, String flow, String type) {
+    return DistributionSummary.builder(name)
+        .baseUnit(unit)
+        .tags(FLOW_TAG, flow, TYPE_TAG, type)
+        .register(registry);
+  }
+
+  static String typeOf(InsightsMessage msg) {
+    if (msg instanceof EapInstance) {
+      return "eap";
+    } else if (msg instanceof JvmInstance) {
+      return "jvm";
+    } else if (msg instanceof UpdateInstance) {
+      return "update";
+    }
+    return "unknown";
+  }
+
+  // The jars of the classpath, and of the modules for EAP
+  static int jarsOf(InsightsMessage msg) {
+    if (msg instanceof EapInstance eap) {
+      return eap.getJarHashes().size() + eap.getModules().size();
+    } else if (msg instanceof JvmInstance jvm) {
+      return jvm.getJarHashes().size();
+    } else if (msg instanceof UpdateInstance update) {
+      return update.getUpdates().size();
+    }
+    return 0;
+  }
+}
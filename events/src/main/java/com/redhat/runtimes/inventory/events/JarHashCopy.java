@@ -0,0 +1,179 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.events;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.redhat.runtimes.inventory.metrics.PersistenceStats;
+import com.redhat.runtimes.inventory.models.JarHash;
+import com.redhat.runtimes.inventory.models.UuidV7Generator;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+
+/**
+ * Writes new jar hashes, and the rows that link them to their instance or deployment, with a binary
+ * COPY per table instead of an INSERT per row.
+ *
+ * <p>Every jar hash of a report is a new row with a new id, so the rows go straight into their
+ * tables: there is nothing to merge with the existing ones.
+ */
+final class JarHashCopy {
+  private JarHashCopy() {}
+
+  static final String JAR_HASH =
+      "COPY jar_hash (id, name, group_id, vendor, version, sha1, sha256, sha512)"
+          + " FROM STDIN (FORMAT binary)";
+
+  private static final byte[] SIGNATURE = {
+    'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xff, '\r', '\n', 0
+  };
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  /** Jar hashes linked to their owner by a join table. */
+  record Link(String table, String ownerColumn, Supplier<UUID> owner, Collection<JarHash> jars) {}
+
+  static int size(List<Link> links) {
+    int size = 0;
+    for (var link : links) {
+      size += link.jars().size();
+    }
+    return size;
+  }
+
+  /**
+   * Gives the jar hashes their ids and writes them, then the join rows. The owners must already be
+   * written.
+   */
+  static void copy(Connection connection, List<Link> links) throws SQLException {
+    var pg = connection.unwrap(PGConnection.class);
+    Set<JarHash> written = Collections.newSetFromMap(new IdentityHashMap<>());
+    try {
+      copyIn(
+          pg,
+          JAR_HASH,
+          out -> {
+            for (var link : links) {
+              for (var jar : link.jars()) {
+                if (written.add(jar)) {
+                  if (jar.getId() == null) {
+                    jar.setId(UuidV7Generator.newUuid());
+                  }
+                  out.row(8);
+                  out.uuid(jar.getId());
+                  out.text(jar.getName());
+                  out.text(jar.getGroupId());
+                  out.text(jar.getVendor());
+                  out.text(jar.getVersion());
+                  out.bytes(jar.getSha1Digest().toBytes());
+                  out.bytes(jar.getSha256Digest().toBytes());
+                  out.bytes(jar.getSha512Digest().toBytes());
+                }
+              }
+            }
+          });
+      for (var link : links) {
+        if (link.jars().isEmpty()) {
+          continue;
+        }
+        var owner = link.owner().get();
+        copyIn(
+            pg,
+            "COPY "
+                + link.table()
+                + " ("
+                + link.ownerColumn()
+                + ", jar_hash_id) FROM STDIN (FORMAT binary)",
+            out -> {
+              for (var jar : link.jars()) {
+                out.row(2);
+                out.uuid(owner);
+                out.uuid(jar.getId());
+              }
+            });
+      }
+    } catch (IOException e) {
+      throw new SQLException("Could not copy the jar hashes", e);
+    }
+    PersistenceStats.entitiesInserted(written.size());
+  }
+
+  private interface Rows {
+    void write(BinaryCopy out) throws IOException;
+  }
+
+  private static void copyIn(PGConnection connection, String sql, Rows rows)
+      throws SQLException, IOException {
+    var copy = new PGCopyOutputStream(connection, sql, BUFFER_SIZE);
+    PersistenceStats.statementsPrepared(1);
+    try {
+      var out = new BinaryCopy(copy);
+      rows.write(out);
+      out.finish();
+      copy.endCopy();
+    } catch (IOException | SQLException | RuntimeException e) {
+      // The connection must not be left in the middle of a COPY
+      if (copy.isActive()) {
+        try {
+          copy.cancelCopy();
+        } catch (SQLException cancel) {
+          e.addSuppressed(cancel);
+        }
+      }
+      throw e;
+    }
+  }
+
+  /** The rows of a COPY in the binary format, see the COPY page of the Postgres documentation. */
+  static final class BinaryCopy {
+    private final DataOutputStream out;
+
+    BinaryCopy(OutputStream out) throws IOException {
+      this.out = new DataOutputStream(out);
+      this.out.write(SIGNATURE);
+      // Flags, then the length of the header extension
+      this.out.writeInt(0);
+      this.out.writeInt(0);
+    }
+
+    void row(int fields) throws IOException {
+      out.writeShort(fields);
+    }
+
+    void uuid(UUID id) throws IOException {
+      out.writeInt(16);
+      out.writeLong(id.getMostSignificantBits());
+      out.writeLong(id.getLeastSignificantBits());
+    }
+
+    void text(String value) throws IOException {
+      if (value == null) {
+        out.writeInt(-1);
+        return;
+      }
+      bytes(value.getBytes(UTF_8));
+    }
+
+    void bytes(byte[] value) throws IOException {
+      out.writeInt(value.length);
+      out.write(value);
+    }
+
+    /** Writes the trailer, after the last row. */
+    void finish() throws IOException {
+      out.writeShort(-1);
+      out.flush();
+    }
+  }
+}
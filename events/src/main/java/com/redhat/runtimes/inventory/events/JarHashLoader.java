@@ -0,0 +1,130 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.events;
+
+import com.redhat.runtimes.inventory.events.JarHashCopy.Link;
+import com.redhat.runtimes.inventory.models.EapInstance;
+import com.redhat.runtimes.inventory.models.JarHash;
+import com.redhat.runtimes.inventory.models.JvmInstanceBase;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.Session;
+
+/**
+ * Stores the jar hashes of the big reports with {@link JarHashCopy} rather than through the
+ * cascades of their instance, which insert them one by one. The instance and its other rows are
+ * still stored by Hibernate.
+ */
+@ApplicationScoped
+public class JarHashLoader {
+
+  @Inject EntityManager entityManager;
+
+  @Inject Validator validator;
+
+  // Below that, the round trips of the COPYs cost more than the INSERTs they save
+  @ConfigProperty(name = "inventory.jar-hash.copy.min-rows", defaultValue = "200")
+  int minRows;
+
+  /**
+   * Takes the jar hashes out of a new instance, if it has enough of them, to be loaded once the
+   * instance is persisted.
+   */
+  List<Link> take(JvmInstanceBase inst) {
+    var links = links(inst);
+    if (JarHashCopy.size(links) < minRows) {
+      return List.of();
+    }
+    inst.setJarHashes(new HashSet<>());
+    if (inst instanceof EapInstance eap) {
+      eap.setJars(new HashSet<>());
+      eap.setModules(new HashSet<>());
+      if (eap.getDeployments() != null) {
+        eap.getDeployments().forEach(deployment -> deployment.setArchives(new HashSet<>()));
+      }
+    }
+    return links;
+  }
+
+  /** The jar hashes of a new instance, with the join table of each set. */
+  static List<Link> links(JvmInstanceBase inst) {
+    var links = new ArrayList<Link>();
+    link(links, "jvm_instance_jar_hash", "jvm_instance_id", inst, inst.getJarHashes());
+    if (inst instanceof EapInstance eap) {
+      link(links, "eap_instance_jar_hash", "eap_instance_id", eap, eap.getJars());
+      link(links, "eap_instance_module_jar_hash", "eap_instance_id", eap, eap.getModules());
+      if (eap.getDeployments() != null) {
+        for (var deployment : eap.getDeployments()) {
+          if (deployment.getArchives() != null && !deployment.getArchives().isEmpty()) {
+            links.add(
+                new Link(
+                    "eap_deployment_archive_jar_hash",
+                    "eap_deployment_id",
+                    deployment::getId,
+                    deployment.getArchives()));
+          }
+        }
+      }
+    }
+    return links;
+  }
+
+  /**
+   * Adds jar hashes to a stored instance, if there are enough of them. As when they are added to
+   * the set of the instance, the jars it already has and the repeated ones are skipped.
+   *
+   * @return false if they are to be added by Hibernate instead
+   */
+  boolean add(JvmInstanceBase inst, Collection<JarHash> jars) {
+    if (jars.size() < minRows) {
+      return false;
+    }
+    var added = new LinkedHashSet<>(jars);
+    added.removeIf(inst.getJarHashes()::contains);
+    if (!added.isEmpty()) {
+      load(List.of(new Link("jvm_instance_jar_hash", "jvm_instance_id", inst::getId, added)));
+    }
+    return true;
+  }
+
+  /** Writes the jar hashes taken from an instance, once it is persisted. */
+  void load(List<Link> links) {
+    if (links.isEmpty()) {
+      return;
+    }
+    for (var link : links) {
+      link.jars().forEach(this::validate);
+    }
+    // The rows of the owners have to be written first
+    entityManager.flush();
+    entityManager.unwrap(Session.class).doWork(connection -> JarHashCopy.copy(connection, links));
+  }
+
+  // As Hibernate does before inserting an entity
+  private void validate(JarHash jar) {
+    var violations = validator.validate(jar);
+    if (!violations.isEmpty()) {
+      throw new ConstraintViolationException(violations);
+    }
+  }
+
+  private static void link(
+      List<Link> links,
+      String table,
+      String ownerColumn,
+      JvmInstanceBase owner,
+      Set<JarHash> jars) {
+    if (jars != null && !jars.isEmpty()) {
+      links.add(new Link(table, ownerColumn, owner::getId, jars));
+    }
+  }
+}
@@ -0,0 +1,147 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.events;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * A budget of the bytes held by the messages being ingested: the uploads buffered and the reports
+ * decompressed from them, until the reports are stored. Also the caps on what a single upload can
+ * decompress to, past which it is rejected.
+ *
+ * <p>A message is admitted only while the budget isn't exhausted, then what it reads is charged to
+ * its lease without waiting, and the whole lease is released at once. A message never waits while
+ * it holds part of the budget, so that messages can't wait for each other, and the budget is a soft
+ * limit: the messages admitted can overrun it, each by less than the caps.
+ */
+public final class MemoryBudget {
+  private final long limit;
+  private final long maxArchiveSize;
+  private final long maxEntrySize;
+  private final Consumer<Boolean> listener;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition available = lock.newCondition();
+  private long used;
+  private boolean exhausted;
+
+  /**
+   * @param limit bytes held by all the messages, past which no more messages are admitted
+   * @param maxArchiveSize bytes an upload can hold, and decompress to
+   * @param maxEntrySize bytes a single report of an upload can decompress to
+   * @param listener told true when the budget is exhausted, and false when it is available again,
+   *     it must not block
+   */
+  public MemoryBudget(
+      long limit, long maxArchiveSize, long maxEntrySize, Consumer<Boolean> listener) {
+    if (limit <= 0 || maxArchiveSize <= 0 || maxEntrySize <= 0) {
+      throw new IllegalArgumentException("The budget and the caps must be positive");
+    }
+    this.limit = limit;
+    this.maxArchiveSize = maxArchiveSize;
+    this.maxEntrySize = maxEntrySize;
+    this.listener = listener;
+  }
+
+  /** A budget that is never exhausted, for the callers that don't share one. */
+  public static MemoryBudget unlimited() {
+    return new MemoryBudget(Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE, exhausted -> {});
+  }
+
+  /** Waits until the budget isn't exhausted, then admits a message. */
+  public Lease admit() {
+    lock.lock();
+    try {
+      while (used >= limit) {
+        available.await();
+      }
+      return new Lease();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for the memory budget", e);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public long getLimit() {
+    return limit;
+  }
+
+  public long getMaxArchiveSize() {
+    return maxArchiveSize;
+  }
+
+  public long getMaxEntrySize() {
+    return maxEntrySize;
+  }
+
+  public long getUsed() {
+    lock.lock();
+    try {
+      return used;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Ratio of the budget in use, above 1 when it is overrun. */
+  public double utilization() {
+    return (double) getUsed() / limit;
+  }
+
+  // The listener is told under the lock, so that a pause and the resume that follows it can't be
+  // swapped by concurrent leases
+  private void update(long bytes) {
+    lock.lock();
+    try {
+      used += bytes;
+      if (!exhausted && used >= limit) {
+        exhausted = true;
+        listener.accept(true);
+      } else if (exhausted && used < limit) {
+        exhausted = false;
+        available.signalAll();
+        listener.accept(false);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** The bytes held by an admitted message, released when it is closed. */
+  public final class Lease implements AutoCloseable {
+    private long held;
+    private boolean closed;
+
+    private Lease() {}
+
+    /** Charges bytes that are about to be read, without waiting. */
+    public void acquire(long bytes) {
+      if (closed) {
+        throw new IllegalStateException("The lease is closed");
+      }
+      if (bytes > 0) {
+        held += bytes;
+        update(bytes);
+      }
+    }
+
+    public long getHeld() {
+      return held;
+    }
+
+    public MemoryBudget getBudget() {
+      return MemoryBudget.this;
+    }
+
+    @Override
+    public void close() {
+      if (!closed) {
+        closed = true;
+        update(-held);
+      }
+    }
+  }
+}
@@ -1,7 +1,13 @@
-/* Copyright (C) Red Hat 2023-2024 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.runtimes.inventory.events;
 
 import static com.redhat.runtimes.inventory.events.EventConsumer.CONSUMED_TIMER_NAME;
+import static com.redhat.runtimes.inventory.events.IngestionMetrics.COMPRESSED_SIZE_NAME;
+import static com.redhat.runtimes.inventory.events.IngestionMetrics.DECOMPRESSED_SIZE_NAME;
+import static com.redhat.runtimes.inventory.events.IngestionMetrics.EGG_DOCUMENTS_NAME;
+import static com.redhat.runtimes.inventory.events.IngestionMetrics.FRESHNESS_TIMER_NAME;
+import static com.redhat.runtimes.inventory.events.IngestionMetrics.JARS_NAME;
+import static com.redhat.runtimes.inventory.events.IngestionMetrics.STAGE_TIMER_NAME;
 
 import io.micrometer.core.instrument.Meter;
 import io.micrometer.core.instrument.config.MeterFilter;
@@ -33,16 +39,35 @@ public class MetricsConfiguration {
       @Override
       public DistributionStatisticConfig configure(
           Meter.Id id, DistributionStatisticConfig config) {
-        if (id.getName().startsWith(CONSUMED_TIMER_NAME)) {
-          return DistributionStatisticConfig.builder()
-              .percentilesHistogram(true)
-              .minimumExpectedValue(minimumExpectedValue * 1_000_000d)
-              .maximumExpectedValue(maximumExpectedValue * 1_000_000d)
-              .build()
+        var name = id.getName();
+        if (name.startsWith(CONSUMED_TIMER_NAME) || name.equals(STAGE_TIMER_NAME)) {
+          return histogram(minimumExpectedValue * 1_000_000d, maximumExpectedValue * 1_000_000d)
               .merge(config);
         }
+        if (name.equals(FRESHNESS_TIMER_NAME)) {
+          // From 100 ms to 6 hours
+          return histogram(100 * 1_000_000d, 6 * 3600 * 1_000_000_000d).merge(config);
+        }
+        if (name.equals(COMPRESSED_SIZE_NAME) || name.equals(DECOMPRESSED_SIZE_NAME)) {
+          // From 1 KiB to 64 MiB
+          return histogram(1024d, 64 * 1024 * 1024d).merge(config);
+        }
+        if (name.equals(JARS_NAME)) {
+          return histogram(1d, 20_000d).merge(config);
+        }
+        if (name.equals(EGG_DOCUMENTS_NAME)) {
+          return histogram(1d, 100d).merge(config);
+        }
         return config;
       }
     };
   }
+
+  private static DistributionStatisticConfig histogram(double minimum, double maximum) {
+    return DistributionStatisticConfig.builder()
+        .percentilesHistogram(true)
+        .minimumExpectedValue(minimum)
+        .maximumExpectedValue(maximum)
+        .build();
+  }
 }
@@ -0,0 +1,96 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.events;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.std.UntypedObjectDeserializer;
+import com.fasterxml.jackson.databind.util.RawValue;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Set;
+
+/**
+ * Reads a report into maps and lists, except for the parts of the EAP configuration that are only
+ * stored as JSON dumps: those are copied from the parser to a compact string, kept as a {@link
+ * RawValue}, without building the maps that would only be serialized back.
+ *
+ * <p>The copy is token by token, so the dump is the same as the serialization of the maps was, and
+ * so are the hashes of the {@link com.redhat.runtimes.inventory.models.ConfigBlob}s.
+ */
+final class RawFragmentDeserializer extends UntypedObjectDeserializer {
+  private static final long serialVersionUID = 1L;
+
+  private static final String[] CONFIGURATION = {"eap", "eap-configuration", "configuration"};
+
+  // Dumped as a whole
+  private static final Set<String> DUMPED =
+      Set.of("socket-binding-group", "path", "interface", "core-service");
+
+  // Dumped entry by entry
+  private static final Set<String> DUMPED_ENTRIES = Set.of("subsystem", "deployment");
+
+  private final JsonFactory factory;
+
+  RawFragmentDeserializer(JsonFactory factory) {
+    super(null, null);
+    this.factory = factory;
+  }
+
+  @Override
+  public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property) {
+    // The base class would replace itself with a plain one
+    return this;
+  }
+
+  @Override
+  public Object deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+    if (p.isExpectedStartObjectToken() || p.isExpectedStartArrayToken()) {
+      // The context of a start token is the new object or array, its parent holds the field name
+      if (isDumped(p.getParsingContext().getParent())) {
+        return new RawValue(copy(p));
+      }
+    }
+    return super.deserialize(p, ctxt);
+  }
+
+  private String copy(JsonParser p) throws IOException {
+    var out = new StringWriter();
+    try (var generator = factory.createGenerator(out)) {
+      generator.copyCurrentStructure(p);
+    }
+    return out.toString();
+  }
+
+  private static boolean isDumped(JsonStreamContext field) {
+    if (field == null || !field.inObject()) {
+      return false;
+    }
+    var name = field.getCurrentName();
+    if (name == null) {
+      return false;
+    }
+    if (DUMPED.contains(name)) {
+      return isConfiguration(field.getParent());
+    }
+    var parent = field.getParent();
+    return parent != null
+        && parent.inObject()
+        && DUMPED_ENTRIES.contains(parent.getCurrentName())
+        && isConfiguration(parent.getParent());
+  }
+
+  // Whether the context is the field eap.eap-configuration.configuration of the report
+  private static boolean isConfiguration(JsonStreamContext context) {
+    for (int i = CONFIGURATION.length - 1; i >= 0; i--) {
+      if (context == null || !CONFIGURATION[i].equals(context.getCurrentName())) {
+        return false;
+      }
+      context = context.getParent();
+    }
+    return context != null && context.inRoot();
+  }
+}
@@ -0,0 +1,77 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.events;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.redhat.runtimes.inventory.models.Digest;
+import com.redhat.runtimes.inventory.models.JvmInstanceBase;
+import com.redhat.runtimes.inventory.models.RuntimeProfile;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Interns the {@link RuntimeProfile} of the instances being stored: the ids of the stored profiles
+ * are cached by hash, so that only a profile seen for the first time costs a round trip.
+ *
+ * <p>A missing profile is inserted in its own transaction, concurrent inserts of the same one are
+ * resolved by the unique hash. The cache then only holds ids that are committed, even if the
+ * instance that brought the profile is rolled back.
+ */
+@ApplicationScoped
+public class RuntimeProfiles {
+
+  @Inject EntityManager entityManager;
+
+  @ConfigProperty(name = "inventory.runtime-profile.cache.max-size", defaultValue = "10000")
+  long maxSize;
+
+  private Cache<Digest, Integer> ids;
+
+  @PostConstruct
+  void init() {
+    ids = Caffeine.newBuilder().maximumSize(maxSize).build();
+  }
+
+  /** Replaces the profile of a new instance by the stored one with the same attributes. */
+  public void intern(JvmInstanceBase inst) {
+    var profile = inst.getRuntimeProfile();
+    if (profile.getId() != null) {
+      return;
+    }
+    var hash = profile.computeProfileHash();
+    var id = ids.get(hash, h -> QuarkusTransaction.requiringNew().call(() -> store(h, profile)));
+    inst.setRuntimeProfile(entityManager.getReference(RuntimeProfile.class, id));
+  }
+
+  private Integer store(Digest hash, RuntimeProfile profile) {
+    entityManager
+        .createNativeQuery(
+            """
+              INSERT INTO runtime_profile (profile_hash, vendor, version_string, java_vm_name,
+                  java_vm_vendor, java_vendor_version, jvm_heap_gc_details, system_os_name,
+                  system_os_version, os_arch, workload)
+                VALUES (?1, ?2, ?3, ?4, ?5, ?6, ?7, ?8, ?9, ?10, ?11)
+                ON CONFLICT (profile_hash) DO NOTHING
+            """)
+        .setParameter(1, hash.toBytes())
+        .setParameter(2, profile.getVendor())
+        .setParameter(3, profile.getVersionString())
+        .setParameter(4, profile.getJavaVmName())
+        .setParameter(5, profile.getJavaVmVendor())
+        .setParameter(6, profile.getJavaVendorVersion())
+        .setParameter(7, profile.getJvmHeapGcDetails())
+        .setParameter(8, profile.getSystemOsName())
+        .setParameter(9, profile.getSystemOsVersion())
+        .setParameter(10, profile.getOsArch())
+        .setParameter(11, profile.getWorkload())
+        .executeUpdate();
+    return entityManager
+        .createQuery("SELECT p.id FROM RuntimeProfile p WHERE p.profileHash = :hash", Integer.class)
+        .setParameter("hash", hash)
+        .getSingleResult();
+  }
+}
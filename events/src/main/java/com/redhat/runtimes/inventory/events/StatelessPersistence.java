@@ -0,0 +1,223 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.events;
+
+import com.redhat.runtimes.inventory.metrics.PersistenceStats;
+import com.redhat.runtimes.inventory.models.ConfigBlob;
+import com.redhat.runtimes.inventory.models.Digest;
+import com.redhat.runtimes.inventory.models.EapConfiguration;
+import com.redhat.runtimes.inventory.models.EapInstance;
+import com.redhat.runtimes.inventory.models.JarHash;
+import com.redhat.runtimes.inventory.models.JvmInstanceBase;
+import com.redhat.runtimes.inventory.models.TextCodec;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.PersistenceUnitUtil;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+/**
+ * Inserts new instances with a {@link StatelessSession} instead of the persistence context of the
+ * entity manager: nothing is copied to be dirty checked at flush, and the rows are written table by
+ * table, parents first, in JDBC batches.
+ *
+ * <p>A stateless session ignores the collections and the cascades of the entities, so the rows of
+ * the join tables and the raw report are written here with batches of their own. The session works
+ * on the connection of the current transaction, the instance is rolled back with it.
+ */
+@ApplicationScoped
+public class StatelessPersistence {
+  private static final TextCodec CODEC = TextCodec.configured();
+
+  @Inject SessionFactory sessionFactory;
+
+  @Inject Validator validator;
+
+  @ConfigProperty(name = "inventory.persistence.batch-size", defaultValue = "50")
+  int batchSize;
+
+  /** Inserts a new instance, with its configuration, deployments and jar hashes. */
+  void insert(JvmInstanceBase inst) {
+    try (var session = sessionFactory.openStatelessSession()) {
+      insert(session, batchSize, validator, inst);
+    }
+  }
+
+  static void insert(
+      StatelessSession session, int batchSize, Validator validator, JvmInstanceBase inst) {
+    session.setJdbcBatchSize(batchSize);
+    var links = JarHashLoader.links(inst);
+
+    insert(session, validator, inst);
+    EapConfiguration configuration = null;
+    if (inst instanceof EapInstance eap) {
+      configuration = eap.getConfiguration();
+      if (configuration != null) {
+        insert(session, validator, configuration);
+      }
+      if (eap.getDeployments() != null) {
+        for (var deployment : eap.getDeployments()) {
+          insert(session, validator, deployment);
+        }
+      }
+    }
+    // A jar can be in more than one set
+    Set<JarHash> inserted = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (var link : links) {
+      for (var jar : link.jars()) {
+        if (inserted.add(jar)) {
+          insert(session, validator, jar);
+        }
+      }
+    }
+    // The rows of the entities have to be written before the ones that reference them
+    var implementor = (SharedSessionContractImplementor) session;
+    implementor.getJdbcCoordinator().executeBatch();
+
+    var ids = implementor.getFactory().getPersistenceUnitUtil();
+    var eapConfiguration = configuration;
+    session.doWork(
+        connection -> {
+          if (inst instanceof EapInstance eap && !eap.getRaw().isEmpty()) {
+            insertRows(
+                connection,
+                batchSize,
+                "INSERT INTO eap_instance_raw (eap_instance_id, raw) VALUES (?, ?)",
+                List.of(eap),
+                (statement, row) -> {
+                  statement.setObject(1, row.getId());
+                  statement.setBytes(2, CODEC.encode(row.getRaw()));
+                });
+          }
+          if (eapConfiguration != null) {
+            insertConfigurationRows(connection, batchSize, ids, eapConfiguration);
+          }
+          for (var link : links) {
+            var owner = link.owner().get();
+            insertRows(
+                connection,
+                batchSize,
+                "INSERT INTO "
+                    + link.table()
+                    + " ("
+                    + link.ownerColumn()
+                    + ", jar_hash_id) VALUES (?, ?)",
+                link.jars(),
+                (statement, jar) -> {
+                  statement.setObject(1, owner);
+                  statement.setObject(2, jar.getId());
+                });
+          }
+        });
+  }
+
+  // The extensions and the blobs are references to stored rows, their ids are read without loading
+  // them
+  private static void insertConfigurationRows(
+      Connection connection, int batchSize, PersistenceUnitUtil ids, EapConfiguration configuration)
+      throws SQLException {
+    var id = configuration.getId();
+    if (configuration.getExtensions() != null) {
+      insertRows(
+          connection,
+          batchSize,
+          "INSERT INTO eap_configuration_eap_extension (eap_configuration_id, eap_extension_id)"
+              + " VALUES (?, ?)",
+          configuration.getExtensions(),
+          (statement, extension) -> {
+            statement.setObject(1, id);
+            statement.setObject(2, ids.getIdentifier(extension));
+          });
+    }
+    insertBlobRows(
+        connection,
+        batchSize,
+        ids,
+        "INSERT INTO eap_configuration_subsystems"
+            + " (eap_configuration_id, subsystems_key, config_blob_hash) VALUES (?, ?, ?)",
+        id,
+        configuration.getSubsystemBlobs());
+    insertBlobRows(
+        connection,
+        batchSize,
+        ids,
+        "INSERT INTO eap_configuration_deployments"
+            + " (eap_configuration_id, deployments_key, config_blob_hash) VALUES (?, ?, ?)",
+        id,
+        configuration.getDeploymentBlobs());
+  }
+
+  private static void insertBlobRows(
+      Connection connection,
+      int batchSize,
+      PersistenceUnitUtil ids,
+      String sql,
+      UUID configurationId,
+      Map<String, ConfigBlob> blobs)
+      throws SQLException {
+    if (blobs == null) {
+      return;
+    }
+    insertRows(
+        connection,
+        batchSize,
+        sql,
+        blobs.entrySet(),
+        (statement, entry) -> {
+          statement.setObject(1, configurationId);
+          statement.setString(2, entry.getKey());
+          statement.setBytes(3, ((Digest) ids.getIdentifier(entry.getValue())).toBytes());
+        });
+  }
+
+  private static <T> void insertRows(
+      Connection connection, int batchSize, String sql, Collection<T> rows, Binder<T> binder)
+      throws SQLException {
+    if (rows.isEmpty()) {
+      return;
+    }
+    try (var statement = connection.prepareStatement(sql)) {
+      PersistenceStats.statementsPrepared(1);
+      int pending = 0;
+      for (var row : rows) {
+        binder.bind(statement, row);
+        statement.addBatch();
+        if (++pending == batchSize) {
+          statement.executeBatch();
+          pending = 0;
+        }
+      }
+      if (pending > 0) {
+        statement.executeBatch();
+      }
+    }
+  }
+
+  // As Hibernate does before inserting an entity
+  private static void insert(StatelessSession session, Validator validator, Object entity) {
+    var violations = validator.validate(entity);
+    if (!violations.isEmpty()) {
+      throw new ConstraintViolationException(violations);
+    }
+    session.insert(entity);
+    // A stateless session fires no insert events
+    PersistenceStats.entitiesInserted(1);
+  }
+
+  private interface Binder<T> {
+    void bind(PreparedStatement statement, T row) throws SQLException;
+  }
+}
@@ -0,0 +1,58 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.events;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Shares the instances of the strings that repeat across reports (vendors, versions, jar names...)
+ * between all the reports being mapped at the same time.
+ *
+ * <p>The pool is a fixed number of slots, each holding a weak reference to the last value whose
+ * hash fell on it: its memory is bounded, a value no longer used by any report is collected, and a
+ * value is only evicted by one with the same slot. Threads race without locking, at worst a value
+ * is pooled twice and one of the copies is not shared.
+ */
+public final class StringPool {
+  // Longer values rarely repeat, and the pool would only keep them around
+  static final int MAX_LENGTH = 256;
+
+  private final AtomicReferenceArray<WeakReference<String>> slots;
+  private final int mask;
+
+  /**
+   * @param slots the number of slots, rounded up to a power of two, or 0 for a pool that returns
+   *     every value as is
+   */
+  public StringPool(int slots) {
+    if (slots < 0) {
+      throw new IllegalArgumentException("Negative number of slots: " + slots);
+    }
+    int size = slots <= 1 ? slots : Integer.highestOneBit(slots - 1) << 1;
+    this.slots = new AtomicReferenceArray<>(size);
+    this.mask = size - 1;
+  }
+
+  /** The pooled instance equal to the value, which becomes the pooled one if there is none. */
+  public String intern(String value) {
+    if (value == null || mask < 0 || value.length() > MAX_LENGTH) {
+      return value;
+    }
+    int hash = value.hashCode();
+    int index = (hash ^ (hash >>> 16)) & mask;
+    var ref = slots.get(index);
+    if (ref != null) {
+      var pooled = ref.get();
+      if (value.equals(pooled)) {
+        return pooled;
+      }
+    }
+    slots.set(index, new WeakReference<>(value));
+    return value;
+  }
+
+  /** The number of slots. */
+  public int size() {
+    return slots.length();
+  }
+}
@@ -1,9 +1,13 @@
-/* Copyright (C) Red Hat 2023 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.runtimes.inventory.events;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.redhat.runtimes.inventory.models.DetailsPolicy;
+import com.redhat.runtimes.inventory.models.Digest;
 import com.redhat.runtimes.inventory.models.EapConfiguration;
 import com.redhat.runtimes.inventory.models.EapDeployment;
 import com.redhat.runtimes.inventory.models.EapExtension;
@@ -20,18 +24,72 @@ import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.util.*;
+import org.eclipse.microprofile.config.ConfigProvider;
 
 public final class Utils {
 
   private Utils() {}
 
-  @SuppressWarnings("unchecked")
-  public static InsightsMessage instanceOf(ArchiveAnnouncement announce, String json) {
+  private static final ObjectMapper MAPPER = newMapper();
+
+  /** The number of slots of the pool of repeated values, 0 to turn the pool off. */
+  public static final String STRING_POOL_SLOTS = "inventory.string-pool.slots";
+
+  private static final StringPool STRINGS =
+      new StringPool(
+          ConfigProvider.getConfig()
+              .getOptionalValue(STRING_POOL_SLOTS, Integer.class)
+              .orElse(16384));
+
+  private static final DetailsPolicy DETAILS = DetailsPolicy.configured();
+
+  // The values of "basic" that are the same on many hosts. They are pooled in the map itself, as
+  // it is kept as the details of the instance.
+  private static final List<String> POOLED_BASIC_KEYS =
+      List.of(
+          "java.runtime.version",
+          "java.version",
+          "java.vm.specification.vendor",
+          "java.vm.specification.version",
+          "java.class.version",
+          "java.home",
+          "java.vendor",
+          "java.specification.vendor",
+          "java.vendor.version",
+          "java.vm.name",
+          "java.vm.vendor",
+          "jvm.heap.gc.details",
+          "system.arch",
+          "system.os.name",
+          "system.os.version");
+
+  private static ObjectMapper newMapper() {
+    var mapper = new ObjectMapper();
+    mapper.registerModule(
+        new SimpleModule()
+            .addDeserializer(Object.class, new RawFragmentDeserializer(mapper.getFactory())));
+    return mapper;
+  }
+
+  /** Reads a report, to be passed to the methods that take an already parsed report. */
+  public static Map<String, Object> parse(String json) {
     TypeReference<Map<String, Object>> typeRef = new TypeReference<>() {};
+    try {
+      return MAPPER.readValue(json, typeRef);
+    } catch (JsonProcessingException e) {
+      Log.error("Error in unmarshalling JSON", e);
+      throw new RuntimeException("Error in unmarshalling JSON", e);
+    }
+  }
 
-    var mapper = new ObjectMapper();
+  public static InsightsMessage instanceOf(ArchiveAnnouncement announce, String json) {
+    return instanceOf(announce, json, parse(json));
+  }
+
+  @SuppressWarnings("unchecked")
+  public static InsightsMessage instanceOf(
+      ArchiveAnnouncement announce, String json, Map<String, Object> o) {
     try {
-      var o = mapper.readValue(json, typeRef);
       var basic = (Map<String, Object>) o.get("basic");
       if (basic == null) {
         var updatedJars = (Map<String, Object>) o.get("updated-jars");
@@ -45,30 +103,31 @@ public final class Utils {
       // Is this an Eap Instance?
       var eap = (Map<String, Object>) o.get("eap");
       if (eap != null) {
-        return eapInstanceOf(announce, json);
+        return eapInstanceOf(announce, json, o);
       }
-      return jvmInstanceOf(announce, json);
-    } catch (JsonProcessingException | ClassCastException | NumberFormatException e) {
+      return jvmInstanceOf(announce, o);
+    } catch (ClassCastException | NumberFormatException e) {
       Log.error("Error in unmarshalling JSON", e);
       throw new RuntimeException("Error in unmarshalling JSON", e);
     }
   }
+
   /****************************************************************************
    *                             JVM Methods
    ***************************************************************************/
-  @SuppressWarnings("unchecked")
   public static JvmInstance jvmInstanceOf(ArchiveAnnouncement announce, String json) {
+    return jvmInstanceOf(announce, parse(json));
+  }
+
+  @SuppressWarnings("unchecked")
+  static JvmInstance jvmInstanceOf(ArchiveAnnouncement announce, Map<String, Object> o) {
     var inst = new JvmInstance();
     // Announce fields first
     inst.setAccountId(announce.getAccountId());
     inst.setOrgId(announce.getOrgId());
     inst.setCreated(announce.getTimestamp().atZone(ZoneOffset.UTC));
 
-    TypeReference<Map<String, Object>> typeRef = new TypeReference<>() {};
-
-    var mapper = new ObjectMapper();
     try {
-      var o = mapper.readValue(json, typeRef);
       var basic = (Map<String, Object>) o.get("basic");
       if (basic == null) {
         throw new RuntimeException(
@@ -82,7 +141,7 @@ public final class Utils {
       if (details != null) {
         var workload = details.get("workloadType");
         if (workload != null) {
-          inst.setWorkload(String.valueOf(workload));
+          inst.setWorkload(pooled(workload));
         }
         if (details.containsKey("is_ocp")) {
           inst.setOcp(Boolean.parseBoolean(details.get("is_ocp").toString()));
@@ -94,12 +153,13 @@ public final class Utils {
           inst.setOcp(true);
         }
       }
-    } catch (JsonProcessingException | ClassCastException | NumberFormatException e) {
+    } catch (ClassCastException | NumberFormatException e) {
       Log.error("Error in unmarshalling JSON", e);
       throw new RuntimeException("Error in unmarshalling JSON", e);
     }
 
     inst.sanitize();
+    DETAILS.apply(inst);
     return inst;
   }
 
@@ -107,6 +167,10 @@ public final class Utils {
       JvmInstance inst, Map<String, Object> o, Map<String, Object> basic) {
 
     try {
+      POOLED_BASIC_KEYS.forEach(
+          key ->
+              basic.computeIfPresent(
+                  key, (k, v) -> v instanceof String value ? STRINGS.intern(value) : v));
       inst.setLinkingHash((String) o.get("idHash"));
 
       inst.setVersionString(String.valueOf(basic.get("java.runtime.version")));
@@ -181,24 +245,40 @@ public final class Utils {
   @SuppressWarnings("unchecked")
   public static JarHash jarHashOf(Map<String, Object> jarJson) {
     var out = new JarHash();
-    out.setName((String) jarJson.getOrDefault("name", ""));
-    out.setVersion((String) jarJson.getOrDefault("version", ""));
+    out.setName(STRINGS.intern((String) jarJson.getOrDefault("name", "")));
+    out.setVersion(STRINGS.intern((String) jarJson.getOrDefault("version", "")));
 
     var attrs = (Map<String, String>) jarJson.getOrDefault("attributes", Map.of());
-    out.setGroupId(attrs.getOrDefault("groupId", ""));
-    out.setVendor(attrs.getOrDefault("Implementation-Vendor", ""));
-    out.setSha1Checksum(attrs.getOrDefault("sha1Checksum", ""));
-    out.setSha256Checksum(attrs.getOrDefault("sha256Checksum", ""));
-    out.setSha512Checksum(attrs.getOrDefault("sha512Checksum", ""));
+    out.setGroupId(STRINGS.intern(attrs.getOrDefault("groupId", "")));
+    out.setVendor(STRINGS.intern(attrs.getOrDefault("Implementation-Vendor", "")));
+    out.setSha1Checksum(checksumOf(out, attrs, "sha1Checksum", 20));
+    out.setSha256Checksum(checksumOf(out, attrs, "sha256Checksum", 32));
+    out.setSha512Checksum(checksumOf(out, attrs, "sha512Checksum", 64));
 
     return out;
   }
 
+  // The checksums are stored as bytes, a value that is not the hex of as many bytes as the digest
+  // has is dropped
+  private static String checksumOf(JarHash jar, Map<String, String> attrs, String key, int length) {
+    var checksum = attrs.getOrDefault(key, "");
+    if (!checksum.isEmpty() && (checksum.length() != 2 * length || !Digest.isHex(checksum))) {
+      Log.warnf("Ignoring the malformed %s of %s: %s", key, jar.getName(), checksum);
+      return "";
+    }
+    return checksum;
+  }
+
   /****************************************************************************
    *                             EAP Methods
    ***************************************************************************/
-  @SuppressWarnings("unchecked")
   public static EapInstance eapInstanceOf(ArchiveAnnouncement announce, String json) {
+    return eapInstanceOf(announce, json, parse(json));
+  }
+
+  @SuppressWarnings("unchecked")
+  static EapInstance eapInstanceOf(
+      ArchiveAnnouncement announce, String json, Map<String, Object> o) {
     var inst = new EapInstance();
     inst.setRaw(json);
     // Announce fields first
@@ -206,11 +286,7 @@ public final class Utils {
     inst.setOrgId(announce.getOrgId());
     inst.setCreated(announce.getTimestamp().atZone(ZoneOffset.UTC));
 
-    TypeReference<Map<String, Object>> typeRef = new TypeReference<>() {};
-
-    var mapper = new ObjectMapper();
     try {
-      var o = mapper.readValue(json, typeRef);
       var basic = (Map<String, Object>) o.get("basic");
       mapJvmInstanceValues(inst, o, basic);
 
@@ -237,7 +313,7 @@ public final class Utils {
         throw new RuntimeException(
             "Error in unmarshalling JSON - is an EapInstance without an eap definition.");
       }
-      inst.setEapVersion(String.valueOf(eapRep.get("eap-version")));
+      inst.setEapVersion(pooled(eapRep.get("eap-version")));
       var eapRepInstall = (Map<String, Object>) eapRep.get("eap-installation");
       if (eapRepInstall != null) {
         // TODO: I don't like this [boolean of string of] stuff.
@@ -257,12 +333,13 @@ public final class Utils {
       inst.setDeployments(eapDeploymentsOf(inst, depRep));
 
       // System.out.println(mapper.writeValueAsString(inst));
-    } catch (JsonProcessingException | ClassCastException | NumberFormatException e) {
+    } catch (ClassCastException | NumberFormatException e) {
       Log.error("Error in unmarshalling JSON", e);
       throw new RuntimeException("Error in unmarshalling JSON", e);
     }
 
     inst.sanitize();
+    DETAILS.apply(inst);
     return inst;
   }
 
@@ -296,26 +373,24 @@ public final class Utils {
       throw new RuntimeException(
           "Error in unmarshalling JSON - is an EapInstance without an eap-configuration.");
     }
-    var mapper = new ObjectMapper();
     var config = new EapConfiguration();
     config.setEapInstance(inst);
-    config.setVersion(String.valueOf(eapConfigRep.get("version")));
+    config.setVersion(pooled(eapConfigRep.get("version")));
 
     var configRep = (Map<String, Object>) eapConfigRep.get("configuration");
-    config.setLaunchType(String.valueOf(configRep.get("launch-type")));
+    config.setLaunchType(pooled(configRep.get("launch-type")));
     config.setName(String.valueOf(configRep.get("name")));
-    config.setOrganization(String.valueOf(configRep.get("organization")));
-    config.setProcessType(String.valueOf(configRep.get("process-type")));
-    config.setProductName(String.valueOf(configRep.get("product-name")));
-    config.setProductVersion(String.valueOf(configRep.get("product-version")));
-    config.setProfileName(String.valueOf(configRep.get("profile-name")));
-    config.setReleaseCodename(String.valueOf(configRep.get("release-codename")));
-    config.setReleaseVersion(String.valueOf(configRep.get("release-version")));
-    config.setRunningMode(String.valueOf(configRep.get("running-mode")));
-    config.setRuntimeConfigurationState(
-        String.valueOf(configRep.get("runtime-configuration-state")));
-    config.setServerState(String.valueOf(configRep.get("server-state")));
-    config.setSuspendState(String.valueOf(configRep.get("suspend-state")));
+    config.setOrganization(pooled(configRep.get("organization")));
+    config.setProcessType(pooled(configRep.get("process-type")));
+    config.setProductName(pooled(configRep.get("product-name")));
+    config.setProductVersion(pooled(configRep.get("product-version")));
+    config.setProfileName(pooled(configRep.get("profile-name")));
+    config.setReleaseCodename(pooled(configRep.get("release-codename")));
+    config.setReleaseVersion(pooled(configRep.get("release-version")));
+    config.setRunningMode(pooled(configRep.get("running-mode")));
+    config.setRuntimeConfigurationState(pooled(configRep.get("runtime-configuration-state")));
+    config.setServerState(pooled(configRep.get("server-state")));
+    config.setSuspendState(pooled(configRep.get("suspend-state")));
 
     // Extension Parsing
     Set<EapExtension> extensions = new HashSet<EapExtension>();
@@ -325,7 +400,7 @@ public final class Utils {
       // { "module"    : "...",
       //   "subsystem" : { ... } }
       EapExtension extension = new EapExtension();
-      extension.setModule(String.valueOf(extRep.get("module")));
+      extension.setModule(pooled(extRep.get("module")));
       Set<NameVersionPair> subsystems = new HashSet<NameVersionPair>();
       var subRep = (Map<String, Map<String, Integer>>) extRep.get("subsystem");
       for (Map.Entry<String, Map<String, Integer>> subEntry : subRep.entrySet()) {
@@ -341,7 +416,7 @@ public final class Utils {
         String version = String.valueOf(versions.get("management-major-version"));
         version += "." + String.valueOf(versions.get("management-minor-version"));
         version += "." + String.valueOf(versions.get("management-micro-version"));
-        subsystem.setVersion(version);
+        subsystem.setVersion(STRINGS.intern(version));
         subsystems.add(subsystem);
       }
       extension.setSubsystems(subsystems);
@@ -351,17 +426,16 @@ public final class Utils {
 
     // JSON Dumps begin here
     try {
-      config.setSocketBindingGroups(
-          mapper.writeValueAsString(configRep.get("socket-binding-group")));
-      config.setPaths(mapper.writeValueAsString(configRep.get("path")));
-      config.setInterfaces(mapper.writeValueAsString(configRep.get("interface")));
-      config.setCoreServices(mapper.writeValueAsString(configRep.get("core-service")));
+      config.setSocketBindingGroups(dump(configRep.get("socket-binding-group")));
+      config.setPaths(dump(configRep.get("path")));
+      config.setInterfaces(dump(configRep.get("interface")));
+      config.setCoreServices(dump(configRep.get("core-service")));
 
       // Subsystem parsing
       Map<String, String> subsystems = new HashMap<>();
       Map<String, Object> subsystemRep = (Map<String, Object>) configRep.get("subsystem");
       for (Map.Entry<String, Object> entry : subsystemRep.entrySet()) {
-        subsystems.put(entry.getKey(), mapper.writeValueAsString(entry.getValue()));
+        subsystems.put(entry.getKey(), dump(entry.getValue()));
       }
       config.setSubsystems(subsystems);
 
@@ -370,7 +444,7 @@ public final class Utils {
       Map<String, Object> deploymentRep = (Map<String, Object>) configRep.get("deployment");
       if (deploymentRep != null) {
         for (Map.Entry<String, Object> entry : deploymentRep.entrySet()) {
-          deployments.put(entry.getKey(), mapper.writeValueAsString(entry.getValue()));
+          deployments.put(entry.getKey(), dump(entry.getValue()));
         }
       }
       config.setDeployments(deployments);
@@ -386,14 +460,28 @@ public final class Utils {
   /****************************************************************************
    *                             Utility Methods
    ***************************************************************************/
+  // A value that many reports have, shared with the ones being mapped at the same time
+  static String pooled(Object value) {
+    return STRINGS.intern(String.valueOf(value));
+  }
+
+  // A part of the EAP configuration as JSON, which the parser has already copied if it read the
+  // report
+  static String dump(Object fragment) throws JsonProcessingException {
+    if (fragment instanceof RawValue raw) {
+      return (String) raw.rawValue();
+    }
+    return MAPPER.writeValueAsString(fragment);
+  }
+
   // Given a message, should we process it and persist it?
-  @SuppressWarnings("unchecked")
   public static boolean shouldProcessMessage(String json, Clock clock, boolean isEgg) {
-    TypeReference<Map<String, Object>> typeRef = new TypeReference<>() {};
+    return shouldProcessMessage(parse(json), clock, isEgg);
+  }
 
-    var mapper = new ObjectMapper();
+  @SuppressWarnings("unchecked")
+  static boolean shouldProcessMessage(Map<String, Object> o, Clock clock, boolean isEgg) {
     try {
-      var o = mapper.readValue(json, typeRef);
       var basic = (Map<String, Object>) o.get("basic");
       // This might be an update. If so, things are fine
       if (basic == null) {
@@ -419,7 +507,7 @@ public final class Utils {
             messageTime, yesterday);
         return false;
       }
-    } catch (JsonProcessingException | ClassCastException | NumberFormatException e) {
+    } catch (ClassCastException | NumberFormatException e) {
       Log.error("Error in unmarshalling JSON", e);
       throw new RuntimeException("Error in unmarshalling JSON", e);
     }
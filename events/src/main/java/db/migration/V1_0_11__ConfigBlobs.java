@@ -0,0 +1,207 @@
+/* Copyright (C) Red Hat 2026 */
+package db.migration;
+
+import com.redhat.runtimes.inventory.models.Digest;
+import com.redhat.runtimes.inventory.models.TextCodec;
+import io.quarkus.logging.Log;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Moves the subsystems and deployments of the EAP configurations to the shared config_blob table
+ * (see {@code ConfigBlob}), keyed by the SHA-256 of their text. The blobs are compressed, so this
+ * can't be a plain SQL migration either.
+ *
+ * <p>Rows are moved in batches, each in its own transaction and paged by key, as in {@link
+ * V1_0_6__CompressTextColumns}, and the migration can be run again after a failure, once {@code
+ * flyway repair} has removed the record of the failed run: it skips the rows that have already been
+ * moved.
+ *
+ * <p>The text columns stay for the pods of the previous version during the rollout: a trigger moves
+ * what they write, stored uncompressed. They can be dropped, with the trigger, by a later migration
+ * once no such pod is left.
+ */
+public class V1_0_11__ConfigBlobs extends BaseJavaMigration {
+
+  static final int BATCH_SIZE = 500;
+
+  // table, map key column, text column
+  private static final String[][] COLUMNS = {
+    {"eap_configuration_subsystems", "subsystems_key", "subsystems"},
+    {"eap_configuration_deployments", "deployments_key", "deployments"}
+  };
+
+  @Override
+  public boolean canExecuteInTransaction() {
+    return false;
+  }
+
+  @Override
+  public void migrate(Context context) throws Exception {
+    var connection = context.getConnection();
+    var autoCommit = connection.getAutoCommit();
+    connection.setAutoCommit(false);
+    try {
+      execute(
+          connection,
+          """
+            CREATE TABLE IF NOT EXISTS config_blob (
+              hash bytea NOT NULL PRIMARY KEY,
+              content bytea NOT NULL
+            )
+          """);
+      var codec = TextCodec.configured();
+      for (var table : COLUMNS) {
+        moveColumn(connection, codec, table[0], table[1], table[2]);
+      }
+    } finally {
+      connection.setAutoCommit(autoCommit);
+    }
+  }
+
+  private static void moveColumn(
+      Connection connection, TextCodec codec, String table, String key, String column)
+      throws SQLException {
+    if (V1_0_6__CompressTextColumns.columnType(connection, table, column) == null) {
+      Log.infof("%s.%s has already been dropped", table, column);
+      return;
+    }
+    // The rows written from now on by the previous version are moved by the trigger, stored with
+    // the PLAIN codec
+    execute(
+        connection,
+        "ALTER TABLE "
+            + table
+            + " ADD COLUMN IF NOT EXISTS config_blob_hash bytea, ALTER COLUMN "
+            + column
+            + " DROP NOT NULL",
+        """
+          CREATE OR REPLACE FUNCTION config_blob_hash() RETURNS trigger
+            LANGUAGE plpgsql AS $$
+              DECLARE
+                dump text := to_jsonb(NEW) ->> TG_ARGV[0];
+              BEGIN
+                IF dump IS NOT NULL AND (NEW.config_blob_hash IS NULL
+                    OR dump IS DISTINCT FROM to_jsonb(OLD) ->> TG_ARGV[0]) THEN
+                  NEW.config_blob_hash := sha256(convert_to(dump, 'UTF8'));
+                  INSERT INTO config_blob (hash, content)
+                    VALUES (NEW.config_blob_hash, decode('00', 'hex') || convert_to(dump, 'UTF8'))
+                    ON CONFLICT (hash) DO NOTHING;
+                END IF;
+                RETURN NEW;
+              END
+            $$
+        """,
+        "DROP TRIGGER IF EXISTS config_blob_hash ON " + table,
+        "CREATE TRIGGER config_blob_hash BEFORE INSERT OR UPDATE ON "
+            + table
+            + " FOR EACH ROW EXECUTE FUNCTION config_blob_hash('"
+            + column
+            + "')");
+
+    var select =
+        "SELECT eap_configuration_id, " + key + ", " + column + " FROM " + table + " WHERE ";
+    var page =
+        " config_blob_hash IS NULL ORDER BY eap_configuration_id, " + key + " LIMIT " + BATCH_SIZE;
+    var insert =
+        "INSERT INTO config_blob (hash, content) VALUES (?, ?) ON CONFLICT (hash) DO NOTHING";
+    var update =
+        "UPDATE "
+            + table
+            + " SET config_blob_hash = ? WHERE eap_configuration_id = ? AND "
+            + key
+            + " = ?";
+    long moved = 0;
+    try (var first = connection.prepareStatement(select + page);
+        var next =
+            connection.prepareStatement(
+                select + "(eap_configuration_id, " + key + ") > (?, ?) AND" + page);
+        var blobs = connection.prepareStatement(insert);
+        var statement = connection.prepareStatement(update)) {
+      Object[] last = null;
+      while (true) {
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        Map<Digest, String> contents = new HashMap<>();
+        var query = last == null ? first : next;
+        if (last != null) {
+          query.setObject(1, last[0]);
+          query.setString(2, (String) last[1]);
+        }
+        try (var rs = query.executeQuery()) {
+          while (rs.next()) {
+            var text = rs.getString(3);
+            var hash = Digest.sha256(text);
+            contents.putIfAbsent(hash, text);
+            rows.add(new Object[] {rs.getObject(1), rs.getString(2), hash});
+          }
+        }
+        if (rows.isEmpty()) {
+          if (last == null) {
+            break;
+          }
+          // Then once more from the start, in case rows were inserted behind the cursor without a
+          // hash
+          last = null;
+          continue;
+        }
+        for (var blob : contents.entrySet()) {
+          blobs.setBytes(1, blob.getKey().toBytes());
+          blobs.setBytes(2, codec.encode(blob.getValue()));
+          blobs.addBatch();
+        }
+        blobs.executeBatch();
+        for (var row : rows) {
+          statement.setBytes(1, ((Digest) row[2]).toBytes());
+          statement.setObject(2, row[0]);
+          statement.setString(3, (String) row[1]);
+          statement.addBatch();
+        }
+        statement.executeBatch();
+        connection.commit();
+        moved += rows.size();
+        last = rows.get(rows.size() - 1);
+      }
+    }
+    Log.infof("Moved %d values of %s.%s to config_blob", moved, table, column);
+
+    // Added NOT VALID, which only briefly locks the table, and then validated without blocking the
+    // writes, unlike SET NOT NULL
+    var check = "CK_" + table.toUpperCase(Locale.ROOT) + "_CONFIG_BLOB";
+    var foreignKey = "FK_" + table.toUpperCase(Locale.ROOT) + "_CONFIG_BLOB";
+    execute(
+        connection,
+        "ALTER TABLE "
+            + table
+            + " DROP CONSTRAINT IF EXISTS "
+            + check
+            + ", ADD CONSTRAINT "
+            + check
+            + " CHECK (config_blob_hash IS NOT NULL) NOT VALID",
+        "ALTER TABLE "
+            + table
+            + " DROP CONSTRAINT IF EXISTS "
+            + foreignKey
+            + ", ADD CONSTRAINT "
+            + foreignKey
+            + " FOREIGN KEY (config_blob_hash) REFERENCES config_blob (hash) NOT VALID");
+    execute(connection, "ALTER TABLE " + table + " VALIDATE CONSTRAINT " + check);
+    execute(connection, "ALTER TABLE " + table + " VALIDATE CONSTRAINT " + foreignKey);
+  }
+
+  private static void execute(Connection connection, String... sql) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      for (var s : sql) {
+        statement.execute(s);
+      }
+    }
+    connection.commit();
+  }
+}
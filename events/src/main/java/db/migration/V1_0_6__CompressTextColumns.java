@@ -0,0 +1,139 @@
+/* Copyright (C) Red Hat 2026 */
+package db.migration;
+
+import com.redhat.runtimes.inventory.models.TextCodec;
+import io.quarkus.logging.Log;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Moves the large text columns to compressed bytea (see {@code CompressedTextConverter}). The
+ * compression has to happen in Java, so this can't be a plain SQL migration.
+ *
+ * <p>Rows are converted in batches, each in its own transaction, to keep locks and memory bounded
+ * on big tables, paged by key so that each batch reads from the primary key index where the last
+ * one stopped. The migration can be run again after a failure: it skips the columns that are
+ * already bytea, and the rows of the current column that have already been converted. Flyway
+ * records the failed run though, so the next start fails its validation until {@code flyway repair}
+ * has removed that record.
+ */
+public class V1_0_6__CompressTextColumns extends BaseJavaMigration {
+
+  static final int BATCH_SIZE = 500;
+
+  // table, primary key column, text columns
+  private static final String[][] COLUMNS = {
+    {"jvm_instance", "id", "java_class_path", "jvm_packages"},
+    {"eap_configuration", "id", "socket_binding_groups", "paths", "interfaces", "core_services"},
+    {"eap_instance_raw", "eap_instance_id", "raw"}
+  };
+
+  @Override
+  public boolean canExecuteInTransaction() {
+    return false;
+  }
+
+  @Override
+  public void migrate(Context context) throws Exception {
+    var connection = context.getConnection();
+    var autoCommit = connection.getAutoCommit();
+    connection.setAutoCommit(false);
+    try {
+      var codec = TextCodec.configured();
+      for (var table : COLUMNS) {
+        for (int i = 2; i < table.length; i++) {
+          compressColumn(connection, codec, table[0], table[1], table[i]);
+        }
+      }
+    } finally {
+      connection.setAutoCommit(autoCommit);
+    }
+  }
+
+  private static void compressColumn(
+      Connection connection, TextCodec codec, String table, String key, String column)
+      throws SQLException {
+    if ("bytea".equals(columnType(connection, table, column))) {
+      Log.infof("%s.%s is already compressed", table, column);
+      return;
+    }
+    var compressed = column + "_compressed";
+    execute(
+        connection, "ALTER TABLE " + table + " ADD COLUMN IF NOT EXISTS " + compressed + " bytea");
+
+    var select = "SELECT " + key + ", " + column + " FROM " + table + " WHERE ";
+    var page = " " + compressed + " IS NULL ORDER BY " + key + " LIMIT " + BATCH_SIZE;
+    var update = "UPDATE " + table + " SET " + compressed + " = ? WHERE " + key + " = ?";
+    long converted = 0;
+    try (var first = connection.prepareStatement(select + page);
+        var next = connection.prepareStatement(select + key + " > ? AND" + page);
+        var statement = connection.prepareStatement(update)) {
+      Object last = null;
+      while (true) {
+        List<Object> keys = new ArrayList<>(BATCH_SIZE);
+        List<byte[]> values = new ArrayList<>(BATCH_SIZE);
+        var query = last == null ? first : next;
+        if (last != null) {
+          query.setObject(1, last);
+        }
+        try (var rs = query.executeQuery()) {
+          while (rs.next()) {
+            keys.add(rs.getObject(1));
+            var text = rs.getString(2);
+            values.add(codec.encode(text == null ? "" : text));
+          }
+        }
+        if (keys.isEmpty()) {
+          break;
+        }
+        for (int i = 0; i < keys.size(); i++) {
+          statement.setBytes(1, values.get(i));
+          statement.setObject(2, keys.get(i));
+          statement.addBatch();
+        }
+        statement.executeBatch();
+        connection.commit();
+        converted += keys.size();
+        last = keys.get(keys.size() - 1);
+      }
+    }
+    Log.infof("Compressed %d values of %s.%s", converted, table, column);
+
+    // In a single transaction, so that a column is either text or bytea when a run fails
+    execute(
+        connection,
+        "ALTER TABLE " + table + " DROP COLUMN " + column,
+        "ALTER TABLE " + table + " RENAME COLUMN " + compressed + " TO " + column,
+        "ALTER TABLE " + table + " ALTER COLUMN " + column + " SET NOT NULL");
+  }
+
+  // The type of the column, or null when it doesn't exist
+  static String columnType(Connection connection, String table, String column) throws SQLException {
+    try (var query =
+        connection.prepareStatement(
+            "SELECT data_type FROM information_schema.columns WHERE table_schema = current_schema()"
+                + " AND table_name = ? AND column_name = ?")) {
+      query.setString(1, table);
+      query.setString(2, column);
+      try (var rs = query.executeQuery()) {
+        return rs.next() ? rs.getString(1) : null;
+      }
+    } finally {
+      connection.commit();
+    }
+  }
+
+  static void execute(Connection connection, String... sql) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      for (var s : sql) {
+        statement.execute(s);
+      }
+    }
+    connection.commit();
+  }
+}
@@ -0,0 +1,76 @@
+-- Store every distinct EAP extension (a module and the versions of its subsystems) once, shared
+-- by the configurations that have it, instead of once per configuration.
+--
+-- This runs outside of a transaction (see the .conf file) so that the existing rows are hashed
+-- and merged in small committed batches. The pods of the previous version keep inserting their
+-- own extensions during the rollout, with no hash: the unique index lets them through, and a
+-- later migration merges them the same way once no such pod is left.
+
+-- The key of an extension, the same as EapExtension.computeContentHash(). The subsystem names and
+-- versions are sorted by code point, like the Java strings they come from.
+CREATE OR REPLACE FUNCTION eap_extension_hash(extension_id uuid, module text) RETURNS bytea
+  LANGUAGE sql STABLE AS $$
+    SELECT sha256(convert_to(concat_ws(E'\x1e', coalesce(module, ''),
+      (SELECT string_agg(s.name || E'\x1f' || s.version, E'\x1e'
+                         ORDER BY s.name COLLATE "C", s.version COLLATE "C")
+         FROM eap_extension_subsystems s
+         WHERE s.eap_extension_id = extension_id)), 'UTF8'))
+  $$;
+
+ALTER TABLE IF EXISTS eap_extension
+  ADD COLUMN IF NOT EXISTS content_hash bytea;
+
+DO $$
+  DECLARE
+    hashed integer;
+  BEGIN
+    LOOP
+      UPDATE eap_extension
+        SET content_hash = eap_extension_hash(id, module)
+        WHERE id IN (SELECT id FROM eap_extension WHERE content_hash IS NULL LIMIT 10000);
+      GET DIAGNOSTICS hashed = ROW_COUNT;
+      EXIT WHEN hashed = 0;
+      COMMIT;
+    END LOOP;
+  END
+$$;
+
+-- Every extension that has the same content as an older one, and the one it is merged into
+CREATE TABLE IF NOT EXISTS eap_extension_merge AS
+  SELECT id, canonical_id
+    FROM (SELECT id, first_value(id) OVER (PARTITION BY content_hash ORDER BY id) AS canonical_id
+            FROM eap_extension
+            WHERE content_hash IS NOT NULL) e
+    WHERE id <> canonical_id;
+CREATE INDEX IF NOT EXISTS IX_EAP_EXTENSION_MERGE ON eap_extension_merge (id);
+
+DO $$
+  DECLARE
+    batch uuid[];
+  BEGIN
+    LOOP
+      SELECT array_agg(id) INTO batch FROM (SELECT id FROM eap_extension_merge LIMIT 1000) m;
+      EXIT WHEN batch IS NULL;
+      INSERT INTO eap_configuration_eap_extension (eap_configuration_id, eap_extension_id)
+        SELECT c.eap_configuration_id, m.canonical_id
+          FROM eap_configuration_eap_extension c
+          JOIN eap_extension_merge m ON m.id = c.eap_extension_id
+          WHERE m.id = ANY (batch)
+        ON CONFLICT DO NOTHING;
+      DELETE FROM eap_configuration_eap_extension WHERE eap_extension_id = ANY (batch);
+      DELETE FROM eap_extension_subsystems WHERE eap_extension_id = ANY (batch);
+      DELETE FROM eap_extension WHERE id = ANY (batch);
+      DELETE FROM eap_extension_merge WHERE id = ANY (batch);
+      COMMIT;
+    END LOOP;
+  END
+$$;
+
+DROP TABLE IF EXISTS eap_extension_merge;
+
+-- An index that a failed run left behind is INVALID, it is not used but still has to be kept up to
+-- date by the writes, so it is dropped and built again rather than skipped. This is the last
+-- statement, so a run that gets here never left a valid one.
+DROP INDEX CONCURRENTLY IF EXISTS U_EAP_EXTENSION_CONTENT_HASH;
+CREATE UNIQUE INDEX CONCURRENTLY U_EAP_EXTENSION_CONTENT_HASH
+  ON eap_extension (content_hash);
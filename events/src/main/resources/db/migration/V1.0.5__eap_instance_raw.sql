@@ -0,0 +1,14 @@
+-- Move the raw EAP report out of eap_instance so that reading an instance does not
+-- have to pull the (often very large) original document from TOAST.
+CREATE TABLE public.eap_instance_raw(
+    eap_instance_id uuid NOT NULL,
+    raw text NOT NULL,
+    PRIMARY KEY (eap_instance_id),
+    CONSTRAINT FK_EAP_INSTANCE FOREIGN KEY (eap_instance_id) REFERENCES eap_instance (id)
+);
+
+INSERT INTO eap_instance_raw (eap_instance_id, raw)
+  SELECT id, raw FROM eap_instance;
+
+ALTER TABLE eap_instance
+  DROP COLUMN raw;
@@ -0,0 +1,12 @@
+-- The type of each instance, so that the JVM columns of an instance can be read from
+-- jvm_instance alone: an EAP instance has a row in jvm_instance and one in eap_instance
+-- with the same id.
+ALTER TABLE IF EXISTS jvm_instance
+  ADD COLUMN instance_type character varying(10) DEFAULT 'jvm' NOT NULL;
+
+UPDATE jvm_instance SET instance_type = 'eap'
+  WHERE id IN (SELECT id FROM eap_instance);
+
+-- eap_instance extends jvm_instance. NOT VALID, so that the existing rows are not scanned.
+ALTER TABLE IF EXISTS eap_instance
+  ADD CONSTRAINT FK_JVM_INSTANCE FOREIGN KEY (id) REFERENCES jvm_instance (id) NOT VALID;
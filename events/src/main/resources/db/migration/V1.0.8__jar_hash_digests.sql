@@ -0,0 +1,65 @@
+-- Store the checksums of jar_hash as raw bytes (20, 32 and 64 bytes) instead of hex strings.
+--
+-- This runs outside of a transaction (see the .conf file) so that the existing rows are
+-- converted in small committed batches, without locking the table for the whole conversion.
+-- The hex columns stay for the pods of the previous version during the rollout: a trigger
+-- converts what they write. They can be dropped, with the trigger, once no such pod is left.
+
+-- A checksum that is not the hex of the given number of bytes is stored empty
+CREATE OR REPLACE FUNCTION jar_hash_digest(checksum text, bytes integer) RETURNS bytea
+  LANGUAGE sql IMMUTABLE AS $$
+    SELECT CASE WHEN checksum ~ ('^([0-9a-fA-F]{2}){' || bytes || '}$')
+                THEN decode(checksum, 'hex')
+                ELSE ''::bytea END
+  $$;
+
+ALTER TABLE IF EXISTS jar_hash
+  ADD COLUMN IF NOT EXISTS sha1 bytea,
+  ADD COLUMN IF NOT EXISTS sha256 bytea,
+  ADD COLUMN IF NOT EXISTS sha512 bytea,
+  ALTER COLUMN sha1checksum DROP NOT NULL,
+  ALTER COLUMN sha256checksum DROP NOT NULL,
+  ALTER COLUMN sha512checksum DROP NOT NULL;
+
+CREATE OR REPLACE FUNCTION jar_hash_digests() RETURNS trigger
+  LANGUAGE plpgsql AS $$
+    BEGIN
+      IF NEW.sha256 IS NULL THEN
+        NEW.sha1 := jar_hash_digest(coalesce(NEW.sha1checksum, ''), 20);
+        NEW.sha256 := jar_hash_digest(coalesce(NEW.sha256checksum, ''), 32);
+        NEW.sha512 := jar_hash_digest(coalesce(NEW.sha512checksum, ''), 64);
+      END IF;
+      RETURN NEW;
+    END
+  $$;
+
+DROP TRIGGER IF EXISTS jar_hash_digests ON jar_hash;
+CREATE TRIGGER jar_hash_digests BEFORE INSERT OR UPDATE ON jar_hash
+  FOR EACH ROW EXECUTE FUNCTION jar_hash_digests();
+
+DO $$
+  DECLARE
+    converted integer;
+  BEGIN
+    LOOP
+      UPDATE jar_hash
+        SET sha1 = jar_hash_digest(sha1checksum, 20),
+            sha256 = jar_hash_digest(sha256checksum, 32),
+            sha512 = jar_hash_digest(sha512checksum, 64)
+        WHERE id IN (SELECT id FROM jar_hash WHERE sha256 IS NULL LIMIT 10000);
+      GET DIAGNOSTICS converted = ROW_COUNT;
+      EXIT WHEN converted = 0;
+      COMMIT;
+    END LOOP;
+  END
+$$;
+
+-- Validated without blocking the writes, unlike SET NOT NULL
+ALTER TABLE IF EXISTS jar_hash
+  ADD CONSTRAINT CK_JAR_HASH_DIGESTS
+    CHECK (sha1 IS NOT NULL AND sha256 IS NOT NULL AND sha512 IS NOT NULL
+           AND octet_length(sha1) IN (0, 20)
+           AND octet_length(sha256) IN (0, 32)
+           AND octet_length(sha512) IN (0, 64)) NOT VALID;
+ALTER TABLE IF EXISTS jar_hash
+  VALIDATE CONSTRAINT CK_JAR_HASH_DIGESTS;
@@ -0,0 +1,125 @@
+-- Store the JVM, OS and workload attributes that many instances have in common once, in
+-- runtime_profile, and reference them from jvm_instance by id.
+--
+-- This runs outside of a transaction (see the .conf file) so that the existing rows are
+-- converted in small committed batches, without locking the table for the whole conversion.
+-- The attribute columns of jvm_instance stay for the pods of the previous version during the
+-- rollout: a trigger looks up the profile of what they write. They can be dropped, with the
+-- trigger, once no such pod is left.
+
+-- The key of a profile, the same as RuntimeProfile.computeProfileHash()
+CREATE OR REPLACE FUNCTION runtime_profile_hash(
+    vendor text, version_string text, java_vm_name text, java_vm_vendor text,
+    java_vendor_version text, jvm_heap_gc_details text, system_os_name text,
+    system_os_version text, os_arch text, workload text) RETURNS bytea
+  LANGUAGE sql IMMUTABLE AS $$
+    SELECT sha256(convert_to(concat_ws(E'\x1f',
+      coalesce(vendor, ''), coalesce(version_string, ''), coalesce(java_vm_name, ''),
+      coalesce(java_vm_vendor, ''), coalesce(java_vendor_version, ''),
+      coalesce(jvm_heap_gc_details, ''), coalesce(system_os_name, ''),
+      coalesce(system_os_version, ''), coalesce(os_arch, ''), coalesce(workload, '')), 'UTF8'))
+  $$;
+
+CREATE TABLE IF NOT EXISTS public.runtime_profile(
+    id integer GENERATED BY DEFAULT AS IDENTITY,
+    profile_hash bytea NOT NULL,
+    vendor character varying(255) NOT NULL,
+    version_string character varying(255) NOT NULL,
+    java_vm_name character varying(255) NOT NULL,
+    java_vm_vendor character varying(255) NOT NULL,
+    java_vendor_version character varying(255) NOT NULL,
+    jvm_heap_gc_details character varying(255) NOT NULL,
+    system_os_name character varying(255) NOT NULL,
+    system_os_version character varying(255) NOT NULL,
+    os_arch character varying(50) NOT NULL,
+    workload character varying(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT U_RUNTIME_PROFILE_HASH UNIQUE (profile_hash)
+);
+
+INSERT INTO runtime_profile (profile_hash, vendor, version_string, java_vm_name, java_vm_vendor,
+    java_vendor_version, jvm_heap_gc_details, system_os_name, system_os_version, os_arch,
+    workload)
+  SELECT DISTINCT ON (1) runtime_profile_hash(vendor, version_string, java_vm_name,
+      java_vm_vendor, java_vendor_version, jvm_heap_gc_details, system_os_name,
+      system_os_version, os_arch, workload),
+    vendor, version_string, java_vm_name, java_vm_vendor, java_vendor_version,
+    jvm_heap_gc_details, system_os_name, system_os_version, os_arch, workload
+  FROM jvm_instance
+  ON CONFLICT (profile_hash) DO NOTHING;
+
+ALTER TABLE IF EXISTS jvm_instance
+  ADD COLUMN IF NOT EXISTS runtime_profile_id integer,
+  ALTER COLUMN vendor DROP NOT NULL,
+  ALTER COLUMN version_string DROP NOT NULL,
+  ALTER COLUMN java_vm_name DROP NOT NULL,
+  ALTER COLUMN java_vm_vendor DROP NOT NULL,
+  ALTER COLUMN java_vendor_version DROP NOT NULL,
+  ALTER COLUMN jvm_heap_gc_details DROP NOT NULL,
+  ALTER COLUMN system_os_name DROP NOT NULL,
+  ALTER COLUMN system_os_version DROP NOT NULL,
+  ALTER COLUMN os_arch DROP NOT NULL,
+  ALTER COLUMN workload DROP NOT NULL;
+
+CREATE INDEX IF NOT EXISTS IX_JVM_INSTANCE_RUNTIME_PROFILE ON jvm_instance (runtime_profile_id);
+
+-- Only the pods of the previous version write the attributes instead of the profile id
+CREATE OR REPLACE FUNCTION jvm_instance_runtime_profile() RETURNS trigger
+  LANGUAGE plpgsql AS $$
+    DECLARE
+      hash bytea;
+    BEGIN
+      IF NEW.runtime_profile_id IS NULL THEN
+        hash := runtime_profile_hash(NEW.vendor, NEW.version_string, NEW.java_vm_name,
+          NEW.java_vm_vendor, NEW.java_vendor_version, NEW.jvm_heap_gc_details,
+          NEW.system_os_name, NEW.system_os_version, NEW.os_arch, NEW.workload);
+        INSERT INTO runtime_profile (profile_hash, vendor, version_string, java_vm_name,
+            java_vm_vendor, java_vendor_version, jvm_heap_gc_details, system_os_name,
+            system_os_version, os_arch, workload)
+          VALUES (hash, NEW.vendor, NEW.version_string, NEW.java_vm_name, NEW.java_vm_vendor,
+            NEW.java_vendor_version, NEW.jvm_heap_gc_details, NEW.system_os_name,
+            NEW.system_os_version, NEW.os_arch, NEW.workload)
+          ON CONFLICT (profile_hash) DO NOTHING;
+        SELECT id INTO NEW.runtime_profile_id FROM runtime_profile WHERE profile_hash = hash;
+      END IF;
+      RETURN NEW;
+    END
+  $$;
+
+DROP TRIGGER IF EXISTS jvm_instance_runtime_profile ON jvm_instance;
+CREATE TRIGGER jvm_instance_runtime_profile BEFORE INSERT OR UPDATE ON jvm_instance
+  FOR EACH ROW EXECUTE FUNCTION jvm_instance_runtime_profile();
+
+-- The profiles of the existing rows were all inserted above
+DO $$
+  DECLARE
+    converted integer;
+  BEGIN
+    LOOP
+      UPDATE jvm_instance i
+        SET runtime_profile_id = p.id
+        FROM runtime_profile p
+        WHERE i.id IN (SELECT id FROM jvm_instance WHERE runtime_profile_id IS NULL LIMIT 10000)
+          AND p.profile_hash = runtime_profile_hash(i.vendor, i.version_string, i.java_vm_name,
+            i.java_vm_vendor, i.java_vendor_version, i.jvm_heap_gc_details, i.system_os_name,
+            i.system_os_version, i.os_arch, i.workload);
+      GET DIAGNOSTICS converted = ROW_COUNT;
+      EXIT WHEN converted = 0;
+      COMMIT;
+    END LOOP;
+  END
+$$;
+
+-- The rows written by the previous version before the trigger existed get their profile from it
+UPDATE jvm_instance SET runtime_profile_id = NULL WHERE runtime_profile_id IS NULL;
+
+-- Validated without blocking the writes, unlike SET NOT NULL
+ALTER TABLE IF EXISTS jvm_instance
+  ADD CONSTRAINT FK_RUNTIME_PROFILE FOREIGN KEY (runtime_profile_id)
+    REFERENCES runtime_profile (id) NOT VALID,
+  ADD CONSTRAINT CK_JVM_INSTANCE_RUNTIME_PROFILE
+    CHECK (runtime_profile_id IS NOT NULL) NOT VALID;
+ALTER TABLE IF EXISTS jvm_instance
+  VALIDATE CONSTRAINT FK_RUNTIME_PROFILE;
+ALTER TABLE IF EXISTS jvm_instance
+  VALIDATE CONSTRAINT CK_JVM_INSTANCE_RUNTIME_PROFILE;
@@ -1,4 +1,4 @@
-/* Copyright (C) Red Hat 2024 */
+/* Copyright (C) Red Hat 2024-2026 */
 package com.redhat.runtimes.inventory.events;
 
 import static com.redhat.runtimes.inventory.events.TestUtils.inputStreamFromResources;
@@ -6,16 +6,21 @@ import static com.redhat.runtimes.inventory.events.TestUtils.readBytesFromResour
 import static com.redhat.runtimes.inventory.events.TestUtils.readFromResources;
 import static com.redhat.runtimes.inventory.events.Utils.instanceOf;
 import static com.redhat.runtimes.inventory.models.InsightsMessage.REDACTED_VALUE;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.*;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redhat.runtimes.inventory.events.generator.ReportGenerator;
+import com.redhat.runtimes.inventory.events.generator.ReportShape;
 import com.redhat.runtimes.inventory.models.EapInstance;
 import com.redhat.runtimes.inventory.models.JarHash;
 import com.redhat.runtimes.inventory.models.JvmInstance;
 import com.redhat.runtimes.inventory.models.UpdateInstance;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.time.Instant;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.junit.jupiter.api.Test;
@@ -41,6 +46,79 @@ public class ArchiveFetcherTest {
     assertEquals(idHash, o.get("idHash"));
   }
 
+  @Test
+  public void testUnzipIsChargedAndCapped() throws IOException {
+    var buffy = readBytesFromResources("1J6DOEu9ni-000029.gz");
+    var size = ArchiveFetcher.unzipJson(buffy).length();
+    var budget = new MemoryBudget(1024, size, size, exhausted -> {});
+    try (var lease = budget.admit()) {
+      assertEquals(size, ArchiveFetcher.unzipDocument(buffy, lease).size());
+      assertEquals(size, lease.getHeld());
+    }
+
+    var capped = new MemoryBudget(1024, size, size - 1, exhausted -> {});
+    try (var lease = capped.admit()) {
+      assertThrows(IllegalStateException.class, () -> ArchiveFetcher.unzipDocument(buffy, lease));
+    }
+  }
+
+  @Test
+  public void testDocumentSizeIsInBytes() {
+    var json = "{\"vendor\":\"Soci\u00e9t\u00e9 G\u00e9n\u00e9rale\"}";
+    var document =
+        ArchiveFetcher.unzipDocument(ReportGenerator.gzip(json), MemoryBudget.unlimited().admit());
+    assertEquals(json, document.json());
+    assertEquals(json.getBytes(UTF_8).length, document.size());
+    assertNotEquals(json.length(), document.size());
+  }
+
+  @Test
+  public void testGzipBombIsRejected() {
+    // 64 MiB of zeros, gzipped to less than 100 KiB
+    var bomb = ReportGenerator.gzip("0".repeat(64 << 20));
+    assertTrue(bomb.length < 100 << 10);
+    var budget = new MemoryBudget(1 << 20, 1 << 20, 1 << 20, exhausted -> {});
+    try (var lease = budget.admit()) {
+      assertThrows(IllegalStateException.class, () -> ArchiveFetcher.unzipDocument(bomb, lease));
+      // Stopped at the cap, nothing past it was buffered
+      assertTrue(lease.getHeld() <= 1 << 20);
+    }
+  }
+
+  @Test
+  public void testEggIsCapped() {
+    var generator = new ReportGenerator(7, ReportShape.DEFAULT);
+    var host = generator.host(0);
+    var report = generator.jvmReport(host);
+    var tarball = ReportGenerator.eggTarball(host, List.of(report, report));
+    var size = report.json().getBytes(UTF_8).length;
+    var fetcher = new ArchiveFetcher();
+
+    // Each report fits, not both
+    var budget = new MemoryBudget(1024, size + size / 2, size, exhausted -> {});
+    try (var lease = budget.admit()) {
+      assertThrows(
+          IllegalStateException.class,
+          () -> fetcher.getDocumentsFromArchiveStream(new ByteArrayInputStream(tarball), lease));
+    }
+    // The size in the header of the entry is over the cap
+    var capped = new MemoryBudget(1024, 2 * size, size - 1, exhausted -> {});
+    try (var lease = capped.admit()) {
+      assertThrows(
+          IllegalStateException.class,
+          () -> fetcher.getDocumentsFromArchiveStream(new ByteArrayInputStream(tarball), lease));
+      assertEquals(0, lease.getHeld());
+    }
+
+    var fits = new MemoryBudget(1024, 2 * size, size, exhausted -> {});
+    try (var lease = fits.admit()) {
+      assertEquals(
+          2,
+          fetcher.getDocumentsFromArchiveStream(new ByteArrayInputStream(tarball), lease).size());
+      assertEquals(2 * size, lease.getHeld());
+    }
+  }
+
   @Test
   public void test_jvmInstance_MWTELE_66() throws IOException {
     var dummy = new ArchiveAnnouncement();
@@ -135,6 +213,24 @@ public class ArchiveFetcherTest {
         jar.getSha512Checksum());
   }
 
+  @Test
+  public void testMalformedChecksumsAreDropped() {
+    var sha1 = "82a8c99551533f4448675f273665cb6d7b750511";
+    var jar =
+        Utils.jarHashOf(
+            Map.of(
+                "name",
+                "malformed.jar",
+                "attributes",
+                Map.of(
+                    "sha1Checksum", sha1,
+                    "sha256Checksum", sha1,
+                    "sha512Checksum", "not a checksum")));
+    assertEquals(sha1, jar.getSha1Checksum());
+    assertEquals("", jar.getSha256Checksum());
+    assertEquals("", jar.getSha512Checksum());
+  }
+
   @Test
   public void testSanitizeInstance() throws IOException {
     var dummy = new ArchiveAnnouncement();
@@ -0,0 +1,25 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.events;
+
+import static com.redhat.runtimes.inventory.events.TestUtils.readFromResources;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.redhat.runtimes.inventory.models.JvmInstanceBase;
+import java.io.IOException;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+public class DetailsPolicyTest {
+
+  @Test
+  public void testTheDetailsAreTheBasicSectionOfTheReport() throws IOException {
+    var announce = new ArchiveAnnouncement();
+    announce.setOrgId("orgId");
+    announce.setTimestamp(Instant.now());
+    for (var report : new String[] {"test17.json", "eap_example1.json"}) {
+      var json = readFromResources(report);
+      var inst = (JvmInstanceBase) Utils.instanceOf(announce, json);
+      assertEquals(Utils.parse(json).get("basic"), inst.getDetails(), report);
+    }
+  }
+}
@@ -1,8 +1,13 @@
-/* Copyright (C) Red Hat 2023-2024 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.runtimes.inventory.events;
 
 import static com.redhat.runtimes.inventory.events.EventConsumer.CONSUMED_TIMER_NAME;
 import static com.redhat.runtimes.inventory.events.EventConsumer.PROCESSING_EXCEPTION_COUNTER_NAME;
+import static com.redhat.runtimes.inventory.events.IngestionMetrics.FLOW_TAG;
+import static com.redhat.runtimes.inventory.events.IngestionMetrics.INGRESS_FLOW;
+import static com.redhat.runtimes.inventory.events.IngestionMetrics.JARS_NAME;
+import static com.redhat.runtimes.inventory.events.IngestionMetrics.TYPE_TAG;
+import static com.redhat.runtimes.inventory.events.IngestionMetrics.jarsOf;
 import static com.redhat.runtimes.inventory.events.TestUtils.inputStreamFromResources;
 import static com.redhat.runtimes.inventory.events.TestUtils.readBytesFromResources;
 import static com.redhat.runtimes.inventory.events.TestUtils.readFromResources;
@@ -16,9 +21,14 @@ import static org.mockito.Mockito.when;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redhat.runtimes.inventory.events.generator.ReportGenerator;
+import com.redhat.runtimes.inventory.events.generator.ReportShape;
 import com.redhat.runtimes.inventory.models.EapInstance;
 import com.redhat.runtimes.inventory.models.InsightsMessage;
+import com.redhat.runtimes.inventory.models.JarHash;
 import com.redhat.runtimes.inventory.models.JvmInstance;
+import com.redhat.runtimes.inventory.models.UpdateInstance;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.quarkus.test.common.QuarkusTestResource;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.kafka.InjectKafkaCompanion;
@@ -26,15 +36,20 @@ import io.quarkus.test.kafka.KafkaCompanionResource;
 import io.smallrye.reactive.messaging.kafka.companion.KafkaCompanion;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
+import jakarta.transaction.RollbackException;
 import jakarta.transaction.Transactional;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.junit.jupiter.api.AfterEach;
@@ -47,8 +62,19 @@ public class EventConsumerIT {
 
   @Inject EntityManager entityManager;
 
+  @Inject EapExtensions eapExtensions;
+
+  @Inject ConfigBlobs configBlobs;
+
+  @Inject RuntimeProfiles runtimeProfiles;
+
+  @Inject StatelessPersistence statelessPersistence;
+
+  @Inject EventPersistence eventPersistence;
+
   @InjectKafkaCompanion KafkaCompanion companion;
   @Inject MicrometerAssertionHelper micrometerAssertionHelper;
+  @Inject MeterRegistry registry;
 
   @Inject ArchiveFetcher archiveFetcher;
 
@@ -61,6 +87,8 @@ public class EventConsumerIT {
   @BeforeEach
   void beforeEach() {
     TestUtils.clearTables(entityManager);
+    eapExtensions.invalidateAll();
+    configBlobs.invalidateAll();
     micrometerAssertionHelper.saveCounterValuesBeforeTest(PROCESSING_EXCEPTION_COUNTER_NAME);
     micrometerAssertionHelper.removeDynamicTimer(CONSUMED_TIMER_NAME);
     eventConsumer.setClock(Clock.fixed(Instant.parse(fixedDate), ZoneId.systemDefault()));
@@ -102,11 +130,11 @@ public class EventConsumerIT {
   @SuppressWarnings("unchecked")
   void testValidJvmInstancePayload() throws IOException, InterruptedException {
     HttpClient mockClient = mock(HttpClient.class);
-    HttpResponse<byte[]> mockResponse = mock(HttpResponse.class);
+    HttpResponse<InputStream> mockResponse = mock(HttpResponse.class);
     byte[] buffy = readBytesFromResources("jdk8_MWTELE-66.gz");
     when(mockClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
         .thenReturn(mockResponse);
-    when(mockResponse.body()).thenReturn(buffy);
+    mockUpload(mockResponse, buffy);
 
     archiveFetcher.setHttpClient(mockClient);
     String kafkaMessage = readFromResources("incoming_kafka1.json");
@@ -121,6 +149,49 @@ public class EventConsumerIT {
     TestUtils.await_entity_count(entityManager, "JvmInstance", 1L);
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  void testJarsOfBigReportsAreRecorded() throws IOException, InterruptedException {
+    // Over inventory.jar-hash.copy.min-rows, the jar hashes are taken out of the instance to be
+    // copied once it is persisted
+    var shape = ReportShape.builder().jvmJars(300).jarReuse(0).build();
+    var generator =
+        new ReportGenerator(7, shape, Clock.fixed(Instant.parse(fixedDate), ZoneId.of("UTC")));
+    var host = generator.host(0);
+    var json = generator.jvmReport(host).json();
+    var upload = ReportGenerator.gzip(json);
+    var kafkaMessage =
+        generator.ingressAnnouncement(host, "http://s3.example.com/upload", upload.length);
+    var jars =
+        jarsOf(instanceOf(new ArchiveAnnouncementParser().fromJsonString(kafkaMessage), json));
+    assertTrue(jars >= 200);
+
+    HttpClient mockClient = mock(HttpClient.class);
+    HttpResponse<InputStream> mockResponse = mock(HttpResponse.class);
+    when(mockClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+        .thenReturn(mockResponse);
+    mockUpload(mockResponse, upload);
+    archiveFetcher.setHttpClient(mockClient);
+
+    var recorded = registry.find(JARS_NAME).tags(FLOW_TAG, INGRESS_FLOW, TYPE_TAG, "jvm").summary();
+    double before = recorded == null ? 0 : recorded.totalAmount();
+    companion
+        .produceStrings()
+        .fromRecords(new ProducerRecord<>(ingressTopic, kafkaMessage))
+        .awaitCompletion();
+
+    micrometerAssertionHelper.awaitAndAssertTimerIncrement(CONSUMED_TIMER_NAME, 1);
+    micrometerAssertionHelper.assertCounterIncrement(PROCESSING_EXCEPTION_COUNTER_NAME, 0);
+    TestUtils.await_entity_count(entityManager, "JvmInstance", 1L);
+    assertEquals(
+        before + jars,
+        registry
+            .get(JARS_NAME)
+            .tags(FLOW_TAG, INGRESS_FLOW, TYPE_TAG, "jvm")
+            .summary()
+            .totalAmount());
+  }
+
   @Test
   void testInvalidPayload() {
     companion
@@ -148,6 +219,7 @@ public class EventConsumerIT {
     assertEquals(0L, TestUtils.entity_count(entityManager, "JvmInstance"));
     assertEquals(0L, TestUtils.entity_count(entityManager, "JarHash"));
 
+    TestUtils.storeShared(entityManager, (JvmInstance) inst);
     entityManager.persist(inst);
     assertEquals(1L, TestUtils.entity_count(entityManager, "JvmInstance"));
     assertEquals(1074L, TestUtils.entity_count(entityManager, "JarHash"));
@@ -186,8 +258,10 @@ public class EventConsumerIT {
     /*******************
      *  Persist and check counts
      *******************/
+    TestUtils.storeShared(entityManager, inst);
     entityManager.persist(inst);
     assertEquals(1L, TestUtils.entity_count(entityManager, "EapInstance"));
+    assertEquals(1L, TestUtils.table_count(entityManager, "eap_instance_raw"));
     assertEquals(1L, TestUtils.entity_count(entityManager, "EapConfiguration"));
     assertEquals(2L, TestUtils.table_count(entityManager, "eap_configuration_deployments"));
     assertEquals(40L, TestUtils.table_count(entityManager, "eap_configuration_subsystems"));
@@ -213,6 +287,7 @@ public class EventConsumerIT {
      *******************/
     entityManager.remove(inst);
     assertEquals(0L, TestUtils.entity_count(entityManager, "EapInstance"));
+    assertEquals(0L, TestUtils.table_count(entityManager, "eap_instance_raw"));
     assertEquals(0L, TestUtils.entity_count(entityManager, "EapConfiguration"));
     assertEquals(0L, TestUtils.table_count(entityManager, "eap_configuration_deployments"));
     assertEquals(0L, TestUtils.table_count(entityManager, "eap_configuration_subsystems"));
@@ -227,17 +302,92 @@ public class EventConsumerIT {
     assertEquals(0L, TestUtils.table_count(entityManager, "eap_deployment_archive_jar_hash"));
   }
 
+  @Test
+  @Transactional
+  void testEapInstanceStatelessInsert() throws IOException {
+    ArchiveAnnouncement dummy = new ArchiveAnnouncement();
+    dummy.setAccountId("dummy account id");
+    dummy.setOrgId("dummy org");
+    dummy.setTimestamp(Instant.now());
+
+    String json = readFromResources("eap_example1.json");
+    EapInstance inst = (EapInstance) eapInstanceOf(dummy, json);
+
+    runtimeProfiles.intern(inst);
+    eapExtensions.intern(inst.getConfiguration());
+    configBlobs.intern(inst.getConfiguration());
+    statelessPersistence.insert(inst);
+
+    // The same rows as the cascades of the entity manager
+    assertEquals(1L, TestUtils.entity_count(entityManager, "EapInstance"));
+    assertEquals(1L, TestUtils.table_count(entityManager, "eap_instance_raw"));
+    assertEquals(1L, TestUtils.entity_count(entityManager, "EapConfiguration"));
+    assertEquals(2L, TestUtils.table_count(entityManager, "eap_configuration_deployments"));
+    assertEquals(40L, TestUtils.table_count(entityManager, "eap_configuration_subsystems"));
+    assertEquals(39L, TestUtils.table_count(entityManager, "eap_configuration_eap_extension"));
+    assertEquals(2L, TestUtils.entity_count(entityManager, "EapDeployment"));
+    assertEquals(3561L, TestUtils.entity_count(entityManager, "JarHash"));
+    assertEquals(1L, TestUtils.table_count(entityManager, "jvm_instance_jar_hash"));
+    assertEquals(3555L, TestUtils.table_count(entityManager, "eap_instance_module_jar_hash"));
+    assertEquals(5L, TestUtils.table_count(entityManager, "eap_deployment_archive_jar_hash"));
+
+    var stored = entityManager.find(EapInstance.class, inst.getId());
+    assertEquals(
+        inst.getConfiguration().getSubsystems(), stored.getConfiguration().getSubsystems());
+  }
+
+  @Test
+  @Transactional
+  void testBigUpdateSkipsTheJarsAlreadyStored() throws RollbackException {
+    var shape = ReportShape.builder().jvmJars(300).updatedJars(250).jarReuse(0).build();
+    var generator =
+        new ReportGenerator(11, shape, Clock.fixed(Instant.parse(fixedDate), ZoneId.of("UTC")));
+    var announce = new ArchiveAnnouncement();
+    announce.setTimestamp(Instant.parse(fixedDate));
+    var report = generator.jvmReport(generator.host(0));
+    var inst = (JvmInstance) instanceOf(announce, report.json());
+    var stored = inst.getJarHashes().iterator().next();
+    eventPersistence.persist(inst);
+    entityManager.flush();
+    entityManager.clear();
+    var linked = TestUtils.table_count(entityManager, "jvm_instance_jar_hash");
+
+    // Over inventory.jar-hash.copy.min-rows, with a jar the instance already has and a repeated one
+    var update =
+        (UpdateInstance)
+            instanceOf(announce, generator.updatedJarsReport(report.linkingHash()).json());
+    var jars = new ArrayList<>(update.getUpdates());
+    jars.add(Utils.jarHashOf(attributesOf(stored)));
+    jars.add(Utils.jarHashOf(attributesOf(jars.get(0))));
+    eventPersistence.persist(new UpdateInstance(report.linkingHash(), jars));
+    entityManager.flush();
+
+    assertEquals(
+        linked + update.getUpdates().size(),
+        TestUtils.table_count(entityManager, "jvm_instance_jar_hash"));
+  }
+
+  private static Map<String, Object> attributesOf(JarHash jar) {
+    return Map.of(
+        "name",
+        jar.getName(),
+        "version",
+        jar.getVersion(),
+        "attributes",
+        Map.of("sha256Checksum", jar.getSha256Checksum()));
+  }
+
   // We saw hibernate exceptions causing issues with messages being received
   // Let's try to make sure that doesn't happen.
   @Test
   @SuppressWarnings("unchecked")
   void testHibernateExceptionCausesHangs() throws IOException, InterruptedException {
     HttpClient mockClient = mock(HttpClient.class);
-    HttpResponse<byte[]> mockResponse = mock(HttpResponse.class);
+    HttpResponse<InputStream> mockResponse = mock(HttpResponse.class);
     byte[] buffy = readBytesFromResources("jdk8_MWTELE-66.gz");
     when(mockClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
         .thenReturn(mockResponse);
-    when(mockResponse.body()).thenReturn(buffy);
+    mockUpload(mockResponse, buffy);
 
     archiveFetcher.setHttpClient(mockClient);
     String kafkaFirst = readFromResources("incoming_kafka1.json");
@@ -277,7 +427,7 @@ public class EventConsumerIT {
 
     // Now we submit a new object and see that it persists
     buffy = readBytesFromResources("eap_example1.json.gz");
-    when(mockResponse.body()).thenReturn(buffy);
+    mockUpload(mockResponse, buffy);
     companion
         .produceStrings()
         .fromRecords(new ProducerRecord<>(ingressTopic, kafkaSecond))
@@ -287,4 +437,14 @@ public class EventConsumerIT {
     micrometerAssertionHelper.assertCounterIncrement(PROCESSING_EXCEPTION_COUNTER_NAME, 1);
     TestUtils.await_entity_count(entityManager, "JvmInstance", 2L);
   }
+
+  // The ingress uploads are read as a stream, with their length
+  private static void mockUpload(HttpResponse<InputStream> response, byte[] upload) {
+    when(response.body()).thenAnswer(invocation -> new ByteArrayInputStream(upload));
+    when(response.headers())
+        .thenReturn(
+            HttpHeaders.of(
+                Map.of("Content-Length", List.of(String.valueOf(upload.length))),
+                (name, value) -> true));
+  }
 }
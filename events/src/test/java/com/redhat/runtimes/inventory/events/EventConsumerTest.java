@@ -0,0 +1,65 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.events;
+
+import static com.redhat.runtimes.inventory.events.TestUtils.readFromResources;
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.runtime.configuration.MemorySize;
+import java.math.BigInteger;
+import java.nio.file.Path;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class EventConsumerTest {
+  private static final String MESSAGE_EVENT = "com.redhat.runtimes.inventory.Message";
+
+  @TempDir Path dir;
+
+  private final EventConsumer consumer = new EventConsumer();
+
+  @BeforeEach
+  void setUp() {
+    var registry = new SimpleMeterRegistry();
+    consumer.registry = registry;
+    consumer.metrics = new IngestionMetrics();
+    consumer.metrics.registry = registry;
+    consumer.memoryBudget = new MemorySize(BigInteger.valueOf(1 << 20));
+    consumer.maxArchiveSize = new MemorySize(BigInteger.valueOf(1 << 20));
+    consumer.maxEntrySize = new MemorySize(BigInteger.valueOf(1 << 20));
+    consumer.init();
+  }
+
+  @Test
+  public void testFailedMessagesAreRecorded() throws Exception {
+    consumer.archiveFetcher =
+        new ArchiveFetcher() {
+          @Override
+          public byte[] getBytesFromS3(String urlStr, MemoryBudget.Lease lease) {
+            throw new IllegalStateException("Rejected " + urlStr);
+          }
+        };
+    var payload = readFromResources("incoming_kafka1.json");
+
+    var file = dir.resolve("failed.jfr");
+    try (var recording = new Recording()) {
+      recording.enable(MESSAGE_EVENT);
+      recording.start();
+      assertThrows(IllegalStateException.class, () -> consumer.processMainFlow(payload));
+      recording.stop();
+      recording.dump(file);
+    }
+
+    var events =
+        RecordingFile.readAllEvents(file).stream()
+            .filter(e -> e.getEventType().getName().equals(MESSAGE_EVENT))
+            .toList();
+    assertEquals(1, events.size());
+    assertEquals(IngestionMetrics.INGRESS_FLOW, events.get(0).getString("flow"));
+    assertEquals(IllegalStateException.class.getName(), events.get(0).getString("failure"));
+    assertNotNull(events.get(0).getString("requestId"));
+  }
+}
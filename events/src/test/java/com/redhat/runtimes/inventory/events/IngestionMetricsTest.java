@@ -0,0 +1,161 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.events;
+
+import static com.redhat.runtimes.inventory.events.IngestionMetrics.*;
+import static com.redhat.runtimes.inventory.events.TestUtils.readFromResources;
+import static com.redhat.runtimes.inventory.events.Utils.instanceOf;
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class IngestionMetricsTest {
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final IngestionMetrics metrics = new IngestionMetrics();
+  private final ArchiveAnnouncement announce = new ArchiveAnnouncement();
+
+  @BeforeEach
+  void setUp() {
+    metrics.registry = registry;
+    announce.setAccountId("dummy account id");
+    announce.setOrgId("dummy org");
+    announce.setTimestamp(Instant.now());
+  }
+
+  @Test
+  public void testStagesAreTaggedByFlow() {
+    metrics.stop(metrics.start(), INGRESS_FLOW, DOWNLOAD_STAGE);
+    metrics.stop(metrics.start(), INGRESS_FLOW, DOWNLOAD_STAGE);
+    metrics.stop(metrics.start(), EGG_FLOW, PERSIST_STAGE);
+
+    assertEquals(
+        2,
+        registry
+            .get(STAGE_TIMER_NAME)
+            .tags(FLOW_TAG, INGRESS_FLOW, STAGE_TAG, DOWNLOAD_STAGE)
+            .timer()
+            .count());
+    assertEquals(
+        1,
+        registry
+            .get(STAGE_TIMER_NAME)
+            .tags(FLOW_TAG, EGG_FLOW, STAGE_TAG, PERSIST_STAGE)
+            .timer()
+            .count());
+  }
+
+  @Test
+  public void testJvmReport() throws IOException {
+    var json = readFromResources("test17.json");
+    var msg = instanceOf(announce, json);
+    metrics.recordReport(INGRESS_FLOW, msg, 1234, json.length(), jarsOf(msg));
+
+    var compressed =
+        registry.get(COMPRESSED_SIZE_NAME).tags(FLOW_TAG, INGRESS_FLOW, TYPE_TAG, "jvm").summary();
+    assertEquals(1234, compressed.totalAmount());
+    var decompressed =
+        registry.get(DECOMPRESSED_SIZE_NAME).tags(TYPE_TAG, "jvm").summary().totalAmount();
+    assertEquals(json.length(), decompressed);
+    assertEquals(
+        jarsOf(msg), registry.get(JARS_NAME).tags(TYPE_TAG, "jvm").summary().totalAmount());
+    assertTrue(jarsOf(msg) > 0);
+  }
+
+  @Test
+  public void testEggReports() throws IOException {
+    var json = readFromResources("eap_example1.json");
+    var msg = instanceOf(announce, json);
+    metrics.recordArchive(EGG_FLOW, 4321);
+    metrics.recordEggDocuments(2);
+    metrics.recordReport(EGG_FLOW, msg, -1, json.length(), jarsOf(msg));
+
+    assertEquals(
+        4321,
+        registry.get(COMPRESSED_SIZE_NAME).tags(TYPE_TAG, ARCHIVE_TYPE).summary().totalAmount());
+    // The reports of an archive don't have a compressed size of their own
+    assertNull(registry.find(COMPRESSED_SIZE_NAME).tags(TYPE_TAG, "eap").summary());
+    assertEquals(
+        1,
+        registry
+            .get(DECOMPRESSED_SIZE_NAME)
+            .tags(FLOW_TAG, EGG_FLOW, TYPE_TAG, "eap")
+            .summary()
+            .count());
+    assertEquals(2, registry.get(EGG_DOCUMENTS_NAME).summary().totalAmount());
+  }
+
+  @Test
+  public void testFreshness() {
+    var now = Instant.parse("2023-04-01T01:00:00Z");
+    metrics.setClock(Clock.fixed(now, ZoneOffset.UTC));
+    metrics.recordCommitted(INGRESS_FLOW, now.minusSeconds(90));
+    // No timestamp, or one from the future because of a clock skew
+    metrics.recordCommitted(INGRESS_FLOW, null);
+    metrics.recordCommitted(INGRESS_FLOW, now.plusSeconds(5));
+
+    var timer = registry.get(FRESHNESS_TIMER_NAME).tags(FLOW_TAG, INGRESS_FLOW).timer();
+    assertEquals(1, timer.count());
+    assertEquals(90, timer.totalTime(TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testOldestInFlight() {
+    var now = new AtomicReference<>(Instant.parse("2023-04-01T01:00:00Z"));
+    metrics.setClock(
+        new Clock() {
+          @Override
+          public ZoneId getZone() {
+            return ZoneOffset.UTC;
+          }
+
+          @Override
+          public Clock withZone(ZoneId zone) {
+            return this;
+          }
+
+          @Override
+          public Instant instant() {
+            return now.get();
+          }
+        });
+    metrics.init();
+    var gauge = registry.get(OLDEST_IN_FLIGHT_NAME).gauge();
+    assertEquals(0, gauge.value());
+
+    var old = metrics.inFlight(now.get().minusSeconds(30));
+    var recent = metrics.inFlight(null);
+    // Same timestamp, still another message
+    var sameAsOld = metrics.inFlight(now.get().minusSeconds(30));
+    now.set(now.get().plusSeconds(10));
+    assertEquals(40, gauge.value());
+
+    old.close();
+    assertEquals(40, gauge.value());
+    sameAsOld.close();
+    assertEquals(10, gauge.value());
+    recent.close();
+    assertEquals(0, gauge.value());
+  }
+
+  @Test
+  public void testBudgetUtilization() {
+    var budget = new MemoryBudget(1000, 1000, 1000, exhausted -> {});
+    metrics.registerBudget(budget);
+    var gauge = registry.get(BUDGET_UTILIZATION_NAME).gauge();
+    assertEquals(0, gauge.value());
+
+    try (var lease = budget.admit()) {
+      lease.acquire(250);
+      assertEquals(0.25, gauge.value());
+    }
+    assertEquals(0, gauge.value());
+  }
+}
@@ -0,0 +1,84 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.events;
+
+import static org.mockserver.integration.ClientAndServer.startClientAndServer;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+import io.quarkus.test.common.QuarkusTestResourceLifecycleManager;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.mockserver.integration.ClientAndServer;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Runs the ingestion against a Postgres container and a MockServer that stands in for S3: objects
+ * put with {@link #putObject} are served on their path.
+ *
+ * <p>Based on the TestLifecycleManager of the rest module.
+ */
+public class IngestionTestLifecycleManager implements QuarkusTestResourceLifecycleManager {
+  static final String BUCKET_PATH = "/insights-upload-perma/";
+
+  private static final String LOG_LEVEL_KEY = "mockserver.logLevel";
+
+  private static final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+  private static ClientAndServer s3;
+
+  private PostgreSQLContainer<?> postgreSQLContainer;
+
+  @Override
+  public Map<String, String> start() {
+    Map<String, String> properties = new HashMap<>();
+    setupPostgres(properties);
+    setupS3();
+    return properties;
+  }
+
+  @Override
+  public void stop() {
+    if (s3 != null) {
+      s3.stop();
+    }
+    objects.clear();
+    postgreSQLContainer.stop();
+  }
+
+  void setupPostgres(Map<String, String> props) {
+    postgreSQLContainer = new PostgreSQLContainer<>("postgres:14");
+    postgreSQLContainer.start();
+    props.put("quarkus.datasource.jdbc.url", postgreSQLContainer.getJdbcUrl());
+    props.put("quarkus.datasource.username", "test");
+    props.put("quarkus.datasource.password", "test");
+    props.put("quarkus.datasource.db-kind", "postgresql");
+  }
+
+  void setupS3() {
+    if (System.getProperty(LOG_LEVEL_KEY) == null) {
+      // Logging every request would dominate a load test
+      System.setProperty(LOG_LEVEL_KEY, "OFF");
+    }
+    s3 = startClientAndServer();
+    // A callback rather than one expectation per object, MockServer matches them linearly
+    s3.when(request().withMethod("GET").withPath(BUCKET_PATH + ".*"))
+        .respond(
+            req -> {
+              var body = objects.get(req.getPath().getValue());
+              return body == null
+                  ? response().withStatusCode(404)
+                  : response().withStatusCode(200).withBody(body);
+            });
+  }
+
+  /** Makes the content available at the URL returned. */
+  static String putObject(String key, byte[] content) {
+    var path = BUCKET_PATH + key;
+    objects.put(path, content);
+    return "http://localhost:" + s3.getPort() + path;
+  }
+
+  static void clearObjects() {
+    objects.clear();
+  }
+}
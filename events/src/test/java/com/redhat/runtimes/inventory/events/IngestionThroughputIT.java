@@ -0,0 +1,247 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.events;
+
+import static com.redhat.runtimes.inventory.events.EventConsumer.CONSUMED_TIMER_NAME;
+import static com.redhat.runtimes.inventory.events.EventConsumer.PROCESSING_EXCEPTION_COUNTER_NAME;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.redhat.runtimes.inventory.events.generator.ReportGenerator;
+import com.redhat.runtimes.inventory.events.generator.ReportShape;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.logging.Log;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.kafka.InjectKafkaCompanion;
+import io.quarkus.test.kafka.KafkaCompanionResource;
+import io.smallrye.reactive.messaging.kafka.companion.KafkaCompanion;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import java.net.http.HttpClient;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pushes synthetic uploads through the whole ingestion (Kafka, S3, Postgres) at a steady rate and
+ * fails when the throughput, the end-to-end latency or the rows written per message are worse than
+ * the SLOs. Only run by the load-tests profile, every property can be overridden with -D.
+ */
+@QuarkusTest
+@QuarkusTestResource(KafkaCompanionResource.class)
+@QuarkusTestResource(IngestionTestLifecycleManager.class)
+@Tag("load")
+public class IngestionThroughputIT {
+  private static final String INGRESS_TOPIC = "platform.upload.announce";
+  private static final Clock CLOCK =
+      Clock.fixed(Instant.parse("2023-04-01T01:00:00Z"), ZoneOffset.UTC);
+
+  // The tables the ingestion writes to
+  private static final List<String> TABLES =
+      List.of(
+          "jvm_instance",
+          "runtime_profile",
+          "jvm_instance_jar_hash",
+          "jar_hash",
+          "eap_instance",
+          "eap_instance_module_jar_hash",
+          "eap_instance_raw",
+          "eap_deployment",
+          "eap_deployment_archive_jar_hash",
+          "eap_configuration",
+          "eap_configuration_deployments",
+          "eap_configuration_subsystems",
+          "config_blob",
+          "eap_configuration_eap_extension",
+          "eap_extension",
+          "eap_extension_subsystems");
+
+  @Inject EntityManager entityManager;
+
+  @Inject EapExtensions eapExtensions;
+
+  @Inject ConfigBlobs configBlobs;
+
+  @InjectKafkaCompanion KafkaCompanion companion;
+  @Inject MicrometerAssertionHelper micrometerAssertionHelper;
+  @Inject MeterRegistry registry;
+
+  @Inject ArchiveFetcher archiveFetcher;
+
+  @Inject EventConsumer eventConsumer;
+
+  @ConfigProperty(name = "ingestion.load.messages", defaultValue = "20000")
+  int messages;
+
+  @ConfigProperty(name = "ingestion.load.rate", defaultValue = "200")
+  int rate;
+
+  @ConfigProperty(name = "ingestion.load.eap-share", defaultValue = "0.05")
+  double eapShare;
+
+  @ConfigProperty(name = "ingestion.load.seed", defaultValue = "20231018")
+  long seed;
+
+  @ConfigProperty(name = "ingestion.load.slo.min-throughput", defaultValue = "150")
+  double minThroughput;
+
+  @ConfigProperty(name = "ingestion.load.slo.max-p50", defaultValue = "PT0.5S")
+  Duration maxP50;
+
+  @ConfigProperty(name = "ingestion.load.slo.max-p99", defaultValue = "PT5S")
+  Duration maxP99;
+
+  @ConfigProperty(name = "ingestion.load.slo.max-rows-per-message", defaultValue = "100")
+  double maxRowsPerMessage;
+
+  @BeforeEach
+  void beforeEach() {
+    TestUtils.clearTables(entityManager);
+    eapExtensions.invalidateAll();
+    configBlobs.invalidateAll();
+    micrometerAssertionHelper.saveCounterValuesBeforeTest(PROCESSING_EXCEPTION_COUNTER_NAME);
+    micrometerAssertionHelper.removeDynamicTimer(CONSUMED_TIMER_NAME);
+    eventConsumer.setClock(CLOCK);
+    // Other tests may have left a mock
+    archiveFetcher.setHttpClient(HttpClient.newHttpClient());
+  }
+
+  @AfterEach
+  void clear() {
+    micrometerAssertionHelper.clearSavedValues();
+    micrometerAssertionHelper.removeDynamicTimer(CONSUMED_TIMER_NAME);
+    IngestionTestLifecycleManager.clearObjects();
+  }
+
+  @Test
+  void testSustainedIngestion() throws InterruptedException {
+    var announcements = prepareUploads();
+    var sent = new long[messages];
+    var completed = new long[messages];
+
+    var failure = new AtomicReference<Throwable>();
+    var producer = new Thread(() -> send(announcements, sent, failure), "load-producer");
+    producer.start();
+
+    // The ingress topic has one partition and the messages are processed in order, so the k-th
+    // consumed message is the k-th sent
+    var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(messages / Math.max(1, rate) + 300);
+    int done = 0;
+    while (done < messages && failure.get() == null && System.nanoTime() < deadline) {
+      long count = consumedCount();
+      long now = System.nanoTime();
+      while (done < count && done < messages) {
+        completed[done++] = now;
+      }
+      LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+    }
+    producer.join();
+    assertNull(failure.get(), () -> "Sending failed: " + failure.get());
+    assertEquals(messages, done, "Not all the messages were consumed before the deadline");
+
+    micrometerAssertionHelper.assertCounterIncrement(PROCESSING_EXCEPTION_COUNTER_NAME, 0);
+    assertEquals(messages, TestUtils.entity_count(entityManager, "JvmInstance"));
+
+    double seconds = (completed[messages - 1] - sent[0]) / 1e9;
+    double throughput = messages / seconds;
+    var latencies = new long[messages];
+    for (int i = 0; i < messages; i++) {
+      latencies[i] = completed[i] - sent[i];
+    }
+    Arrays.sort(latencies);
+    var p50 = Duration.ofNanos(percentile(latencies, 0.50));
+    var p99 = Duration.ofNanos(percentile(latencies, 0.99));
+    long rows = 0;
+    for (var table : TABLES) {
+      rows += TestUtils.table_count(entityManager, table);
+    }
+    double rowsPerMessage = (double) rows / messages;
+
+    Log.infof(
+        "Ingested %d messages in %.1fs: %.1f msg/s, p50 %dms, p99 %dms, %.1f rows/msg",
+        messages, seconds, throughput, p50.toMillis(), p99.toMillis(), rowsPerMessage);
+
+    assertTrue(
+        throughput >= minThroughput,
+        () ->
+            String.format("Throughput %.1f msg/s is below %.1f msg/s", throughput, minThroughput));
+    assertTrue(p50.compareTo(maxP50) <= 0, () -> "p50 latency " + p50 + " is above " + maxP50);
+    assertTrue(p99.compareTo(maxP99) <= 0, () -> "p99 latency " + p99 + " is above " + maxP99);
+    assertTrue(
+        rowsPerMessage <= maxRowsPerMessage,
+        () ->
+            String.format(
+                "%.1f rows written per message, more than %.1f",
+                rowsPerMessage, maxRowsPerMessage));
+  }
+
+  /** Generates and uploads the reports, returns the announcements to send. */
+  private List<String> prepareUploads() {
+    var shape = ReportShape.builder().orgs(10).hostsPerOrg(1000).eapModules(500).build();
+    var generator = new ReportGenerator(seed, shape, CLOCK);
+    var kinds = new Random(seed);
+    var announcements = new ArrayList<String>(messages);
+    for (int i = 0; i < messages; i++) {
+      var host = generator.host(i % generator.hostCount());
+      var report =
+          kinds.nextDouble() < eapShare ? generator.eapReport(host) : generator.jvmReport(host);
+      var gzipped = ReportGenerator.gzip(report.json());
+      var url = IngestionTestLifecycleManager.putObject(String.valueOf(i), gzipped);
+      announcements.add(generator.ingressAnnouncement(host, url, gzipped.length));
+    }
+    return announcements;
+  }
+
+  /** Sends the announcements at the configured rate, recording when each one was sent. */
+  private void send(List<String> announcements, long[] sent, AtomicReference<Throwable> failure) {
+    var config =
+        Map.<String, Object>of(
+            ProducerConfig.BOOTSTRAP_SERVERS_CONFIG,
+            companion.getBootstrapServers(),
+            ProducerConfig.LINGER_MS_CONFIG,
+            0);
+    try (var producer =
+        new KafkaProducer<>(config, new StringSerializer(), new StringSerializer())) {
+      long interval = TimeUnit.SECONDS.toNanos(1) / Math.max(1, rate);
+      long start = System.nanoTime();
+      for (int i = 0; i < announcements.size(); i++) {
+        long due = start + i * interval;
+        long wait = due - System.nanoTime();
+        if (wait > 0) {
+          LockSupport.parkNanos(wait);
+        }
+        sent[i] = System.nanoTime();
+        producer.send(new ProducerRecord<>(INGRESS_TOPIC, announcements.get(i)));
+      }
+      producer.flush();
+    } catch (Throwable t) {
+      failure.set(t);
+    }
+  }
+
+  private long consumedCount() {
+    return registry.find(CONSUMED_TIMER_NAME).timers().stream().mapToLong(Timer::count).sum();
+  }
+
+  private static long percentile(long[] sorted, double p) {
+    return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+  }
+}
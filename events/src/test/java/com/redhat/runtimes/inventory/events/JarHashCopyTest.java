@@ -0,0 +1,43 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.events;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HexFormat;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+public class JarHashCopyTest {
+
+  @Test
+  public void testTheRowsAreInTheBinaryFormatOfCopy() throws IOException {
+    var bytes = new ByteArrayOutputStream();
+    var out = new JarHashCopy.BinaryCopy(bytes);
+    out.row(4);
+    out.uuid(UUID.fromString("018b3f6e-1c2d-7a00-8000-000000000001"));
+    out.text("jboss-logging.jar");
+    out.text(null);
+    out.bytes(new byte[] {(byte) 0xca, (byte) 0xfe});
+    out.finish();
+
+    var expected =
+        // Signature, flags and header extension length
+        "5047434f50590aff0d0a00"
+            + "00000000"
+            + "00000000"
+            // 4 fields
+            + "0004"
+            + "00000010"
+            + "018b3f6e1c2d7a008000000000000001"
+            + "00000011"
+            + HexFormat.of().formatHex("jboss-logging.jar".getBytes())
+            + "ffffffff"
+            + "00000002"
+            + "cafe"
+            // Trailer
+            + "ffff";
+    assertEquals(expected, HexFormat.of().formatHex(bytes.toByteArray()));
+  }
+}
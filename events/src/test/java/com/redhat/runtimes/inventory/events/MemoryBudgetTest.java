@@ -0,0 +1,63 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.events;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.Test;
+
+public class MemoryBudgetTest {
+
+  @Test
+  public void testLeasesAreReleasedWhenClosed() {
+    var budget = new MemoryBudget(100, 100, 100, exhausted -> {});
+    try (var first = budget.admit();
+        var second = budget.admit()) {
+      first.acquire(30);
+      second.acquire(20);
+      first.acquire(10);
+      assertEquals(40, first.getHeld());
+      assertEquals(60, budget.getUsed());
+      assertEquals(0.6, budget.utilization());
+
+      first.close();
+      assertEquals(20, budget.getUsed());
+      // Closed twice by the try-with-resources
+      first.close();
+      assertEquals(20, budget.getUsed());
+      assertThrows(IllegalStateException.class, () -> first.acquire(1));
+    }
+    assertEquals(0, budget.getUsed());
+  }
+
+  @Test
+  public void testNoMessageIsAdmittedWhileTheBudgetIsExhausted() throws Exception {
+    List<Boolean> transitions = new ArrayList<>();
+    var budget = new MemoryBudget(100, 100, 100, transitions::add);
+    var lease = budget.admit();
+    lease.acquire(60);
+    // Admitted messages overrun the budget rather than wait
+    lease.acquire(60);
+    assertEquals(1.2, budget.utilization());
+    assertEquals(List.of(true), transitions);
+
+    var waiting = CompletableFuture.supplyAsync(budget::admit);
+    assertThrows(TimeoutException.class, () -> waiting.get(200, TimeUnit.MILLISECONDS));
+
+    lease.close();
+    try (var admitted = waiting.get(5, TimeUnit.SECONDS)) {
+      assertEquals(0, admitted.getHeld());
+    }
+    assertEquals(List.of(true, false), transitions);
+  }
+
+  @Test
+  public void testTheBudgetAndTheCapsArePositive() {
+    assertThrows(IllegalArgumentException.class, () -> new MemoryBudget(0, 1, 1, e -> {}));
+    assertThrows(IllegalArgumentException.class, () -> new MemoryBudget(1, 1, -1, e -> {}));
+  }
+}
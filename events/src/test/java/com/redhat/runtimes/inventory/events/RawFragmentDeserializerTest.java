@@ -0,0 +1,67 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.events;
+
+import static com.redhat.runtimes.inventory.events.TestUtils.readFromResources;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.redhat.runtimes.inventory.models.EapInstance;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class RawFragmentDeserializerTest {
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testOnlyTheDumpedFragmentsAreKeptRaw() throws IOException {
+    var report = Utils.parse(readFromResources("eap_example1.json"));
+    var eap = (Map<String, Object>) report.get("eap");
+    var configuration =
+        (Map<String, Object>)
+            ((Map<String, Object>) eap.get("eap-configuration")).get("configuration");
+
+    assertInstanceOf(RawValue.class, configuration.get("socket-binding-group"));
+    assertInstanceOf(RawValue.class, configuration.get("core-service"));
+    var subsystems = (Map<String, Object>) configuration.get("subsystem");
+    assertFalse(subsystems.isEmpty());
+    subsystems.values().forEach(s -> assertInstanceOf(RawValue.class, s));
+
+    assertInstanceOf(Map.class, report.get("basic"));
+    assertInstanceOf(Map.class, configuration.get("extension"));
+    assertInstanceOf(Map.class, eap.get("eap-installation"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testTheDumpsAreTheSerializedFragments() throws IOException {
+    var json = readFromResources("eap_example1.json");
+    var announce = new ArchiveAnnouncement();
+    announce.setTimestamp(Instant.now());
+    var config = ((EapInstance) Utils.instanceOf(announce, json)).getConfiguration();
+
+    // As the fragments were dumped before: read into maps and written back
+    var mapper = new ObjectMapper();
+    var report = mapper.readValue(json, new TypeReference<Map<String, Object>>() {});
+    var eap = (Map<String, Object>) report.get("eap");
+    var configuration =
+        (Map<String, Object>)
+            ((Map<String, Object>) eap.get("eap-configuration")).get("configuration");
+    assertEquals(
+        mapper.writeValueAsString(configuration.get("socket-binding-group")),
+        config.getSocketBindingGroups());
+    assertEquals(mapper.writeValueAsString(configuration.get("path")), config.getPaths());
+    assertEquals(mapper.writeValueAsString(configuration.get("interface")), config.getInterfaces());
+    assertEquals(
+        mapper.writeValueAsString(configuration.get("core-service")), config.getCoreServices());
+    var subsystems = new HashMap<String, String>();
+    for (var entry : ((Map<String, Object>) configuration.get("subsystem")).entrySet()) {
+      subsystems.put(entry.getKey(), mapper.writeValueAsString(entry.getValue()));
+    }
+    assertEquals(subsystems, config.getSubsystems());
+  }
+}
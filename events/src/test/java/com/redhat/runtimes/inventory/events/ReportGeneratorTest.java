@@ -0,0 +1,177 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.events;
+
+import static com.redhat.runtimes.inventory.events.Utils.instanceOf;
+import static com.redhat.runtimes.inventory.models.InsightsMessage.REDACTED_VALUE;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.redhat.runtimes.inventory.events.generator.ReportGenerator;
+import com.redhat.runtimes.inventory.events.generator.ReportShape;
+import com.redhat.runtimes.inventory.models.EapInstance;
+import com.redhat.runtimes.inventory.models.JarHash;
+import com.redhat.runtimes.inventory.models.JvmInstance;
+import com.redhat.runtimes.inventory.models.UpdateInstance;
+import java.io.ByteArrayInputStream;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+public class ReportGeneratorTest {
+  private static final Clock CLOCK =
+      Clock.fixed(Instant.parse("2023-04-01T01:00:00Z"), ZoneOffset.UTC);
+  private static final String S3_URL = "http://s3.example.com/bucket/upload";
+
+  private final ArchiveAnnouncementParser parser = new ArchiveAnnouncementParser();
+
+  @Test
+  public void testSameSeedSameReports() {
+    var first = new ReportGenerator(42, ReportShape.DEFAULT, CLOCK);
+    var second = new ReportGenerator(42, ReportShape.DEFAULT, CLOCK);
+    var other = new ReportGenerator(43, ReportShape.DEFAULT, CLOCK);
+    var host = first.host(3);
+
+    assertEquals(host, second.host(3));
+    assertEquals(first.jvmReport(host), second.jvmReport(host));
+    assertEquals(first.eapReport(host), second.eapReport(host));
+    assertEquals(
+        first.ingressAnnouncement(host, S3_URL, 10), second.ingressAnnouncement(host, S3_URL, 10));
+    assertNotEquals(first.jvmReport(host), other.jvmReport(other.host(3)));
+  }
+
+  @Test
+  public void testHostsAreSpreadOverOrgs() {
+    var generator =
+        new ReportGenerator(1, ReportShape.builder().orgs(3).hostsPerOrg(4).build(), CLOCK);
+    assertEquals(12, generator.hostCount());
+    var orgs = new HashSet<String>();
+    var hostnames = new HashSet<String>();
+    for (int i = 0; i < generator.hostCount(); i++) {
+      orgs.add(generator.host(i).orgId());
+      hostnames.add(generator.host(i).hostname());
+    }
+    assertEquals(3, orgs.size());
+    assertEquals(12, hostnames.size());
+    assertThrows(IndexOutOfBoundsException.class, () -> generator.host(12));
+  }
+
+  @Test
+  public void testJvmReport() {
+    var shape = ReportShape.builder().jvmJars(500).jvmArgs(30).build();
+    var generator = new ReportGenerator(7, shape, CLOCK);
+    var host = generator.host(0);
+    var report = generator.jvmReport(host);
+    var announcement = parser.fromJsonString(generator.ingressAnnouncement(host, S3_URL, 1));
+
+    assertEquals(ReportGenerator.CONTENT_TYPE, announcement.getContentType());
+    assertEquals(S3_URL, announcement.getUrl());
+    assertEquals(host.orgId(), announcement.getOrgId());
+    assertTrue(Utils.shouldProcessMessage(report.json(), CLOCK, false));
+
+    var inst = (JvmInstance) instanceOf(announcement, report.json());
+    assertEquals(report.linkingHash(), inst.getLinkingHash());
+    assertEquals(host.hostname(), inst.getHostname());
+    assertEquals(host.orgId(), inst.getOrgId());
+    assertEquals(500, inst.getJarHashes().size());
+    var args = inst.getJvmArgs();
+    assertEquals(
+        30, (args.length() - args.replace(REDACTED_VALUE, "").length()) / REDACTED_VALUE.length());
+  }
+
+  @Test
+  public void testEapReport() {
+    var shape =
+        ReportShape.builder()
+            .eapModules(1000)
+            .eapDeployments(200)
+            .archivesPerDeployment(4)
+            .eapSubsystems(30)
+            .eapExtensions(35)
+            .build();
+    var generator = new ReportGenerator(7, shape, CLOCK);
+    var host = generator.host(0);
+    var report = generator.eapReport(host);
+    var announcement = parser.fromJsonString(generator.ingressAnnouncement(host, S3_URL, 1));
+
+    var inst = (EapInstance) instanceOf(announcement, report.json());
+    assertEquals(report.linkingHash(), inst.getLinkingHash());
+    assertEquals(1000, inst.getModules().size());
+    assertEquals(200, inst.getDeployments().size());
+    inst.getDeployments().forEach(d -> assertEquals(4, d.getArchives().size()));
+    assertEquals(30, inst.getConfiguration().getSubsystems().size());
+    assertEquals(35, inst.getConfiguration().getExtensions().size());
+    assertEquals(200, inst.getConfiguration().getDeployments().size());
+  }
+
+  @Test
+  public void testJarReuse() {
+    var shared = ReportShape.builder().jvmJars(100).jarReuse(0.8).jarPoolSize(1000).build();
+    var generator = new ReportGenerator(7, shared, CLOCK);
+    var pool = new HashSet<String>();
+    for (int i = 0; i < 50; i++) {
+      var jars = jarsOf(generator, generator.jvmReport(generator.host(0)));
+      assertEquals(100, jars.size());
+      pool.addAll(jars);
+    }
+    // 80 jars of every report come from the pool, the 20 others are new
+    assertTrue(pool.size() <= 1000 + 50 * 20, "Too many distinct jars: " + pool.size());
+    assertTrue(pool.size() > 50 * 20, "Too few distinct jars: " + pool.size());
+
+    var unique = ReportShape.builder().jvmJars(100).jarReuse(0).build();
+    generator = new ReportGenerator(7, unique, CLOCK);
+    var first = jarsOf(generator, generator.jvmReport(generator.host(0)));
+    var second = jarsOf(generator, generator.jvmReport(generator.host(0)));
+    second.retainAll(first);
+    assertTrue(second.isEmpty());
+  }
+
+  @Test
+  public void testUpdatedJarsReport() {
+    var generator = new ReportGenerator(7, ReportShape.builder().updatedJars(25).build(), CLOCK);
+    var host = generator.host(0);
+    var jvm = generator.jvmReport(host);
+    var update = generator.updatedJarsReport(jvm.linkingHash());
+    var announcement = parser.fromJsonString(generator.ingressAnnouncement(host, S3_URL, 1));
+
+    assertTrue(Utils.shouldProcessMessage(update.json(), CLOCK, false));
+    var inst = (UpdateInstance) instanceOf(announcement, update.json());
+    assertEquals(jvm.linkingHash(), inst.getLinkingHash());
+    assertEquals(25, inst.getUpdates().size());
+  }
+
+  @Test
+  public void testEggUpload() {
+    var generator = new ReportGenerator(7, ReportShape.DEFAULT, CLOCK);
+    var host = generator.host(1);
+    var reports = List.of(generator.jvmReport(host), generator.eapReport(host));
+    var tarball = ReportGenerator.eggTarball(host, reports);
+
+    var jsons = new ArchiveFetcher().getJsonsFromArchiveStream(new ByteArrayInputStream(tarball));
+    assertEquals(reports.stream().map(ReportGenerator.Report::json).toList(), jsons);
+
+    var announcement = parser.fromJsonString(generator.eggAnnouncement(host, S3_URL));
+    assertTrue(announcement.isRuntimes());
+    assertEquals(S3_URL, announcement.getUrl());
+    assertEquals(host.orgId(), announcement.getOrgId());
+  }
+
+  @Test
+  public void testGzip() {
+    var generator = new ReportGenerator(7, ReportShape.DEFAULT, CLOCK);
+    var report = generator.eapReport(generator.host(0));
+    assertEquals(report.json(), ArchiveFetcher.unzipJson(ReportGenerator.gzip(report.json())));
+  }
+
+  private Set<String> jarsOf(ReportGenerator generator, ReportGenerator.Report report) {
+    var announcement =
+        parser.fromJsonString(generator.ingressAnnouncement(generator.host(0), S3_URL, 1));
+    var inst = (JvmInstance) instanceOf(announcement, report.json());
+    return inst.getJarHashes().stream()
+        .map(JarHash::getSha256Checksum)
+        .collect(Collectors.toCollection(HashSet::new));
+  }
+}
@@ -0,0 +1,68 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.events;
+
+import static com.redhat.runtimes.inventory.events.TestUtils.readFromResources;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.redhat.runtimes.inventory.models.JvmInstance;
+import java.io.IOException;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+public class StringPoolTest {
+
+  @Test
+  public void testEqualValuesAreShared() {
+    var pool = new StringPool(16);
+    var first = new String("Red Hat, Inc.");
+    var second = new String("Red Hat, Inc.");
+    assertNotSame(first, second);
+
+    assertSame(first, pool.intern(first));
+    assertSame(first, pool.intern(second));
+    assertNull(pool.intern(null));
+  }
+
+  @Test
+  public void testThePoolIsBounded() {
+    var pool = new StringPool(10);
+    assertEquals(16, pool.size());
+    // Every value takes the slot of the previous one with the same hash
+    var values = new String[1000];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = "quarkus-core-" + i + ".jar";
+      pool.intern(values[i]);
+    }
+    var again = new String(values[values.length - 1]);
+    assertSame(values[values.length - 1], pool.intern(again));
+  }
+
+  @Test
+  public void testLongValuesAndADisabledPoolAreNotShared() {
+    var pool = new StringPool(16);
+    var longValue = "x".repeat(StringPool.MAX_LENGTH + 1);
+    pool.intern(longValue);
+    assertNotSame(longValue, pool.intern(new String(longValue)));
+
+    var disabled = new StringPool(0);
+    var value = "17.0.1+12";
+    disabled.intern(value);
+    assertNotSame(value, disabled.intern(new String(value)));
+  }
+
+  @Test
+  public void testInstancesShareTheirRepeatedValues() throws IOException {
+    var announce = new ArchiveAnnouncement();
+    announce.setOrgId("orgId");
+    announce.setTimestamp(Instant.now());
+    var json = readFromResources("test17.json");
+
+    var first = (JvmInstance) Utils.instanceOf(announce, json);
+    var second = (JvmInstance) Utils.instanceOf(announce, json);
+    assertSame(first.getVendor(), second.getVendor());
+    assertSame(first.getJavaVmName(), second.getJavaVmName());
+    assertSame(first.getDetails().get("java.vm.name"), second.getDetails().get("java.vm.name"));
+    // Values that differ between hosts are not pooled
+    assertNotSame(first.getJvmArgs(), second.getJvmArgs());
+  }
+}
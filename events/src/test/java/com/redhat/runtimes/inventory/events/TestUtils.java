@@ -1,15 +1,23 @@
-/* Copyright (C) Red Hat 2023 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.runtimes.inventory.events;
 
 import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.*;
 
+import com.redhat.runtimes.inventory.models.ConfigBlob;
+import com.redhat.runtimes.inventory.models.EapExtension;
+import com.redhat.runtimes.inventory.models.EapInstance;
+import com.redhat.runtimes.inventory.models.JvmInstanceBase;
+import com.redhat.runtimes.inventory.models.RuntimeProfile;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.function.BooleanSupplier;
 import org.awaitility.core.ConditionTimeoutException;
 
@@ -91,6 +99,56 @@ public final class TestUtils {
             .getSingleResult();
   }
 
+  /**
+   * Gives a new instance the stored runtime profile, EAP extensions and config blobs it matches,
+   * storing them first if needed, as the ingestion does.
+   */
+  public static void storeShared(EntityManager entityManager, JvmInstanceBase inst) {
+    var profile = inst.getRuntimeProfile();
+    entityManager
+        .createQuery(
+            "SELECT p FROM RuntimeProfile p WHERE p.profileHash = :hash", RuntimeProfile.class)
+        .setParameter("hash", profile.computeProfileHash())
+        .getResultStream()
+        .findFirst()
+        .ifPresentOrElse(inst::setRuntimeProfile, () -> entityManager.persist(profile));
+
+    if (inst instanceof EapInstance eap && eap.getConfiguration() != null) {
+      var extensions = new HashSet<EapExtension>();
+      for (var extension : eap.getConfiguration().getExtensions()) {
+        extensions.add(
+            entityManager
+                .createQuery(
+                    "SELECT e FROM EapExtension e WHERE e.contentHash = :hash", EapExtension.class)
+                .setParameter("hash", extension.computeContentHash())
+                .getResultStream()
+                .findFirst()
+                .orElse(extension));
+      }
+      eap.getConfiguration().setExtensions(extensions);
+      eap.getConfiguration()
+          .setSubsystemBlobs(
+              storedBlobs(entityManager, eap.getConfiguration().getSubsystemBlobs()));
+      eap.getConfiguration()
+          .setDeploymentBlobs(
+              storedBlobs(entityManager, eap.getConfiguration().getDeploymentBlobs()));
+    }
+  }
+
+  private static Map<String, ConfigBlob> storedBlobs(
+      EntityManager entityManager, Map<String, ConfigBlob> blobs) {
+    if (blobs == null) {
+      return null;
+    }
+    var out = new LinkedHashMap<String, ConfigBlob>();
+    blobs.forEach(
+        (key, blob) -> {
+          var stored = entityManager.find(ConfigBlob.class, blob.getHash());
+          out.put(key, stored != null ? stored : blob);
+        });
+    return out;
+  }
+
   @Transactional
   public static void clearTables(EntityManager entityManager) {
     // Order is important here
@@ -102,9 +160,11 @@ public final class TestUtils {
     entityManager.createNativeQuery("DELETE FROM eap_deployment").executeUpdate();
     entityManager.createNativeQuery("DELETE FROM eap_configuration_eap_extension").executeUpdate();
     entityManager.createNativeQuery("DELETE FROM eap_configuration").executeUpdate();
+    entityManager.createNativeQuery("DELETE FROM eap_instance_raw").executeUpdate();
     entityManager.createNativeQuery("DELETE FROM eap_instance").executeUpdate();
     entityManager.createNativeQuery("DELETE FROM eap_configuration_deployments").executeUpdate();
     entityManager.createNativeQuery("DELETE FROM eap_configuration_subsystems").executeUpdate();
+    entityManager.createNativeQuery("DELETE FROM config_blob").executeUpdate();
     entityManager.createNativeQuery("DELETE FROM eap_extension").executeUpdate();
     entityManager.createNativeQuery("DELETE FROM eap_extension_subsystems").executeUpdate();
   }
@@ -0,0 +1,591 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.events.generator;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+
+/**
+ * Makes synthetic but realistic reports, in the formats sent by the agents, for load and scale
+ * testing: JVM and EAP reports, "updated-jars" reports, the egg tarballs that carry them and the
+ * Kafka announcements that point at them.
+ *
+ * <p>Everything is derived from the seed, so a generator fed the same calls produces the same
+ * reports. Hosts only depend on the seed and their index. The report times are taken from the
+ * clock, pass a fixed one to get identical reports across runs.
+ *
+ * <p>The cardinalities are set by the {@link ReportShape}. The jars of the reports are partly taken
+ * from a pool shared by all the reports, see {@link ReportShape#jarReuse()}, like real fleets where
+ * most hosts run the same libraries.
+ */
+public final class ReportGenerator {
+  public static final String CONTENT_TYPE =
+      "application/vnd.redhat.runtimes-java-general.analytics+tgz";
+  public static final String UPLOADS_PATH = "/data/var/tmp/insights-runtimes/uploads/";
+
+  // Sorted, as the iteration order of Map.of() changes from one JVM to the next
+  private static final ObjectMapper MAPPER =
+      new ObjectMapper().enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+  private static final HexFormat HEX = HexFormat.of();
+
+  private static final String[][] LIBRARIES = {
+    {"org.jboss.logging", "jboss-logging", "JBoss by Red Hat"},
+    {"org.jboss.modules", "jboss-modules", "JBoss by Red Hat"},
+    {"org.hibernate", "hibernate-core", "Hibernate.org"},
+    {"org.hibernate.validator", "hibernate-validator", "Hibernate.org"},
+    {"io.undertow", "undertow-core", "JBoss by Red Hat"},
+    {"io.netty", "netty-handler", "The Netty Project"},
+    {"io.netty", "netty-codec-http", "The Netty Project"},
+    {"com.fasterxml.jackson.core", "jackson-databind", "FasterXML"},
+    {"com.fasterxml.jackson.core", "jackson-core", "FasterXML"},
+    {"org.apache.activemq", "artemis-server", "The Apache Software Foundation"},
+    {"org.apache.httpcomponents", "httpclient", "The Apache Software Foundation"},
+    {"org.apache.commons", "commons-lang3", "The Apache Software Foundation"},
+    {"org.apache.commons", "commons-compress", "The Apache Software Foundation"},
+    {"org.infinispan", "infinispan-core", "JBoss by Red Hat"},
+    {"org.jgroups", "jgroups", "JBoss by Red Hat"},
+    {"org.wildfly.security", "wildfly-elytron", "JBoss by Red Hat"},
+    {"org.wildfly.core", "wildfly-controller", "JBoss by Red Hat"},
+    {"org.jboss.resteasy", "resteasy-core", "JBoss by Red Hat"},
+    {"org.jboss.weld", "weld-core-impl", "JBoss by Red Hat"},
+    {"org.slf4j", "slf4j-api", "QOS.ch"},
+    {"org.yaml", "snakeyaml", "snakeyaml"},
+    {"com.google.guava", "guava", "Google"},
+    {"io.smallrye", "smallrye-config", "SmallRye"},
+    {"org.postgresql", "postgresql", "PostgreSQL Global Development Group"},
+  };
+
+  private static final String[] JDKS = {"1.8.0_372", "11.0.19", "17.0.7", "21.0.1"};
+  private static final String[] EAP_VERSIONS = {"7.4.8", "7.4.11", "7.4.13", "8.0.0"};
+  private static final String[] SUBSYSTEMS = {
+    "logging",
+    "undertow",
+    "ejb3",
+    "jpa",
+    "jca",
+    "datasources",
+    "messaging-activemq",
+    "naming",
+    "transactions",
+    "weld",
+    "infinispan",
+    "jgroups",
+    "remoting",
+    "io",
+    "ee",
+    "security",
+    "jaxrs",
+    "jmx",
+    "mail",
+    "batch-jberet",
+    "bean-validation",
+    "deployment-scanner",
+    "health",
+    "metrics"
+  };
+
+  private final long seed;
+  private final ReportShape shape;
+  private final Clock clock;
+  private final Random random;
+  private final List<Map<String, Object>> jarPool;
+
+  public ReportGenerator(long seed, ReportShape shape) {
+    this(seed, shape, Clock.systemUTC());
+  }
+
+  public ReportGenerator(long seed, ReportShape shape, Clock clock) {
+    this.seed = seed;
+    this.shape = shape;
+    this.clock = clock;
+    this.random = new Random(seed);
+    var poolRandom = new Random(seed ^ 0x5DEECE66DL);
+    this.jarPool = new ArrayList<>(shape.jarPoolSize());
+    for (int i = 0; i < shape.jarPoolSize(); i++) {
+      jarPool.add(jar(poolRandom, null));
+    }
+  }
+
+  public ReportShape shape() {
+    return shape;
+  }
+
+  /** A host of the fleet, one of the {@code orgs * hostsPerOrg} of the shape. */
+  public record Host(int index, String orgId, String accountId, String hostname, UUID insightsId) {}
+
+  /** A report and the linking hash that identifies the JVM it is about. */
+  public record Report(String linkingHash, String json) {}
+
+  /** Number of hosts of the fleet. */
+  public int hostCount() {
+    return shape.orgs() * shape.hostsPerOrg();
+  }
+
+  /** The host with the given index, the same for every call. */
+  public Host host(int index) {
+    if (index < 0 || index >= hostCount()) {
+      throw new IndexOutOfBoundsException(index);
+    }
+    var hostRandom = new Random(seed * 31 + index);
+    int org = index / shape.hostsPerOrg();
+    return new Host(
+        index,
+        String.valueOf(1_000_000 + org),
+        String.valueOf(5_000_000 + org),
+        "host-" + org + "-" + (index % shape.hostsPerOrg()) + ".example.com",
+        new UUID(hostRandom.nextLong(), hostRandom.nextLong()));
+  }
+
+  /****************************************************************************
+   *                             Reports
+   ***************************************************************************/
+  public Report jvmReport(Host host) {
+    var linkingHash = linkingHash();
+    var jars = jars(shape.jvmJars());
+    var report = new LinkedHashMap<String, Object>();
+    report.put("version", "1.0.0");
+    report.put("idHash", linkingHash);
+    report.put("basic", basic(host, jars, false));
+    report.put("details", Map.of("workloadType", "Spring Boot", "is_ocp", random.nextBoolean()));
+    report.put("jars", jarsRep(jars));
+    return new Report(linkingHash, toJson(report));
+  }
+
+  public Report eapReport(Host host) {
+    var linkingHash = linkingHash();
+    var eapVersion = pick(EAP_VERSIONS);
+    var jars = List.of(jar(random, new String[] {"org.jboss.modules", "jboss-modules", "JBoss"}));
+    var basic = basic(host, jars, true);
+    var installDir = "/opt/jboss-eap-" + eapVersion;
+    basic.put("app.name", "Red Hat JBoss EAP " + new UUID(random.nextLong(), random.nextLong()));
+    basic.put("app.user.dir", installDir + "/bin");
+    basic.put("app.user.name", "jboss");
+    basic.put("app.client.exception", "");
+    basic.put("app.transport.type.file", "rhel");
+    basic.put("app.transport.type.https", "mtls");
+    basic.put("app.transport.cert.https", "/etc/pki/consumer/cert.pem");
+
+    var eap = new LinkedHashMap<String, Object>();
+    eap.put("name", "Red Hat JBoss EAP");
+    eap.put("version", "1.0.0");
+    eap.put("eap-version", "JBoss EAP " + eapVersion + ".GA (WildFly Core 15.0.26.Final)");
+    eap.put(
+        "eap-installation",
+        Map.of(
+            "version",
+            "1.0.0",
+            "eap-xp",
+            false,
+            "yaml-extension",
+            false,
+            "bootable-jar",
+            false,
+            "use-git",
+            false));
+    eap.put("eap-modules", jarsRep(jars(shape.eapModules())));
+    var deploymentNames = new ArrayList<String>();
+    var deployments = new ArrayList<Map<String, Object>>();
+    for (int i = 0; i < shape.eapDeployments(); i++) {
+      var name = "app-" + i + (i % 3 == 0 ? ".ear" : ".war");
+      deploymentNames.add(name);
+      deployments.add(Map.of("name", name, "archives", jars(shape.archivesPerDeployment())));
+    }
+    eap.put(
+        "eap-configuration",
+        Map.of(
+            "version",
+            "16.0.0",
+            "configuration",
+            eapConfiguration(host, installDir, deploymentNames)));
+    eap.put("eap-deployments", Map.of("version", "1.0.0", "deployments", deployments));
+
+    var report = new LinkedHashMap<String, Object>();
+    report.put("version", "1.0.0");
+    report.put("idHash", linkingHash);
+    report.put("basic", basic);
+    report.put("jars", jarsRep(jars));
+    report.put("eap", eap);
+    return new Report(linkingHash, toJson(report));
+  }
+
+  /** An update of the jars of the JVM with the linking hash, which has to be reported before. */
+  public Report updatedJarsReport(String linkingHash) {
+    var updated = new LinkedHashMap<String, Object>();
+    updated.put("version", "1.0.0");
+    updated.put("idHash", linkingHash);
+    updated.put("jars", jars(shape.updatedJars()));
+    var report = new LinkedHashMap<String, Object>();
+    report.put("version", "1.0.0");
+    report.put("idHash", linkingHash);
+    report.put("updated-jars", updated);
+    return new Report(linkingHash, toJson(report));
+  }
+
+  /****************************************************************************
+   *                             Archives
+   ***************************************************************************/
+  /** The payload of the ingress flow: the gzipped report. */
+  public static byte[] gzip(String json) {
+    var out = new ByteArrayOutputStream(json.length() / 8);
+    try (var gzip = new GZIPOutputStream(out)) {
+      gzip.write(json.getBytes(UTF_8));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out.toByteArray();
+  }
+
+  /** The payload of the egg flow: a gzipped tarball with the reports in the uploads directory. */
+  public static byte[] eggTarball(Host host, List<Report> reports) {
+    var out = new ByteArrayOutputStream();
+    try (var tar = new TarArchiveOutputStream(new GzipCompressorOutputStream(out))) {
+      tar.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+      // Egg archives carry plenty of other files, that have to be skipped
+      addEntry(tar, host.hostname() + "/data/boot/should_ignore", "ignored".getBytes(UTF_8));
+      for (int i = 0; i < reports.size(); i++) {
+        addEntry(
+            tar,
+            host.hostname() + UPLOADS_PATH + "report-" + i + ".json",
+            reports.get(i).json().getBytes(UTF_8));
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out.toByteArray();
+  }
+
+  private static void addEntry(TarArchiveOutputStream tar, String name, byte[] content)
+      throws IOException {
+    var entry = new TarArchiveEntry(name);
+    entry.setSize(content.length);
+    tar.putArchiveEntry(entry);
+    tar.write(content);
+    tar.closeArchiveEntry();
+  }
+
+  /****************************************************************************
+   *                             Announcements
+   ***************************************************************************/
+  /** The message of the ingress topic for an upload of the host that can be fetched at the URL. */
+  public String ingressAnnouncement(Host host, String url, int size) {
+    var requestId = requestId();
+    var announcement = new LinkedHashMap<String, Object>();
+    announcement.put("account", host.accountId());
+    announcement.put("category", "analytics");
+    announcement.put("content_type", CONTENT_TYPE);
+    announcement.put("metadata", Map.of("reporter", "", "stale_timestamp", "0001-01-01T00:00:00Z"));
+    announcement.put("request_id", requestId);
+    announcement.put("principal", host.orgId());
+    announcement.put("org_id", host.orgId());
+    announcement.put("service", "runtimes-java-general");
+    announcement.put("size", size);
+    announcement.put("url", url);
+    announcement.put("b64_identity", identityHeader(host));
+    announcement.put("timestamp", clock.instant().toString());
+    return toJson(announcement);
+  }
+
+  /** The message of the inventory events topic for an egg upload of the host. */
+  public String eggAnnouncement(Host host, String url) {
+    var requestId = requestId();
+    var hostRep = new LinkedHashMap<String, Object>();
+    hostRep.put("id", host.insightsId().toString());
+    hostRep.put("display_name", host.hostname());
+    hostRep.put("account", host.accountId());
+    hostRep.put("org_id", host.orgId());
+    hostRep.put("insights_id", host.insightsId().toString());
+    hostRep.put("fqdn", host.hostname());
+    hostRep.put("reporter", "puptoo");
+    var announcement = new LinkedHashMap<String, Object>();
+    announcement.put("type", "updated");
+    announcement.put("host", hostRep);
+    announcement.put("timestamp", clock.instant().toString());
+    announcement.put(
+        "platform_metadata", Map.of("request_id", requestId, "is_runtimes", true, "url", url));
+    announcement.put("metadata", Map.of("request_id", requestId));
+    return toJson(announcement);
+  }
+
+  /** The base64 encoded x-rh-identity of a user of the org of the host. */
+  public static String identityHeader(Host host) {
+    var identity =
+        Map.of(
+            "identity",
+            Map.of(
+                "account_number", host.accountId(),
+                "org_id", host.orgId(),
+                "internal", Map.of("org_id", host.orgId()),
+                "user", Map.of("username", "user-" + host.orgId()),
+                "type", "User",
+                "auth_type", "basic-auth"));
+    return Base64.getEncoder().encodeToString(toJson(identity).getBytes(UTF_8));
+  }
+
+  /****************************************************************************
+   *                             Parts of the reports
+   ***************************************************************************/
+  private Map<String, Object> basic(Host host, List<Map<String, Object>> jars, boolean eap) {
+    var jdk = pick(JDKS);
+    var spec = jdk.startsWith("1.") ? jdk.substring(0, 3) : jdk.substring(0, jdk.indexOf('.'));
+    var javaHome = "/usr/lib/jvm/java-" + spec + "-openjdk";
+    var classPath = new StringBuilder();
+    for (var jar : jars) {
+      if (!classPath.isEmpty()) {
+        classPath.append(':');
+      }
+      classPath.append("/opt/app/lib/").append(jar.get("name"));
+    }
+    var args = new StringBuilder("-Xms1303m -Xmx1303m -XX:MetaspaceSize=96M");
+    for (int i = 0; i < shape.jvmArgs(); i++) {
+      args.append(" -Dapp.setting.")
+          .append(i)
+          .append('=')
+          .append(HEX.toHexDigits(random.nextInt()));
+    }
+    var packages = new StringBuilder("[");
+    for (int i = 0; i < Math.min(jars.size(), 200); i++) {
+      var jar = jars.get(i);
+      @SuppressWarnings("unchecked")
+      var attributes = (Map<String, Object>) jar.get("attributes");
+      if (i > 0) {
+        packages.append(", ");
+      }
+      packages
+          .append("package ")
+          .append(attributes.get("groupId"))
+          .append(", ")
+          .append(attributes.get("artifactId"))
+          .append(", version ")
+          .append(jar.get("version"));
+    }
+    packages.append(']');
+
+    var basic = new LinkedHashMap<String, Object>();
+    basic.put("java.specification.version", spec);
+    basic.put("java.runtime.version", jdk + "+7");
+    basic.put("java.class.path", classPath.toString());
+    basic.put("system.os.name", "Linux");
+    basic.put("java.vm.vendor", "Red Hat, Inc.");
+    basic.put("jvm.packages", packages.toString());
+    basic.put("system.os.version", "5.14.0-284.11.1.el9_2.x86_64");
+    basic.put("jvm.args", args.toString());
+    basic.put("java.vm.specification.version", spec);
+    basic.put("java.vm.name", "OpenJDK 64-Bit Server VM");
+    basic.put("java.vendor.version", "(Red_Hat-" + jdk + ")");
+    basic.put("jvm.heap.min", 1303);
+    basic.put("java.command", eap ? "/opt/jboss-eap/jboss-modules.jar" : "com.example.Main");
+    basic.put("java.version", jdk);
+    basic.put("jvm.heap.gc.details", "gc::G1 Young Generation::G1 Old Generation");
+    basic.put("java.specification.vendor", "Oracle Corporation");
+    basic.put("java.home", javaHome);
+    basic.put("jvm.heap.max", 1303);
+    basic.put("system.arch", "amd64");
+    basic.put("java.library.path", "/usr/java/packages/lib:/usr/lib64:/lib64:/lib:/usr/lib");
+    basic.put("jvm.report_time", clock.millis());
+    basic.put("java.vm.specification.vendor", "Oracle Corporation");
+    basic.put("java.vendor", "Red Hat, Inc.");
+    basic.put("jvm.pid", 1000 + random.nextInt(60000));
+    basic.put("java.class.version", "55.0");
+    basic.put("system.hostname", host.hostname());
+    basic.put("system.cores.logical", 1 << random.nextInt(6));
+    return basic;
+  }
+
+  private Map<String, Object> eapConfiguration(
+      Host host, String installDir, List<String> deploymentNames) {
+    var configuration = new LinkedHashMap<String, Object>();
+    configuration.put("launch-type", "STANDALONE");
+    configuration.put("name", host.hostname());
+    configuration.put("organization", null);
+    configuration.put("process-type", "Server");
+    configuration.put("product-name", "JBoss EAP");
+    configuration.put("product-version", installDir.substring(installDir.lastIndexOf('-') + 1));
+    configuration.put("profile-name", null);
+    configuration.put("release-codename", "");
+    configuration.put("release-version", "15.0.26.Final-redhat-00001");
+    configuration.put("running-mode", "NORMAL");
+    configuration.put("runtime-configuration-state", "ok");
+    configuration.put("server-state", "running");
+    configuration.put("suspend-state", "RUNNING");
+
+    var sockets = new LinkedHashMap<String, Object>();
+    for (var binding : new String[] {"http", "https", "management-http", "txn-recovery"}) {
+      sockets.put(
+          binding,
+          Map.of("name", binding, "port", Map.of("EXPRESSION_VALUE", "${jboss." + binding + "}")));
+    }
+    configuration.put(
+        "socket-binding-group",
+        Map.of(
+            "standard-sockets",
+            Map.of(
+                "default-interface",
+                "public",
+                "name",
+                "standard-sockets",
+                "socket-binding",
+                sockets)));
+    var paths = new LinkedHashMap<String, Object>();
+    for (var path : new String[] {"log", "data", "base", "config", "temp"}) {
+      var name = "jboss.server." + path + ".dir";
+      paths.put(
+          name,
+          Map.of("name", name, "path", installDir + "/standalone/" + path, "read-only", true));
+    }
+    configuration.put("path", paths);
+    configuration.put(
+        "interface",
+        Map.of(
+            "public", Map.of("name", "public", "resolved-address", "127.0.0.1"),
+            "management", Map.of("name", "management", "resolved-address", "127.0.0.1")));
+    configuration.put(
+        "core-service",
+        Map.of(
+            "server-environment",
+            Map.of(
+                "base-dir",
+                installDir + "/standalone",
+                "home-dir",
+                installDir,
+                "host-name",
+                host.hostname())));
+
+    var extensions = new LinkedHashMap<String, Object>();
+    for (int i = 0; i < shape.eapExtensions(); i++) {
+      var subsystem = SUBSYSTEMS[i % SUBSYSTEMS.length] + (i < SUBSYSTEMS.length ? "" : "-" + i);
+      var module = "org.wildfly.extension." + subsystem;
+      extensions.put(
+          module,
+          Map.of(
+              "module",
+              module,
+              "subsystem",
+              Map.of(
+                  subsystem,
+                  Map.of(
+                      "management-major-version",
+                      1 + i % 5,
+                      "management-minor-version",
+                      i % 3,
+                      "management-micro-version",
+                      0))));
+    }
+    configuration.put("extension", extensions);
+    var subsystems = new LinkedHashMap<String, Object>();
+    for (int i = 0; i < shape.eapSubsystems(); i++) {
+      var subsystem = SUBSYSTEMS[i % SUBSYSTEMS.length] + (i < SUBSYSTEMS.length ? "" : "-" + i);
+      subsystems.put(
+          subsystem,
+          Map.of("enabled", true, "statistics-enabled", i % 2 == 0, "default-name", subsystem));
+    }
+    configuration.put("subsystem", subsystems);
+    var deployments = new LinkedHashMap<String, Object>();
+    for (var name : deploymentNames) {
+      deployments.put(
+          name,
+          Map.of(
+              "name",
+              name,
+              "runtime-name",
+              name,
+              "enabled",
+              true,
+              "status",
+              "OK",
+              "content",
+              List.of(Map.of("hash", Map.of("BYTES_VALUE", hex(random, 20))))));
+    }
+    configuration.put("deployment", deployments);
+    return configuration;
+  }
+
+  private static Map<String, Object> jarsRep(List<Map<String, Object>> jars) {
+    return Map.of("version", "1.0.0", "jars", jars);
+  }
+
+  /** Jars for a report, the configured share of them from the shared pool. */
+  private List<Map<String, Object>> jars(int count) {
+    int shared = Math.min((int) Math.round(count * shape.jarReuse()), jarPool.size());
+    var out = new ArrayList<Map<String, Object>>(count);
+    // A random window of the pool, so that the reports overlap without all being identical
+    int start = jarPool.isEmpty() ? 0 : random.nextInt(jarPool.size());
+    for (int i = 0; i < shared; i++) {
+      out.add(jarPool.get((start + i) % jarPool.size()));
+    }
+    while (out.size() < count) {
+      out.add(jar(random, null));
+    }
+    return out;
+  }
+
+  private static Map<String, Object> jar(Random random, String[] library) {
+    var lib = library != null ? library : LIBRARIES[random.nextInt(LIBRARIES.length)];
+    var version =
+        (1 + random.nextInt(6))
+            + "."
+            + random.nextInt(20)
+            + "."
+            + random.nextInt(30)
+            + ".Final-redhat-0000"
+            + (1 + random.nextInt(9));
+    var name = lib[1] + "-" + version + ".jar";
+    var attributes = new LinkedHashMap<String, Object>();
+    attributes.put("sha1Checksum", hex(random, 20));
+    attributes.put("Implementation-Vendor", lib[2]);
+    attributes.put("path", "modules/system/layers/base/" + lib[0].replace('.', '/') + "/" + name);
+    attributes.put("groupId", lib[0]);
+    attributes.put("sha256Checksum", hex(random, 32));
+    attributes.put("artifactId", lib[1]);
+    attributes.put("sha512Checksum", hex(random, 64));
+    attributes.put("version", version);
+    var jar = new LinkedHashMap<String, Object>();
+    jar.put("name", name);
+    jar.put("version", version);
+    jar.put("attributes", attributes);
+    return jar;
+  }
+
+  private String linkingHash() {
+    return hex(random, 64);
+  }
+
+  private String requestId() {
+    return "synthetic-" + seed + "/" + new UUID(random.nextLong(), random.nextLong());
+  }
+
+  private String pick(String[] values) {
+    return values[random.nextInt(values.length)];
+  }
+
+  private static String hex(Random random, int bytes) {
+    var buffer = new byte[bytes];
+    random.nextBytes(buffer);
+    return HEX.formatHex(buffer);
+  }
+
+  private static String toJson(Object value) {
+    try {
+      return MAPPER.writeValueAsString(value);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,159 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.runtimes.inventory.events.generator;
+
+/**
+ * The cardinalities of the reports made by the {@link ReportGenerator}.
+ *
+ * @param orgs number of distinct orgs the hosts are spread over
+ * @param hostsPerOrg number of hosts in every org
+ * @param jvmJars jars of a JVM report (and of the "jars" of an EAP report)
+ * @param eapModules jars of the "eap-modules" of an EAP report
+ * @param eapDeployments deployments of an EAP report
+ * @param archivesPerDeployment archives of every EAP deployment
+ * @param eapSubsystems subsystems of an EAP configuration
+ * @param eapExtensions extensions of an EAP configuration
+ * @param updatedJars jars of an "updated-jars" report
+ * @param jvmArgs number of -D parameters in "jvm.args"
+ * @param jarReuse share (0 to 1) of the jars of a report that are taken from a pool shared by all
+ *     the reports, the others are unique to the report
+ * @param jarPoolSize number of jars in the shared pool
+ */
+public record ReportShape(
+    int orgs,
+    int hostsPerOrg,
+    int jvmJars,
+    int eapModules,
+    int eapDeployments,
+    int archivesPerDeployment,
+    int eapSubsystems,
+    int eapExtensions,
+    int updatedJars,
+    int jvmArgs,
+    double jarReuse,
+    int jarPoolSize) {
+
+  /** Roughly the size of the sample reports of the tests. */
+  public static final ReportShape DEFAULT = builder().build();
+
+  public ReportShape {
+    if (jarReuse < 0 || jarReuse > 1) {
+      throw new IllegalArgumentException("jarReuse must be between 0 and 1: " + jarReuse);
+    }
+    if (orgs < 1 || hostsPerOrg < 1) {
+      throw new IllegalArgumentException("There must be at least one org and host");
+    }
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public Builder toBuilder() {
+    return new Builder()
+        .orgs(orgs)
+        .hostsPerOrg(hostsPerOrg)
+        .jvmJars(jvmJars)
+        .eapModules(eapModules)
+        .eapDeployments(eapDeployments)
+        .archivesPerDeployment(archivesPerDeployment)
+        .eapSubsystems(eapSubsystems)
+        .eapExtensions(eapExtensions)
+        .updatedJars(updatedJars)
+        .jvmArgs(jvmArgs)
+        .jarReuse(jarReuse)
+        .jarPoolSize(jarPoolSize);
+  }
+
+  public static final class Builder {
+    private int orgs = 1;
+    private int hostsPerOrg = 10;
+    private int jvmJars = 20;
+    private int eapModules = 3500;
+    private int eapDeployments = 2;
+    private int archivesPerDeployment = 3;
+    private int eapSubsystems = 40;
+    private int eapExtensions = 39;
+    private int updatedJars = 1;
+    private int jvmArgs = 20;
+    private double jarReuse = 0.9;
+    private int jarPoolSize = 5000;
+
+    private Builder() {}
+
+    public Builder orgs(int orgs) {
+      this.orgs = orgs;
+      return this;
+    }
+
+    public Builder hostsPerOrg(int hostsPerOrg) {
+      this.hostsPerOrg = hostsPerOrg;
+      return this;
+    }
+
+    public Builder jvmJars(int jvmJars) {
+      this.jvmJars = jvmJars;
+      return this;
+    }
+
+    public Builder eapModules(int eapModules) {
+      this.eapModules = eapModules;
+      return this;
+    }
+
+    public Builder eapDeployments(int eapDeployments) {
+      this.eapDeployments = eapDeployments;
+      return this;
+    }
+
+    public Builder archivesPerDeployment(int archivesPerDeployment) {
+      this.archivesPerDeployment = archivesPerDeployment;
+      return this;
+    }
+
+    public Builder eapSubsystems(int eapSubsystems) {
+      this.eapSubsystems = eapSubsystems;
+      return this;
+    }
+
+    public Builder eapExtensions(int eapExtensions) {
+      this.eapExtensions = eapExtensions;
+      return this;
+    }
+
+    public Builder updatedJars(int updatedJars) {
+      this.updatedJars = updatedJars;
+      return this;
+    }
+
+    public Builder jvmArgs(int jvmArgs) {
+      this.jvmArgs = jvmArgs;
+      return this;
+    }
+
+    public Builder jarReuse(double jarReuse) {
+      this.jarReuse = jarReuse;
+      return this;
+    }
+
+    public Builder jarPoolSize(int jarPoolSize) {
+      this.jarPoolSize = jarPoolSize;
+      return this;
+    }
+
+    public ReportShape build() {
+      return new ReportShape(
+          orgs,
+          hostsPerOrg,
+          jvmJars,
+          eapModules,
+          eapDeployments,
+          archivesPerDeployment,
+          eapSubsystems,
+          eapExtensions,
+          updatedJars,
+          jvmArgs,
+          jarReuse,
+          jarPoolSize);
+    }
+  }
+}
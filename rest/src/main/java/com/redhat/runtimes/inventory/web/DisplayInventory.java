@@ -1,16 +1,18 @@
-/* Copyright (C) Red Hat 2023 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.runtimes.inventory.web;
 
-import static com.redhat.runtimes.inventory.models.Constants.X_RH_IDENTITY_HEADER;
-
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.redhat.runtimes.inventory.auth.ConsoleIdentityProvider;
+import com.redhat.runtimes.inventory.auth.principal.CurrentPrincipal;
+import com.redhat.runtimes.inventory.jfr.QueryEvent;
+import com.redhat.runtimes.inventory.jfr.RecordQuery;
+import com.redhat.runtimes.inventory.metrics.TrackPersistence;
 import com.redhat.runtimes.inventory.models.EapInstance;
 import com.redhat.runtimes.inventory.models.JarHash;
 import com.redhat.runtimes.inventory.models.JvmInstance;
+import com.redhat.runtimes.inventory.models.JvmOnlyInstance;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.binder.jvm.JvmMemoryMetrics;
@@ -25,13 +27,14 @@ import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
-import java.util.Base64;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 @Path("/api/runtimes-inventory-service/v1")
 @RolesAllowed(ConsoleIdentityProvider.RBAC_READ_HOSTS)
+@TrackPersistence
+@RecordQuery
 public class DisplayInventory {
   public static final String PROCESSING_ERROR_COUNTER_NAME = "input.processing.error";
 
@@ -39,6 +42,8 @@ public class DisplayInventory {
 
   @Inject EntityManager entityManager;
 
+  @Inject CurrentPrincipal currentPrincipal;
+
   private Counter processingErrorCounter;
 
   @PostConstruct
@@ -52,22 +57,15 @@ public class DisplayInventory {
    * Given a RH identity header and a hostname, return all the associated JVM instance IDs
    *
    * @param hostname associated with the JVM instance
-   * @param rhIdentity
    * @return JSON String containing a list of JVM instance IDs
    */
   @GET
   @Path("/instance-ids/") // trailing slash is required by api
   @Produces(MediaType.APPLICATION_JSON)
-  public String getJvmInstanceIdRecords(
-      @QueryParam("hostname") String hostname,
-      @HeaderParam(X_RH_IDENTITY_HEADER) String rhIdentity) {
-    // X_RH header is just B64 encoded - decode for the org ID
-    String rhIdJson = new String(Base64.getDecoder().decode(rhIdentity));
-    Log.debugf("X_RH_IDENTITY_HEADER: %s", rhIdJson);
-    String orgId = "";
-    try {
-      orgId = extractOrgId(rhIdJson);
-    } catch (Exception e) {
+  public String getJvmInstanceIdRecords(@QueryParam("hostname") String hostname) {
+    // The org ID was already resolved from the X_RH header during authentication
+    String orgId = currentPrincipal.getOrgId();
+    if (orgId == null) {
       processingErrorCounter.increment();
       return "{\"response\": \"[error]\"}";
     }
@@ -76,7 +74,7 @@ public class DisplayInventory {
         entityManager.createQuery(
             """
               SELECT i.id
-              FROM JvmInstance i
+              FROM JvmOnlyInstance i
               WHERE i.orgId = :orgId and i.hostname = :hostname
               ORDER BY i.created desc
             """,
@@ -91,22 +89,15 @@ public class DisplayInventory {
    * Given a RH identity header and a JVM instance id, return the associated JVM instance
    *
    * @param jvmInstanceId id of the JVM instance
-   * @param rhIdentity
    * @return JSON String containing the specified JVM instance
    */
   @GET
   @Path("/instance/") // trailing slash is required by api
   @Produces(MediaType.APPLICATION_JSON)
-  public String getJvmInstanceRecord(
-      @QueryParam("jvmInstanceId") String jvmInstanceId,
-      @HeaderParam(X_RH_IDENTITY_HEADER) String rhIdentity) {
-    // X_RH header is just B64 encoded - decode for the org ID
-    String rhIdJson = new String(Base64.getDecoder().decode(rhIdentity));
-    Log.debugf("X_RH_IDENTITY_HEADER: %s", rhIdJson);
-    String orgId = "";
-    try {
-      orgId = extractOrgId(rhIdJson);
-    } catch (Exception e) {
+  public String getJvmInstanceRecord(@QueryParam("jvmInstanceId") String jvmInstanceId) {
+    // The org ID was already resolved from the X_RH header during authentication
+    String orgId = currentPrincipal.getOrgId();
+    if (orgId == null) {
       processingErrorCounter.increment();
       return """
       {"response": "[error]"}""";
@@ -129,6 +120,7 @@ public class DisplayInventory {
     } catch (NoResultException e) {
       return "{\"response\": \"[]\"}";
     }
+    QueryEvent.rows(1);
     ObjectMapper mapper = new ObjectMapper();
     mapper.registerModule(new JavaTimeModule());
     try {
@@ -145,38 +137,31 @@ public class DisplayInventory {
    * Given a RH identity header and a hostname, return all the associated JVM instances
    *
    * @param hostname associated with the JVM Instance
-   * @param rhIdentity
    * @return JSON String containing a list of JVM instances
    */
   @GET
   @Path("/instances/")
   @Produces(MediaType.APPLICATION_JSON)
-  public String getAllJvmInstanceRecords(
-      @QueryParam("hostname") String hostname,
-      @HeaderParam(X_RH_IDENTITY_HEADER) String rhIdentity) {
-    // X_RH header is just B64 encoded - decode for the org ID
-    String rhIdJson = new String(Base64.getDecoder().decode(rhIdentity));
-    Log.debugf("X_RH_IDENTITY_HEADER: %s", rhIdJson);
-    String orgId = "";
-    try {
-      orgId = extractOrgId(rhIdJson);
-    } catch (Exception e) {
+  public String getAllJvmInstanceRecords(@QueryParam("hostname") String hostname) {
+    // The org ID was already resolved from the X_RH header during authentication
+    String orgId = currentPrincipal.getOrgId();
+    if (orgId == null) {
       processingErrorCounter.increment();
       return "{\"response\": \"[error]\"}";
     }
-    // Retrieve from DB
-    TypedQuery<JvmInstance> query =
+    // Retrieve from DB - only the JVM columns, EAP instances are listed like the others
+    TypedQuery<JvmOnlyInstance> query =
         entityManager.createQuery(
             """
               SELECT i
-              FROM JvmInstance i
+              FROM JvmOnlyInstance i
               WHERE i.orgId = :orgId AND i.hostname = :hostname
               ORDER BY i.created desc
             """,
-            JvmInstance.class);
+            JvmOnlyInstance.class);
     query.setParameter("orgId", orgId);
     query.setParameter("hostname", hostname);
-    List<JvmInstance> results = query.getResultList();
+    List<JvmOnlyInstance> results = query.getResultList();
     return mapResultListToJson(results);
   }
 
@@ -195,7 +180,7 @@ public class DisplayInventory {
             """
               SELECT
                 jh.id, jh.name, jh.group_id, jh.vendor, jh.version,
-                jh.sha1Checksum, jh.sha256Checksum, jh.sha512Checksum
+                jh.sha1, jh.sha256, jh.sha512
               FROM jvm_instance_jar_hash jt
               RIGHT JOIN jar_hash jh
               ON jt.jar_hash_id = jh.id
@@ -211,22 +196,15 @@ public class DisplayInventory {
    * Given a RH identity header and a hostname, return all the associated EAP instance IDs
    *
    * @param hostname associated with the EAP instance
-   * @param rhIdentity
    * @return JSON String containing a list of EAP instance IDs
    */
   @GET
   @Path("/eap-instance-ids/") // trailing slash is required by api
   @Produces(MediaType.APPLICATION_JSON)
-  public String getEapInstanceIdRecords(
-      @QueryParam("hostname") String hostname,
-      @HeaderParam(X_RH_IDENTITY_HEADER) String rhIdentity) {
-    // X_RH header is just B64 encoded - decode for the org ID
-    String rhIdJson = new String(Base64.getDecoder().decode(rhIdentity));
-    Log.debugf("X_RH_IDENTITY_HEADER: %s", rhIdJson);
-    String orgId = "";
-    try {
-      orgId = extractOrgId(rhIdJson);
-    } catch (Exception e) {
+  public String getEapInstanceIdRecords(@QueryParam("hostname") String hostname) {
+    // The org ID was already resolved from the X_RH header during authentication
+    String orgId = currentPrincipal.getOrgId();
+    if (orgId == null) {
       processingErrorCounter.increment();
       return "{\"response\": \"[error]\"}";
     }
@@ -251,7 +229,6 @@ public class DisplayInventory {
    *
    * @param eapInstanceId id of the EAP instance
    * @param includeRaw determines whether to include the raw json in the response
-   * @param rhIdentity
    * @return JSON String containing the specified EAP instance
    */
   @GET
@@ -259,39 +236,38 @@ public class DisplayInventory {
   @Produces(MediaType.APPLICATION_JSON)
   public String getEapInstanceRecord(
       @QueryParam("eapInstanceId") String eapInstanceId,
-      @QueryParam("includeRaw") String includeRaw,
-      @HeaderParam(X_RH_IDENTITY_HEADER) String rhIdentity) {
-    // X_RH header is just B64 encoded - decode for the org ID
-    String rhIdJson = new String(Base64.getDecoder().decode(rhIdentity));
-    Log.debugf("X_RH_IDENTITY_HEADER: %s", rhIdJson);
-    String orgId = "";
-    try {
-      orgId = extractOrgId(rhIdJson);
-    } catch (Exception e) {
+      @QueryParam("includeRaw") String includeRaw) {
+    // The org ID was already resolved from the X_RH header during authentication
+    String orgId = currentPrincipal.getOrgId();
+    if (orgId == null) {
       processingErrorCounter.increment();
       return """
       {"response": "[error]"}""";
     }
-    // Retrieve from DB
+    // Retrieve from DB - the raw report is only read when it was asked for
     TypedQuery<EapInstance> query =
         entityManager.createQuery(
-            """
-              SELECT i
-              FROM EapInstance i
-              WHERE i.orgId = :orgId AND i.id = :id
-            """,
+            Boolean.parseBoolean(includeRaw)
+                ? """
+                  SELECT i
+                  FROM EapInstance i LEFT JOIN FETCH i.raw
+                  WHERE i.orgId = :orgId AND i.id = :id
+                """
+                : """
+                  SELECT i
+                  FROM EapInstance i
+                  WHERE i.orgId = :orgId AND i.id = :id
+                """,
             EapInstance.class);
     query.setParameter("id", UUID.fromString(eapInstanceId));
     query.setParameter("orgId", orgId);
     EapInstance result;
     try {
       result = query.getSingleResult();
-      if (!Boolean.parseBoolean(includeRaw)) {
-        result.setRaw("");
-      }
     } catch (NoResultException e) {
       return "{\"response\": \"[]\"}";
     }
+    QueryEvent.rows(1);
     ObjectMapper mapper = new ObjectMapper();
     mapper.registerModule(new JavaTimeModule());
     try {
@@ -309,48 +285,44 @@ public class DisplayInventory {
    *
    * @param hostname associated with the EAP Instance
    * @param includeRaw determines whether to include the raw json in the response
-   * @param rhIdentity
    * @return JSON String containing a list of EAP instances
    */
   @GET
   @Path("/eap-instances/")
   @Produces(MediaType.APPLICATION_JSON)
   public String getAllEapInstanceRecords(
-      @QueryParam("hostname") String hostname,
-      @QueryParam("includeRaw") String includeRaw,
-      @HeaderParam(X_RH_IDENTITY_HEADER) String rhIdentity) {
-    // X_RH header is just Base64 encoded - decode for the org ID
-    String rhIdJson = new String(Base64.getDecoder().decode(rhIdentity));
-    Log.debugf("X_RH_IDENTITY_HEADER: %s", rhIdJson);
-    String orgId = "";
-    try {
-      orgId = extractOrgId(rhIdJson);
-    } catch (Exception e) {
+      @QueryParam("hostname") String hostname, @QueryParam("includeRaw") String includeRaw) {
+    // The org ID was already resolved from the X_RH header during authentication
+    String orgId = currentPrincipal.getOrgId();
+    if (orgId == null) {
       processingErrorCounter.increment();
       return "{\"response\": \"[error]\"}";
     }
-    // Retrieve from DB
+    // Retrieve from DB - the raw report is only read when it was asked for
     TypedQuery<EapInstance> query =
         entityManager.createQuery(
-            """
-              SELECT i
-              FROM EapInstance i
-              WHERE i.orgId = :orgId AND i.hostname = :hostname
-              ORDER BY i.created desc
-            """,
+            Boolean.parseBoolean(includeRaw)
+                ? """
+                  SELECT i
+                  FROM EapInstance i LEFT JOIN FETCH i.raw
+                  WHERE i.orgId = :orgId AND i.hostname = :hostname
+                  ORDER BY i.created desc
+                """
+                : """
+                  SELECT i
+                  FROM EapInstance i
+                  WHERE i.orgId = :orgId AND i.hostname = :hostname
+                  ORDER BY i.created desc
+                """,
             EapInstance.class);
     query.setParameter("orgId", orgId);
     query.setParameter("hostname", hostname);
     List<EapInstance> results = query.getResultList();
-    if (!Boolean.parseBoolean(includeRaw)) {
-      for (EapInstance result : results) {
-        result.setRaw("");
-      }
-    }
     return mapResultListToJson(results);
   }
 
   private String mapResultListToJson(List<?> resultList) {
+    QueryEvent.rows(resultList.size());
     if (resultList.size() == 0) {
       return "{\"response\": \"[]\"}";
     }
@@ -365,23 +337,4 @@ public class DisplayInventory {
       return "{\"response\": \"[error]\"}";
     }
   }
-
-  @SuppressWarnings("unchecked")
-  static String extractOrgId(String rhIdJson) {
-    TypeReference<Map<String, Object>> typeRef = new TypeReference<>() {};
-    String out = "";
-
-    var mapper = new ObjectMapper();
-    mapper.registerModule(new JavaTimeModule());
-    try {
-      var o = mapper.readValue(rhIdJson, typeRef);
-      var identity = (Map<String, Object>) o.get("identity");
-      out = String.valueOf(identity.get("org_id"));
-    } catch (JsonProcessingException | ClassCastException | NumberFormatException e) {
-      Log.error("Error in unmarshalling incoming JSON", e);
-      throw new RuntimeException("Error in unmarshalling JSON", e);
-    }
-
-    return out;
-  }
 }
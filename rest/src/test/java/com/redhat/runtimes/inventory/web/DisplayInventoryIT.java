@@ -1,4 +1,4 @@
-/* Copyright (C) Red Hat 2023-2024 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.runtimes.inventory.web;
 
 import static com.redhat.runtimes.inventory.MockServerConfig.RbacAccess.FULL_ACCESS;
@@ -111,7 +111,8 @@ public class DisplayInventoryIT {
   }
 
   @Transactional
-  void persistInstanceToDatabase(Object instance) {
+  void persistInstanceToDatabase(JvmInstance instance) {
+    TestUtils.storeShared(entityManager, instance);
     entityManager.persist(instance);
   }
 